@@ -1,9 +1,29 @@
 package com.hermes.jobs;
 
 import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 public class UrlUtils {
 
+    // parâmetros de rastreamento que não identificam a vaga
+    private static final Set<String> TRACKING_PARAMS = Set.of(
+            "gclid", "fbclid", "msclkid", "ref", "referrer", "source", "src", "trk",
+            "lever-source", "lever-origin", "gh_src", "jobboardsource", "origin"
+    );
+
+    // greenhouse embutido identifica a vaga pela query
+    private static final Set<String> GREENHOUSE_PARAMS = Set.of("for", "token", "gh_jid");
+
+    // workday repete a vaga sob /en-US/, /pt-BR/...
+    private static final Pattern WORKDAY_LOCALE = Pattern.compile("^/[a-z]{2}-[A-Z]{2}(?=/)");
+
     public static String extractDomain(String url) {
         try {
             String host = URI.create(url).getHost();
@@ -55,4 +75,113 @@ public class UrlUtils {
 
         return "site";
     }
+
+    // =========================
+    // URL CANÔNICA
+    // =========================
+
+    /**
+     * Forma canônica usada como chave da vaga: esquema e host em minúsculas,
+     * sem {@code www.}, porta padrão, fragmento, barra final e parâmetros de
+     * rastreamento. Por ATS: lever, gupy e workday descartam a query
+     * (workday também o prefixo de idioma), lever e workday o sufixo
+     * {@code /apply}, e greenhouse só mantém {@code for}, {@code token} e
+     * {@code gh_jid}. URL inválida volta só com trim.
+     */
+    public static String canonicalize(String url) {
+        if (url == null)
+            return null;
+
+        String trimmed = url.trim();
+        URI uri;
+        try {
+            uri = new URI(trimmed);
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+
+        if (uri.getScheme() == null || uri.getHost() == null)
+            return trimmed;
+
+        String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        if (host.startsWith("www."))
+            host = host.substring(4);
+
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        String query = uri.getRawQuery();
+
+        if (host.endsWith("lever.co")) {
+            path = stripSuffix(path, "/apply");
+            query = null;
+        } else if (host.endsWith("greenhouse.io")) {
+            if (host.equals("job-boards.greenhouse.io"))
+                host = "boards.greenhouse.io";
+            query = filterQuery(query, GREENHOUSE_PARAMS::contains);
+        } else if (host.endsWith("gupy.io")) {
+            query = null;
+        } else if (host.endsWith("myworkdayjobs.com")) {
+            path = stripSuffix(WORKDAY_LOCALE.matcher(path).replaceFirst(""), "/apply");
+            query = null;
+        } else {
+            query = filterQuery(query, name -> !isTracking(name));
+        }
+
+        while (path.endsWith("/"))
+            path = path.substring(0, path.length() - 1);
+
+        int port = uri.getPort();
+        boolean defaultPort = port == -1
+                || (port == 80 && scheme.equals("http"))
+                || (port == 443 && scheme.equals("https"));
+
+        return scheme + "://" + host
+                + (defaultPort ? "" : ":" + port)
+                + path
+                + (query == null ? "" : "?" + query);
+    }
+
+    /** Chave de 64 bits da URL canônica: os 8 primeiros bytes do SHA-256. */
+    public static long hash(String canonicalUrl) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonicalUrl.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isTracking(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        return lower.startsWith("utm_") || TRACKING_PARAMS.contains(lower);
+    }
+
+    // mantém os parâmetros aceitos, ordenados; null quando não sobra nenhum
+    private static String filterQuery(String query, Predicate<String> keep) {
+        if (query == null || query.isEmpty())
+            return null;
+
+        List<String> params = new ArrayList<>();
+        for (String param : query.split("&")) {
+            if (param.isEmpty())
+                continue;
+
+            int eq = param.indexOf('=');
+            String name = eq < 0 ? param : param.substring(0, eq);
+            if (keep.test(name))
+                params.add(param);
+        }
+
+        if (params.isEmpty())
+            return null;
+
+        Collections.sort(params);
+        return String.join("&", params);
+    }
+
+    private static String stripSuffix(String path, String suffix) {
+        String trimmed = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        return trimmed.endsWith(suffix) ? trimmed.substring(0, trimmed.length() - suffix.length()) : path;
+    }
 }
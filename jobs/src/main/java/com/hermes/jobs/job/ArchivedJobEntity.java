@@ -0,0 +1,100 @@
+package com.hermes.jobs.job;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Vaga inativa movida para fora da tabela quente ({@link JobArchive}). Mesmas
+ * colunas de {@link JobEntity} e o mesmo id; do texto normalizado da busca só
+ * a descrição é guardada (comprimida), os campos curtos são refeitos na
+ * restauração ({@link JobArchive#restore}).
+ */
+@Entity
+@Table(name = "jobs_archive", indexes = {
+        @Index(name = "idx_job_archive_url_hash", columnList = "urlHash", unique = true)
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedJobEntity {
+
+    // id que a vaga tinha na tabela quente
+    @Id
+    private UUID id;
+
+    @Column(nullable = false, length = 1000)
+    private String url;
+
+    @Column(nullable = false)
+    private Long urlHash;
+
+    @Column(nullable = false)
+    private String empresa;
+
+    @Column(nullable = false)
+    private String domain;
+
+    @Column(nullable = false)
+    private OffsetDateTime coletadoEm;
+
+    @Column(nullable = false)
+    private OffsetDateTime arquivadoEm;
+
+    @Column(nullable = false)
+    private String source;
+
+    @Column(length = 120)
+    private String sourceType;
+
+    @Column(length = 200)
+    private String sourceName;
+
+    @Column
+    private Double confidence;
+
+    @Column(length = 80)
+    private String parserVersion;
+
+    @Column(length = 150)
+    private String ingestionTraceId;
+
+    @Column(length = 500)
+    private String title;
+
+    @Column(length = 300)
+    private String location;
+
+    // mesmo formato de JobEntity (CompressedText): os bytes passam de uma tabela à outra sem recomprimir
+    @Column(name = "description", length = 1_048_576)
+    private byte[] compressedDescription;
+
+    @Column(name = "normalized_description", length = 1_048_576)
+    private byte[] compressedNormalizedDescription;
+
+    @Column(length = 500)
+    private String stacks;
+
+    @Column(length = 200)
+    private String seniority;
+
+    @Column(length = 200)
+    private String workMode;
+
+    @Column
+    private Long contentHash;
+
+    @Column
+    private Long simHash;
+
+    @Column
+    private Long duplicateGroup;
+
+    public String getDescription() {
+        return CompressedText.decompress(compressedDescription);
+    }
+}
@@ -0,0 +1,32 @@
+package com.hermes.jobs.job;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ArchivedJobRepository extends JpaRepository<ArchivedJobEntity, UUID> {
+
+    List<ArchivedJobEntity> findByUrlHashIn(Collection<Long> urlHashes);
+
+    // espelho de JobRepository#insertFromArchive: só as inativas, sem hidratar entidades
+    @Modifying
+    @Query("insert into ArchivedJobEntity (id, url, urlHash, empresa, domain, coletadoEm, arquivadoEm, source, " +
+            "sourceType, sourceName, confidence, parserVersion, ingestionTraceId, title, location, compressedDescription, " +
+            "compressedNormalizedDescription, stacks, seniority, workMode, contentHash, simHash, duplicateGroup) " +
+            "select j.id, j.url, j.urlHash, j.empresa, j.domain, j.coletadoEm, :arquivadoEm, j.source, " +
+            "j.sourceType, j.sourceName, j.confidence, j.parserVersion, j.ingestionTraceId, j.title, j.location, " +
+            "j.compressedDescription, j.compressedNormalizedDescription, j.stacks, j.seniority, j.workMode, " +
+            "j.contentHash, j.simHash, j.duplicateGroup " +
+            "from JobEntity j where j.id in :ids and j.active = false")
+    int insertInactiveFromJobs(@Param("ids") Collection<UUID> ids, @Param("arquivadoEm") OffsetDateTime arquivadoEm);
+
+    @Modifying
+    @Query("delete from ArchivedJobEntity a where a.urlHash in :urlHashes")
+    int deleteByUrlHashIn(@Param("urlHashes") Collection<Long> urlHashes);
+}
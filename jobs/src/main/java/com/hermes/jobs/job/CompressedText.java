@@ -0,0 +1,99 @@
+package com.hermes.jobs.job;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Formato das colunas de descrição: um byte de formato seguido de UTF-8 puro
+ * ({@link #RAW}) ou comprimido com DEFLATE ({@link #DEFLATE}). Textos curtos
+ * ou que não encolhem ficam crus; descrições de vaga típicas caem para um
+ * terço ou um quarto do tamanho.
+ */
+final class CompressedText {
+
+    static final byte RAW = 0;
+    static final byte DEFLATE = 1;
+
+    // abaixo disso o cabeçalho do DEFLATE come o ganho
+    private static final int MIN_COMPRESSIBLE_BYTES = 128;
+    private static final int BUFFER = 8192;
+
+    private CompressedText() {
+    }
+
+    static byte[] compress(String text) {
+        if (text == null)
+            return null;
+
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length >= MIN_COMPRESSIBLE_BYTES) {
+            byte[] deflated = deflate(raw);
+            if (deflated.length < raw.length)
+                return deflated;
+        }
+
+        byte[] stored = new byte[raw.length + 1];
+        stored[0] = RAW;
+        System.arraycopy(raw, 0, stored, 1, raw.length);
+        return stored;
+    }
+
+    static String decompress(byte[] stored) {
+        if (stored == null)
+            return null;
+        if (stored.length == 0)
+            return "";
+
+        return switch (stored[0]) {
+            case RAW -> new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+            case DEFLATE -> inflate(stored);
+            default -> throw new IllegalStateException("formato de texto desconhecido: " + stored[0]);
+        };
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        // nível padrão: roda no caminho síncrono da importação; BEST_COMPRESSION custa bem mais CPU por poucos por cento
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 3 + 16);
+            out.write(DEFLATE);
+            byte[] buffer = new byte[BUFFER];
+            while (!deflater.finished())
+                out.write(buffer, 0, deflater.deflate(buffer));
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String inflate(byte[] stored) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored, 1, stored.length - 1);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(stored.length * 4);
+            byte[] buffer = new byte[BUFFER];
+            while (!inflater.finished()) {
+                int read = inflater.inflate(buffer);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    throw new IllegalStateException("texto comprimido truncado");
+                out.write(buffer, 0, read);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("texto comprimido inválido", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    static boolean isCompressed(byte[] stored) {
+        return stored != null && stored.length > 0 && stored[0] == DEFLATE;
+    }
+}
@@ -0,0 +1,62 @@
+package com.hermes.jobs.job;
+
+import com.hermes.jobs.job.dto.JobDocument;
+import com.hermes.jobs.search.JobClassifier;
+
+/**
+ * Hash FNV-1a de 64 bits dos campos de um documento do crawler que alimentam
+ * a vaga gravada, mais a versão do classificador e o limite de descrição.
+ * Mesmo hash = mesmo resultado de limpeza e classificação.
+ */
+final class ContentFingerprint {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    // incrementar quando o import passar a derivar campos novos do documento
+    private static final int FORMAT = 2;
+
+    private static final char FIELD_SEPARATOR = '\u001F';
+    private static final char NULL_MARKER = '\u0000';
+
+    private ContentFingerprint() {
+    }
+
+    static long of(JobDocument doc, int maxDescriptionLength) {
+        long hash = OFFSET_BASIS;
+
+        hash = mix(hash, FORMAT + ":" + JobClassifier.VERSION + ":" + maxDescriptionLength);
+        hash = mix(hash, trimmed(doc.title()));
+        hash = mix(hash, trimmed(doc.location()));
+        hash = mix(hash, doc.description());
+        hash = mix(hash, trimmed(doc.sourceType()));
+        hash = mix(hash, trimmed(doc.sourceName()));
+        hash = mix(hash, doc.confidence() == null ? null : doc.confidence().toString());
+        hash = mix(hash, trimmed(doc.parserVersion()));
+
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        if (value == null) {
+            hash = (hash ^ NULL_MARKER) * PRIME;
+        } else {
+            for (int i = 0, length = value.length(); i < length; i++) {
+                char c = value.charAt(i);
+                hash = (hash ^ (c & 0xff)) * PRIME;
+                hash = (hash ^ (c >>> 8)) * PRIME;
+            }
+        }
+
+        return (hash ^ FIELD_SEPARATOR) * PRIME;
+    }
+
+    // mesma regra do JobService: espaços nas pontas e texto vazio não mudam a vaga
+    private static String trimmed(String value) {
+        if (value == null)
+            return null;
+
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
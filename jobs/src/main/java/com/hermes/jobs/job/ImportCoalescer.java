@@ -0,0 +1,181 @@
+package com.hermes.jobs.job;
+
+import com.hermes.jobs.job.dto.JobDocument;
+import com.hermes.jobs.job.dto.JobImportRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+/**
+ * Group commit do import síncrono. O consumer manda um documento por
+ * requisição; as requisições que chegam dentro de {@code jobs.import.coalesce.window}
+ * (ou até {@code max-documents}) viram um único {@link JobService#importDocuments}.
+ *
+ * <p>A primeira requisição do grupo é a líder: fecha o grupo e importa em nome
+ * de todas. Sem outro grupo gravando ela sai na hora; com um commit em
+ * andamento ela junta quem chega até esse commit terminar, no máximo pela
+ * janela. Uma requisição sozinha não paga espera nenhuma. Cada requisição recebe a mesma contagem que teria
+ * sozinha (URLs distintas aceitas no seu lote). Se o grupo falhar, cada
+ * requisição é importada separadamente para que um documento ruim não derrube
+ * as demais.
+ */
+@Slf4j
+@Component
+public class ImportCoalescer {
+
+    private final JobService service;
+    private final ImportProperties.Coalesce properties;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition closed = lock.newCondition();
+    private Group open;
+    // grupos fechados ainda gravando
+    private int committing;
+
+    public ImportCoalescer(JobService service, ImportProperties properties) {
+        this.service = service;
+        this.properties = properties.getCoalesce();
+    }
+
+    public int importDocuments(JobImportRequest request) {
+        int documents = request.jobs() == null ? 0 : request.jobs().size();
+        if (!properties.isEnabled() || documents == 0 || documents >= properties.getMaxDocuments())
+            return service.importDocuments(request);
+
+        Caller caller = new Caller(request);
+        Group group;
+        boolean leader;
+
+        lock.lock();
+        try {
+            leader = open == null;
+            if (leader)
+                open = new Group();
+
+            group = open;
+            group.add(caller);
+
+            if (group.documents >= properties.getMaxDocuments()) {
+                open = null;
+                closed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (leader) {
+            awaitWindow(group);
+            try {
+                run(group);
+            } finally {
+                finishCommit();
+            }
+        }
+
+        try {
+            return caller.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
+    }
+
+    // espera só enquanto outro grupo grava; o fim daquele commit fecha este grupo
+    private void awaitWindow(Group group) {
+        long remaining = properties.getWindow().toNanos();
+
+        lock.lock();
+        try {
+            while (open == group && committing > 0 && remaining > 0)
+                remaining = closed.awaitNanos(remaining);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (open == group)
+                open = null;
+            committing++;
+            lock.unlock();
+        }
+    }
+
+    private void finishCommit() {
+        lock.lock();
+        try {
+            committing--;
+            closed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run(Group group) {
+        if (group.callers.size() == 1) {
+            Caller caller = group.callers.get(0);
+            complete(caller, () -> service.importDocuments(caller.request));
+            return;
+        }
+
+        List<JobDocument> documents = new ArrayList<>(group.documents);
+        group.callers.forEach(caller -> documents.addAll(caller.request.jobs()));
+
+        try {
+            service.importDocuments(new JobImportRequest(documents));
+        } catch (RuntimeException e) {
+            log.warn("[import-coalescer] lote de {} requisições falhou, importando separadamente", group.callers.size(), e);
+            group.callers.forEach(caller -> complete(caller, () -> service.importDocuments(caller.request)));
+            return;
+        }
+
+        group.callers.forEach(caller -> caller.result.complete(acceptedUrls(caller.request)));
+    }
+
+    private static void complete(Caller caller, IntSupplier importer) {
+        try {
+            caller.result.complete(importer.getAsInt());
+        } catch (RuntimeException e) {
+            caller.result.completeExceptionally(e);
+        }
+    }
+
+    // mesma contagem do import isolado: URLs distintas que passam na validação
+    private static int acceptedUrls(JobImportRequest request) {
+        Set<String> urls = new HashSet<>();
+        request.jobs().stream()
+                .map(JobService::acceptedUrl)
+                .filter(Objects::nonNull)
+                .forEach(urls::add);
+        return urls.size();
+    }
+
+    private static final class Group {
+
+        final List<Caller> callers = new ArrayList<>();
+        int documents;
+
+        void add(Caller caller) {
+            callers.add(caller);
+            documents += caller.request.jobs().size();
+        }
+    }
+
+    private static final class Caller {
+
+        final JobImportRequest request;
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+
+        Caller(JobImportRequest request) {
+            this.request = request;
+        }
+    }
+}
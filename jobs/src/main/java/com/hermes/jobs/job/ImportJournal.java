@@ -0,0 +1,390 @@
+package com.hermes.jobs.job;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal local append-only dos lotes aceitos pelo import assíncrono.
+ *
+ * <p>Os registros vão para segmentos {@code journal-<primeira sequência>.log}
+ * via {@link FileChannel}; cada registro é {@code [tamanho][crc32c][sequência][payload]}.
+ * {@link #append} só escreve, {@link #sync} faz o fsync em grupo (uma chamada
+ * cobre tudo que já foi escrito) e {@link #checkpoint} marca até onde os lotes
+ * já estão no banco, apagando segmentos inteiramente cobertos. Segmento novo
+ * e checkpoint renomeado também forçam o diretório, para a entrada do arquivo
+ * não se perder numa queda. Ao abrir, um
+ * registro incompleto no fim (queda no meio da escrita) é descartado.
+ *
+ * <p>Os registros voltam por um {@link Reader}, que lê um por vez direto dos
+ * segmentos a partir do checkpoint e só entrega o que já passou pelo fsync:
+ * nada do journal fica em memória, nem na abertura.
+ */
+@Slf4j
+final class ImportJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT = "checkpoint";
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    record Record(long sequence, byte[] payload) {
+    }
+
+    private final Path directory;
+    private final long segmentBytes;
+
+    // primeira sequência -> arquivo do segmento
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+
+    private final Object syncLock = new Object();
+    private final Object durableSignal = new Object();
+
+    private FileChannel current;
+    private long nextSequence;
+    private long checkpointed;
+    private long recoveredBytes;
+    private volatile long durableSequence;
+    // depois de um fsync com erro o page cache não é confiável: nada mais é aceito nem fica durável
+    private volatile IOException syncFailure;
+
+    ImportJournal(Path directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+
+        try {
+            Files.createDirectories(directory);
+            checkpointed = readCheckpoint();
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("não foi possível abrir o journal em " + directory, e);
+        }
+    }
+
+    /** Leitor posicionado logo depois do checkpoint atual. */
+    synchronized Reader reader() {
+        return new Reader(checkpointed + 1);
+    }
+
+    /** Bytes de payload depois do checkpoint encontrados na abertura. */
+    long recoveredBytes() {
+        return recoveredBytes;
+    }
+
+    /** Registros gravados e ainda não cobertos pelo checkpoint. */
+    synchronized long pendingRecords() {
+        return nextSequence - 1 - checkpointed;
+    }
+
+    /** Escreve o registro sem fsync; retorna a sequência para {@link #sync}. */
+    synchronized long append(byte[] payload) throws IOException {
+        checkUsable();
+        if (current == null || current.size() >= segmentBytes)
+            roll();
+
+        long sequence = nextSequence++;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.putInt(payload.length).putInt(crc(sequence, payload)).putLong(sequence).put(payload).flip();
+
+        while (buffer.hasRemaining())
+            current.write(buffer);
+
+        return sequence;
+    }
+
+    /**
+     * Garante que {@code sequence} está em disco. Quem chega enquanto outro
+     * fsync roda espera e normalmente já sai coberto por ele. Uma falha de
+     * fsync é definitiva até reabrir: {@link #append} e {@link #sync} passam
+     * a falhar e o {@link Reader} não vai além do que já estava em disco.
+     */
+    void sync(long sequence) throws IOException {
+        if (durableSequence >= sequence)
+            return;
+
+        synchronized (syncLock) {
+            if (durableSequence >= sequence)
+                return;
+            checkUsable();
+
+            long written;
+            FileChannel channel;
+            synchronized (this) {
+                written = nextSequence - 1;
+                channel = current;
+            }
+
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // roll() e close() forçam o segmento antes de fechá-lo: se ele já não é o
+                // atual, tudo até written está em disco; fechado por outro motivo, falha
+                synchronized (this) {
+                    if (current == channel)
+                        throw fail(e);
+                }
+            } catch (IOException e) {
+                throw fail(e);
+            }
+            durableSequence = written;
+        }
+
+        synchronized (durableSignal) {
+            durableSignal.notifyAll();
+        }
+    }
+
+    private IOException fail(IOException e) {
+        syncFailure = e;
+        return e;
+    }
+
+    private void checkUsable() throws IOException {
+        if (syncFailure != null)
+            throw new IOException("journal inutilizável depois de uma falha de fsync", syncFailure);
+    }
+
+    /** Espera até {@code sequence} estar em disco, no máximo {@code timeout}. */
+    void awaitDurable(long sequence, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (durableSignal) {
+            for (long remaining = timeout.toNanos(); durableSequence < sequence && remaining > 0;
+                 remaining = deadline - System.nanoTime())
+                TimeUnit.NANOSECONDS.timedWait(durableSignal, remaining);
+        }
+    }
+
+    /** Lotes até {@code sequence} (inclusive) já estão no banco. */
+    synchronized void checkpoint(long sequence) throws IOException {
+        if (sequence <= checkpointed)
+            return;
+
+        Path temp = directory.resolve(CHECKPOINT + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(Long.toString(sequence).getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        checkpointed = sequence;
+
+        // segmento pode sair quando o seguinte começa depois do checkpoint
+        Iterator<Map.Entry<Long, Path>> it = segments.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Path> segment = it.next();
+            Long next = segments.higherKey(segment.getKey());
+            if (next == null || next - 1 > sequence)
+                break;
+
+            Files.deleteIfExists(segment.getValue());
+            it.remove();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (current != null) {
+            current.force(false);
+            current.close();
+            current = null;
+        }
+    }
+
+    // =========================
+    // RECUPERAÇÃO
+    // =========================
+
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(ImportJournal::isSegment)
+                    .forEach(file -> segments.put(firstSequence(file), file));
+        }
+
+        nextSequence = checkpointed + 1;
+
+        for (Path segment : segments.values())
+            scan(segment);
+
+        durableSequence = nextSequence - 1;
+
+        if (!segments.isEmpty()) {
+            Path last = segments.lastEntry().getValue();
+            current = FileChannel.open(last, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+
+        if (pendingRecords() > 0)
+            log.info("[import-journal] {} lotes pendentes após o checkpoint {}", pendingRecords(), checkpointed);
+    }
+
+    /** Lê os registros íntegros do segmento e trunca o que vier depois. */
+    private void scan(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long position = 0;
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+
+            while (position + HEADER_BYTES <= size) {
+                header.clear();
+                channel.read(header, position);
+                header.flip();
+
+                int length = header.getInt();
+                int crc = header.getInt();
+                long sequence = header.getLong();
+                if (length < 0 || position + HEADER_BYTES + length > size)
+                    break;
+
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                channel.read(payload, position + HEADER_BYTES);
+                if (crc(sequence, payload.array()) != crc)
+                    break;
+
+                if (sequence > checkpointed)
+                    recoveredBytes += length;
+
+                nextSequence = Math.max(nextSequence, sequence + 1);
+                position += HEADER_BYTES + length;
+            }
+
+            if (position < size) {
+                log.warn("[import-journal] descartando {} bytes incompletos em {}", size - position, file);
+                channel.truncate(position);
+                channel.force(true);
+            }
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT);
+        if (!Files.exists(file))
+            return 0;
+
+        return Long.parseLong(Files.readString(file, StandardCharsets.US_ASCII).trim());
+    }
+
+    // =========================
+    // LEITURA
+    // =========================
+
+    /**
+     * Lê os registros em ordem de sequência, abrindo o segmento a cada
+     * chamada: guarda só o segmento e a posição, e segmentos apagados pelo
+     * checkpoint nunca ficam abertos. Usado por uma thread só.
+     */
+    final class Reader {
+
+        private long next;
+        private long segment = -1;
+        private long position;
+
+        private Reader(long next) {
+            this.next = next;
+        }
+
+        /** Sequência que {@link #next()} devolve em seguida. */
+        long position() {
+            return next;
+        }
+
+        /** Próximo registro já em disco; {@code null} quando ainda não há. */
+        Record next() throws IOException {
+            if (next > durableSequence)
+                return null;
+
+            Path file;
+            synchronized (ImportJournal.this) {
+                // o segmento de uma sequência é o último que começa antes dela
+                Map.Entry<Long, Path> entry = segments.floorEntry(next);
+                if (entry == null)
+                    throw new IOException("registro " + next + " fora dos segmentos do journal");
+
+                if (entry.getKey() != segment) {
+                    segment = entry.getKey();
+                    position = 0;
+                }
+                file = entry.getValue();
+            }
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                while (true) {
+                    header.clear();
+                    if (channel.read(header, position) < HEADER_BYTES)
+                        throw new IOException("registro " + next + " incompleto em " + file);
+                    header.flip();
+
+                    int length = header.getInt();
+                    int crc = header.getInt();
+                    long sequence = header.getLong();
+                    long start = position + HEADER_BYTES;
+                    position = start + length;
+
+                    // registros antes do checkpoint no mesmo segmento
+                    if (sequence < next)
+                        continue;
+
+                    ByteBuffer payload = ByteBuffer.allocate(length);
+                    if (channel.read(payload, start) < length || crc(sequence, payload.array()) != crc)
+                        throw new IOException("registro " + sequence + " corrompido em " + file);
+
+                    next = sequence + 1;
+                    return new Record(sequence, payload.array());
+                }
+            }
+        }
+    }
+
+    // =========================
+    // SEGMENTOS
+    // =========================
+
+    private void roll() throws IOException {
+        if (current != null) {
+            current.force(false);
+            current.close();
+        }
+
+        Path file = directory.resolve(SEGMENT_PREFIX + String.format("%020d", nextSequence) + SEGMENT_SUFFIX);
+        current = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segments.put(nextSequence, file);
+        syncDirectory();
+    }
+
+    // arquivo novo e rename só sobrevivem a uma queda depois do fsync da entrada no diretório
+    private void syncDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long firstSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int crc(long sequence, byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -2,7 +2,14 @@ package com.hermes.jobs.job;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Contadores do import por source. Dentro de uma transação a contagem só vale
+ * depois do commit: um lote que volta e é refeito (nova tentativa do pipeline,
+ * grupo do {@link ImportCoalescer} importado de novo por requisição) conta uma vez.
+ */
 @Component
 public class ImportMetricsService {
 
@@ -13,19 +20,33 @@ public class ImportMetricsService {
     }
 
     public void markImported(String sourceName, String sourceType) {
-        meterRegistry.counter(
+        afterCommit(() -> meterRegistry.counter(
                 "hermes_jobs_import_by_source_total",
                 "source", sourceName == null ? "unknown" : sourceName,
                 "source_type", sourceType == null ? "unknown" : sourceType
-        ).increment();
+        ).increment());
     }
 
     public void markImportRejected(String sourceName, String sourceType, String reason) {
-        meterRegistry.counter(
+        afterCommit(() -> meterRegistry.counter(
                 "hermes_jobs_import_rejected_by_source_total",
                 "source", sourceName == null ? "unknown" : sourceName,
                 "source_type", sourceType == null ? "unknown" : sourceType,
                 "reason", reason == null ? "unknown" : reason
-        ).increment();
+        ).increment());
+    }
+
+    private static void afterCommit(Runnable mark) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            mark.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                mark.run();
+            }
+        });
     }
 }
@@ -0,0 +1,415 @@
+package com.hermes.jobs.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hermes.jobs.job.dto.ImportBatchResponse;
+import com.hermes.jobs.job.dto.JobImportRequest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Import assíncrono: a requisição só valida e enfileira o lote em uma fila
+ * limitada. Uma thread consome a fila e importa um lote por vez (limpeza e
+ * classificação em virtual threads, gravação em lote na thread do pipeline);
+ * o andamento fica disponível por {@link #status(UUID)}.
+ *
+ * <p>Com {@code jobs.import.journal.enabled} a fila em memória sai de cena:
+ * o lote é gravado no {@link ImportJournal} antes do 202 e a thread do
+ * pipeline lê os lotes de volta do journal, um por vez, já com o fsync feito.
+ * A admissão passa a ser pelos bytes ainda sem checkpoint
+ * ({@code jobs.import.journal.max-pending-bytes}), não pelas vagas da fila:
+ * com o banco lento os lotes se acumulam no disco em vez de virar 503.
+ * Se o fsync do lote falha, a requisição recebe o erro e o lote fica
+ * {@code FAILED}; o journal para de aceitar e de entregar registros até a
+ * próxima partida, então a thread do pipeline nunca importa um lote
+ * recusado. Na partida seguinte o que chegou ao disco é reaplicado, e o
+ * import por URL é idempotente.
+ * O checkpoint avança a cada lote concluído; na partida a leitura recomeça do
+ * checkpoint, então os lotes de antes da queda seguem sem carregar o journal
+ * em memória nem segurar o {@link #start()}. Esses lotes só aparecem em
+ * {@link #status(UUID)} quando a thread chega neles.
+ *
+ * <p>Uma falha transitória do banco não descarta o lote: o pipeline espera
+ * {@code jobs.import.retry-backoff} e tenta de novo, até
+ * {@code jobs.import.retry-attempts} vezes. Com o journal não há limite, já
+ * que a fila e o journal seguram os lotes que chegam enquanto isso.
+ */
+@Slf4j
+@Component
+public class ImportPipeline implements SmartLifecycle {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(10);
+
+    private final JobService service;
+    private final ImportProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private final BlockingQueue<Batch> queue;
+    private final Map<UUID, Batch> batches = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<UUID> finished = new ConcurrentLinkedQueue<>();
+    private final Object submitLock = new Object();
+    // payload no journal ainda sem checkpoint
+    private final AtomicLong journalBytes = new AtomicLong();
+
+    private volatile ImportJournal journal;
+    private volatile ImportJournal.Reader reader;
+
+    private volatile ExecutorService classification;
+    private volatile Thread worker;
+    private volatile boolean running;
+
+    public ImportPipeline(JobService service, ImportProperties properties, ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry) {
+        this.service = service;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        Gauge.builder("hermes_jobs_import_queue_size", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        Gauge.builder("hermes_jobs_import_journal_bytes", journalBytes, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    // =========================
+    // API
+    // =========================
+
+    /** Enfileira o lote; vazio quando a fila (ou o journal) está cheia. */
+    public Optional<ImportBatchResponse> submit(JobImportRequest request) {
+        Batch batch = new Batch(UUID.randomUUID(), request, OffsetDateTime.now());
+        ImportJournal current = journal;
+        // serializado fora do lock
+        byte[] payload = current == null ? null : journalEntry(batch);
+
+        synchronized (submitLock) {
+            if (current == null) {
+                if (queue.remainingCapacity() == 0)
+                    return Optional.empty();
+
+                batches.put(batch.id, batch);
+                queue.add(batch);
+            } else {
+                long pending = journalBytes.get();
+                if (pending > 0 && pending + payload.length > properties.getJournal().getMaxPendingBytes())
+                    return Optional.empty();
+
+                // antes do append: o fsync de outro lote pode entregar este à thread do pipeline
+                batches.put(batch.id, batch);
+                try {
+                    batch.sequence = appendToJournal(current, payload);
+                } catch (RuntimeException e) {
+                    batches.remove(batch.id);
+                    throw e;
+                }
+                journalBytes.addAndGet(payload.length);
+                // a thread do pipeline relê o pedido do journal
+                batch.request = null;
+            }
+        }
+
+        // fsync fora do lock: lotes concorrentes dividem a mesma chamada
+        if (current != null) {
+            try {
+                syncJournal(current, batch.sequence);
+            } catch (UncheckedIOException e) {
+                // depois da falha o journal não entrega mais nada à thread do pipeline, nem este registro
+                journalBytes.addAndGet(-payload.length);
+                batch.error = e.getMessage();
+                batch.finishedAt = OffsetDateTime.now();
+                batch.status = Status.FAILED;
+                retire(batch.id);
+                throw e;
+            }
+        }
+
+        return Optional.of(batch.toResponse());
+    }
+
+    public Optional<ImportBatchResponse> status(UUID batchId) {
+        return Optional.ofNullable(batches.get(batchId)).map(Batch::toResponse);
+    }
+
+    // =========================
+    // WORKER
+    // =========================
+
+    // sem interrupt no stop: FileChannel fecha o canal se a thread for interrompida no meio do I/O
+    private void run() {
+        while (running) {
+            Batch batch;
+            try {
+                batch = reader == null ? queue.poll(POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS) : readJournal();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            if (batch != null)
+                process(batch);
+        }
+    }
+
+    // próximo lote do journal; null quando nenhum chegou ao disco dentro do intervalo
+    private Batch readJournal() throws InterruptedException {
+        ImportJournal current = journal;
+        ImportJournal.Reader records = reader;
+        if (current == null || records == null)
+            return null;
+
+        ImportJournal.Record record;
+        try {
+            record = records.next();
+        } catch (IOException e) {
+            log.warn("[import-pipeline] falha ao ler o journal, nova tentativa em {}", properties.getRetryBackoff(), e);
+            pause(properties.getRetryBackoff());
+            return null;
+        }
+
+        if (record == null) {
+            current.awaitDurable(records.position(), POLL_INTERVAL);
+            return null;
+        }
+
+        JournalEntry entry;
+        try {
+            entry = objectMapper.readValue(record.payload(), JournalEntry.class);
+        } catch (IOException e) {
+            // CRC confere, então não é escrita interrompida: pular é melhor que travar a fila
+            log.error("[import-pipeline] registro {} ilegível no journal, descartado", record.sequence(), e);
+            checkpoint(record.sequence());
+            journalBytes.addAndGet(-record.payload().length);
+            return null;
+        }
+
+        // lotes de antes da partida não estão no mapa
+        Batch batch = batches.computeIfAbsent(entry.batchId(),
+                id -> new Batch(id, entry.request(), entry.submittedAt()));
+        batch.request = entry.request();
+        batch.sequence = record.sequence();
+        batch.journalBytes = record.payload().length;
+        return batch;
+    }
+
+    private void process(Batch batch) {
+        batch.startedAt = OffsetDateTime.now();
+        batch.status = Status.RUNNING;
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                batch.result = service.importDocuments(batch.request, classification);
+                batch.error = null;
+                batch.status = Status.COMPLETED;
+                break;
+            } catch (RuntimeException e) {
+                if (isTransient(e) && (journal != null || attempt < properties.getRetryAttempts())) {
+                    log.warn("[import-pipeline] banco indisponível no lote {} (tentativa {}), nova tentativa em {}",
+                            batch.id, attempt, properties.getRetryBackoff());
+                    batch.error = e.getMessage();
+                    if (!pause(properties.getRetryBackoff()))
+                        return;
+                    continue;
+                }
+
+                log.warn("[import-pipeline] lote {} falhou", batch.id, e);
+                batch.error = e.getMessage();
+                batch.status = Status.FAILED;
+                break;
+            }
+        }
+
+        batch.finishedAt = OffsetDateTime.now();
+        batch.request = null;
+        if (batch.sequence >= 0) {
+            checkpoint(batch.sequence);
+            journalBytes.addAndGet(-batch.journalBytes);
+        }
+        retire(batch.id);
+    }
+
+    private static boolean isTransient(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause())
+            if (cause instanceof TransientDataAccessException || cause instanceof CannotCreateTransactionException)
+                return true;
+        return false;
+    }
+
+    /** Espera {@code backoff} ou até o stop; false quando o pipeline parou. */
+    private boolean pause(Duration backoff) {
+        long deadline = System.nanoTime() + backoff.toNanos();
+        try {
+            while (running && System.nanoTime() < deadline)
+                Thread.sleep(Math.min(POLL_INTERVAL.toMillis(), Math.max(1, (deadline - System.nanoTime()) / 1_000_000)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return running;
+    }
+
+    private void retire(UUID batchId) {
+        finished.add(batchId);
+        while (finished.size() > properties.getStatusRetention()) {
+            UUID oldest = finished.poll();
+            if (oldest != null)
+                batches.remove(oldest);
+        }
+    }
+
+    // =========================
+    // JOURNAL
+    // =========================
+
+    record JournalEntry(UUID batchId, OffsetDateTime submittedAt, JobImportRequest request) {
+    }
+
+    private byte[] journalEntry(Batch batch) {
+        try {
+            return objectMapper.writeValueAsBytes(new JournalEntry(batch.id, batch.submittedAt, batch.request));
+        } catch (IOException e) {
+            throw new UncheckedIOException("falha ao serializar o lote para o journal", e);
+        }
+    }
+
+    private static long appendToJournal(ImportJournal current, byte[] payload) {
+        try {
+            return current.append(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("falha ao gravar o lote no journal", e);
+        }
+    }
+
+    private static void syncJournal(ImportJournal current, long sequence) {
+        try {
+            current.sync(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("falha no fsync do journal", e);
+        }
+    }
+
+    private void checkpoint(long sequence) {
+        ImportJournal current = journal;
+        if (current == null)
+            return;
+
+        try {
+            current.checkpoint(sequence);
+        } catch (IOException e) {
+            // o lote volta na próxima partida; o import por URL é idempotente
+            log.warn("[import-pipeline] falha ao gravar checkpoint {}", sequence, e);
+        }
+    }
+
+    // =========================
+    // CICLO DE VIDA
+    // =========================
+
+    @Override
+    public void start() {
+        ImportProperties.Journal config = properties.getJournal();
+        if (config.isEnabled()) {
+            journal = new ImportJournal(Path.of(config.getDirectory()), config.getSegmentBytes());
+            reader = journal.reader();
+            journalBytes.set(journal.recoveredBytes());
+        }
+
+        classification = Executors.newVirtualThreadPerTaskExecutor();
+        running = true;
+        worker = Thread.ofPlatform().name("import-pipeline").daemon().start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = worker;
+        worker = null;
+        if (current != null) {
+            try {
+                current.join(STOP_TIMEOUT.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        classification.shutdown();
+        closeJournal();
+    }
+
+    private void closeJournal() {
+        ImportJournal current = journal;
+        journal = null;
+        reader = null;
+        if (current == null)
+            return;
+
+        try {
+            current.close();
+        } catch (IOException e) {
+            log.warn("[import-pipeline] falha ao fechar o journal", e);
+        }
+    }
+
+    // antes do servidor web: o journal abre (e trunca registros incompletos) antes dos novos lotes
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // =========================
+    // LOTE
+    // =========================
+
+    enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private static final class Batch {
+
+        final UUID id;
+        final int documents;
+        final OffsetDateTime submittedAt;
+
+        // posição no journal e tamanho do payload; -1 sem journal
+        long sequence = -1;
+        int journalBytes;
+
+        volatile JobImportRequest request;
+        volatile Status status = Status.QUEUED;
+        volatile ImportResult result;
+        volatile OffsetDateTime startedAt;
+        volatile OffsetDateTime finishedAt;
+        volatile String error;
+
+        Batch(UUID id, JobImportRequest request, OffsetDateTime submittedAt) {
+            this.id = id;
+            this.request = request;
+            this.submittedAt = submittedAt;
+            this.documents = request.jobs() == null ? 0 : request.jobs().size();
+        }
+
+        ImportBatchResponse toResponse() {
+            ImportResult current = result == null ? ImportResult.EMPTY : result;
+            return new ImportBatchResponse(id, status.name(), documents, current.imported(), current.rejected(),
+                    submittedAt, startedAt, finishedAt, error);
+        }
+    }
+}
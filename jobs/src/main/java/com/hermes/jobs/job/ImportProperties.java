@@ -0,0 +1,65 @@
+package com.hermes.jobs.job;
+
+import com.hermes.jobs.search.TextSanitizer;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "jobs.import")
+public class ImportProperties {
+
+    // descrições maiores são cortadas na limpeza
+    private int maxDescriptionLength = TextSanitizer.DEFAULT_MAX_LENGTH;
+
+    // lotes aguardando o import assíncrono sem journal; fila cheia responde 503
+    private int queueCapacity = 64;
+
+    // status de lotes concluídos mantidos para consulta
+    private int statusRetention = 1000;
+
+    // documentos por transação no import NDJSON em streaming
+    private int streamChunkSize = 500;
+
+    // tentativas do import assíncrono quando o banco está indisponível; com journal não há limite
+    private int retryAttempts = 5;
+
+    // espera entre tentativas quando o banco está indisponível
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    private final Journal journal = new Journal();
+
+    private final Coalesce coalesce = new Coalesce();
+
+    @Getter
+    @Setter
+    public static class Journal {
+
+        // lotes do import assíncrono só são aceitos (202) depois do fsync no journal
+        private boolean enabled = false;
+
+        private String directory = "data/import-journal";
+
+        private long segmentBytes = 64L * 1024 * 1024;
+
+        // payload ainda sem checkpoint aceito antes de responder 503; um lote sozinho sempre entra
+        private long maxPendingBytes = 256L * 1024 * 1024;
+    }
+
+    @Getter
+    @Setter
+    public static class Coalesce {
+
+        // imports síncronos pequenos que chegam juntos dividem uma transação
+        private boolean enabled = true;
+
+        private Duration window = Duration.ofMillis(5);
+
+        private int maxDocuments = 256;
+    }
+}
@@ -0,0 +1,22 @@
+package com.hermes.jobs.job;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resultado de um lote importado: vagas gravadas ou renovadas e documentos
+ * rejeitados por motivo ({@code missing_url}, {@code invalid_url}).
+ */
+public record ImportResult(int imported, Map<String, Integer> rejected) {
+
+    public static final ImportResult EMPTY = new ImportResult(0, Map.of());
+
+    public ImportResult {
+        rejected = Collections.unmodifiableMap(new TreeMap<>(rejected));
+    }
+
+    public int rejectedTotal() {
+        return rejected.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -0,0 +1,60 @@
+package com.hermes.jobs.job;
+
+import com.hermes.jobs.search.JobSearchText;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Move vagas inativas entre a tabela quente {@code jobs} e
+ * {@code jobs_archive}, para que a tabela e os índices da busca só tenham
+ * vagas vivas. Vagas arquivadas voltam quando o crawler as vê de novo.
+ */
+@Component
+@RequiredArgsConstructor
+public class JobArchive {
+
+    private final JobRepository repository;
+    private final ArchivedJobRepository archiveRepository;
+
+    /**
+     * Arquiva as vagas do bloco que continuam inativas; devolve quantas. Tudo
+     * no banco, em um insert-select e um delete, sem carregar as vagas.
+     */
+    @Transactional
+    public int archive(Collection<UUID> ids) {
+        if (ids.isEmpty())
+            return 0;
+
+        int archived = archiveRepository.insertInactiveFromJobs(ids, OffsetDateTime.now());
+        if (archived > 0)
+            repository.deleteArchivedByIdIn(ids);
+        return archived;
+    }
+
+    /**
+     * Devolve à tabela quente as vagas arquivadas com esses hashes de URL,
+     * com o mesmo id (ids guardados por clientes, cursores e scrolls continuam
+     * valendo), ainda inativas; quem chama reativa na mesma transação.
+     */
+    @Transactional
+    public List<JobEntity> restore(Collection<Long> urlHashes) {
+        if (urlHashes.isEmpty())
+            return List.of();
+
+        if (repository.insertFromArchive(urlHashes) == 0)
+            return List.of();
+
+        archiveRepository.deleteByUrlHashIn(urlHashes);
+
+        // o arquivo não guarda título, empresa e local normalizados
+        List<JobEntity> restored = repository.findByUrlHashIn(urlHashes);
+        restored.forEach(JobSearchText::applyHeadline);
+        return restored;
+    }
+}
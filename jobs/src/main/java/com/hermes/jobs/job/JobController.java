@@ -1,25 +1,82 @@
 package com.hermes.jobs.job;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hermes.jobs.job.dto.ImportBatchResponse;
 import com.hermes.jobs.job.dto.ImportRequest;
 import com.hermes.jobs.job.dto.JobImportRequest;
 import com.hermes.jobs.job.dto.JobResponse;
+import com.hermes.jobs.job.dto.JobSliceResponse;
 import com.hermes.jobs.job.mapper.JobMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/jobs")
 @RequiredArgsConstructor
 public class JobController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+
     private final JobService service;
+    private final ImportPipeline importPipeline;
+    private final ImportCoalescer importCoalescer;
+    private final JobStreamImporter streamImporter;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/import")
     public int importJobs(@RequestBody @Valid JobImportRequest request) {
-        return service.importDocuments(request);
+        return importCoalescer.importDocuments(request);
+    }
+
+    @PostMapping("/import/async")
+    public ResponseEntity<ImportBatchResponse> importJobsAsync(@RequestBody @Valid JobImportRequest request) {
+        ImportBatchResponse batch = importPipeline.submit(request)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "fila de importação cheia"));
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/jobs/import/" + batch.batchId()))
+                .body(batch);
+    }
+
+    /** NDJSON (opcionalmente gzip) gravado em blocos; responde uma linha NDJSON por bloco. */
+    @PostMapping(path = "/import/stream", consumes = {"application/x-ndjson", "application/gzip"})
+    public void importStream(@RequestParam(defaultValue = "0") long skip,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        OutputStream out = response.getOutputStream();
+
+        streamImporter.importStream(request.getInputStream(), Math.max(0, skip), chunk -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(chunk));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @GetMapping("/import/{batchId}")
+    public ImportBatchResponse importStatus(@PathVariable UUID batchId) {
+        return importPipeline.status(batchId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "lote não encontrado"));
     }
 
     @PostMapping("/import-urls")
@@ -46,4 +103,56 @@ public class JobController {
     public Page<JobResponse> bySource(@PathVariable String source, Pageable pageable) {
         return service.bySource(source, pageable).map(JobMapper::toResponse);
     }
+
+    // =========================
+    // POR CURSOR
+    // =========================
+
+    @GetMapping("/cursor")
+    public JobSliceResponse listByCursor(@RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") int size) {
+        return slice(service.listAfter(cursor(cursor), pageSize(size)));
+    }
+
+    @GetMapping("/domain/{domain}/cursor")
+    public JobSliceResponse byDomainByCursor(@PathVariable String domain,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "20") int size) {
+        return slice(service.byDomainAfter(domain, cursor(cursor), pageSize(size)));
+    }
+
+    @GetMapping("/search/cursor")
+    public JobSliceResponse searchByCursor(@RequestParam String q,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "20") int size) {
+        return slice(service.searchAfter(q, cursor(cursor), pageSize(size)));
+    }
+
+    @GetMapping("/source/{source}/cursor")
+    public JobSliceResponse bySourceByCursor(@PathVariable String source,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "20") int size) {
+        return slice(service.bySourceAfter(source, cursor(cursor), pageSize(size)));
+    }
+
+    private static JobCursor cursor(String cursor) {
+        try {
+            return JobCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "cursor inválido");
+        }
+    }
+
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    }
+
+    private static JobSliceResponse slice(Slice<JobEntity> slice) {
+        List<JobEntity> content = slice.getContent();
+        String next = slice.hasNext() && !content.isEmpty()
+                ? JobCursor.after(content.get(content.size() - 1)).encode()
+                : null;
+
+        return new JobSliceResponse(content.stream().map(JobMapper::toResponse).toList(), slice.hasNext(), next);
+    }
 }
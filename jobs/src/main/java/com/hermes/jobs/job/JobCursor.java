@@ -0,0 +1,54 @@
+package com.hermes.jobs.job;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posição na listagem por {@code (coletadoEm desc, id desc)}. Vai para o
+ * cliente como base64url opaco do instante (segundos e nanos) e do id; a
+ * próxima página começa logo depois dela, sem OFFSET nem contagem.
+ */
+record JobCursor(OffsetDateTime coletadoEm, UUID id) {
+
+    // antes de qualquer vaga: a primeira página usa a mesma consulta das demais
+    static final JobCursor FIRST = new JobCursor(OffsetDateTime.of(9999, 12, 31, 23, 59, 59, 0, ZoneOffset.UTC), new UUID(0, 0));
+
+    private static final int BYTES = Long.BYTES + Integer.BYTES + 2 * Long.BYTES;
+
+    static JobCursor after(JobEntity job) {
+        return new JobCursor(job.getColetadoEm(), job.getId());
+    }
+
+    String encode() {
+        Instant instant = coletadoEm.toInstant();
+        ByteBuffer buffer = ByteBuffer.allocate(BYTES)
+                .putLong(instant.getEpochSecond())
+                .putInt(instant.getNano())
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /** Cursor vazio é a primeira página; texto que não veio de {@link #encode} é rejeitado. */
+    static JobCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return FIRST;
+
+        byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+        if (bytes.length != BYTES)
+            throw new IllegalArgumentException("cursor com " + bytes.length + " bytes");
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            Instant instant = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+            return new JobCursor(instant.atOffset(ZoneOffset.UTC), new UUID(buffer.getLong(), buffer.getLong()));
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("cursor com instante fora do intervalo", e);
+        }
+    }
+}
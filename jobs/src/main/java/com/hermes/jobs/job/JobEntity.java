@@ -8,9 +8,12 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "jobs", indexes = {
-        @Index(name = "idx_job_url", columnList = "url", unique = true),
-        @Index(name = "idx_job_domain", columnList = "domain"),
-        @Index(name = "idx_job_active", columnList = "active")
+        @Index(name = "idx_job_url_hash", columnList = "urlHash", unique = true),
+        // listagens por cursor: (coletadoEm desc, id desc) dentro de cada filtro; a de empresa
+        // (like '%x%') não tem índice próprio e filtra enquanto percorre idx_job_active_coletado
+        @Index(name = "idx_job_active_coletado", columnList = "active, coletadoEm desc, id desc"),
+        @Index(name = "idx_job_domain_active_coletado", columnList = "domain, active, coletadoEm desc, id desc"),
+        @Index(name = "idx_job_source_active_coletado", columnList = "source, active, coletadoEm desc, id desc")
 })
 @Getter
 @Setter
@@ -23,9 +26,14 @@ public class JobEntity {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Column(nullable = false, unique = true, length = 1000)
+    // URL canônica (UrlUtils.canonicalize)
+    @Column(nullable = false, length = 1000)
     private String url;
 
+    // chave de upsert: UrlUtils.hash(url), índice de largura fixa no lugar do varchar(1000)
+    @Column(nullable = false)
+    private Long urlHash;
+
     @Column(nullable = false)
     private String empresa;
 
@@ -62,8 +70,11 @@ public class JobEntity {
     @Column(length = 300)
     private String location;
 
-    @Column(columnDefinition = "TEXT")
-    private String description;
+    // CompressedText; descomprimida só por getDescription(), ao renderizar
+    @Column(name = "description", length = 1_048_576)
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.NONE)
+    private byte[] compressedDescription;
 
     @Column(length = 500)
     private String stacks;
@@ -73,4 +84,72 @@ public class JobEntity {
 
     @Column(length = 200)
     private String workMode;
+
+    // =========================
+    // TEXTO NORMALIZADO (BUSCA)
+    // =========================
+
+    @Column(length = 500)
+    private String normalizedTitle;
+
+    @Column(length = 300)
+    private String normalizedLocation;
+
+    @Column
+    private String normalizedCompany;
+
+    // CompressedText, como a descrição: a cópia normalizada não pode desfazer o ganho da compressão
+    @Column(name = "normalized_description", length = 1_048_576)
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.NONE)
+    private byte[] compressedNormalizedDescription;
+
+    // =========================
+    // DETECÇÃO DE MUDANÇA
+    // =========================
+
+    // hash do documento recebido (ContentFingerprint); igual = nada a reclassificar
+    @Column
+    private Long contentHash;
+
+    // =========================
+    // QUASE DUPLICATAS
+    // =========================
+
+    // SimHash de título + descrição limpa; null em textos curtos demais
+    @Column
+    private Long simHash;
+
+    // vagas quase iguais compartilham o grupo (NearDuplicateIndex)
+    @Column
+    private Long duplicateGroup;
+
+    public String getDescription() {
+        return CompressedText.decompress(compressedDescription);
+    }
+
+    public void setDescription(String description) {
+        this.compressedDescription = CompressedText.compress(description);
+    }
+
+    public String getNormalizedDescription() {
+        return CompressedText.decompress(compressedNormalizedDescription);
+    }
+
+    public void setNormalizedDescription(String normalizedDescription) {
+        this.compressedNormalizedDescription = CompressedText.compress(normalizedDescription);
+    }
+
+    public static class JobEntityBuilder {
+
+        public JobEntityBuilder description(String description) {
+            this.compressedDescription = CompressedText.compress(description);
+            return this;
+        }
+
+        public JobEntityBuilder normalizedDescription(String normalizedDescription) {
+            this.compressedNormalizedDescription = CompressedText.compress(normalizedDescription);
+            return this;
+        }
+    }
 }
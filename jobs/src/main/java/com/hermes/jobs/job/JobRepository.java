@@ -1,16 +1,126 @@
 package com.hermes.jobs.job;
 
+import com.hermes.jobs.UrlUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface JobRepository extends JpaRepository<JobEntity, UUID>, JpaSpecificationExecutor<JobEntity> {
 
-    Optional<JobEntity> findByUrl(String url);
+    List<JobEntity> findByUrlHashIn(Collection<Long> urlHashes);
+
+    Optional<JobEntity> findByUrlHash(Long urlHash);
+
+    default Optional<JobEntity> findByUrl(String url) {
+        String canonical = UrlUtils.canonicalize(url);
+        return findByUrlHash(UrlUtils.hash(canonical)).filter(job -> job.getUrl().equals(canonical));
+    }
+
+    // vagas recoletadas sem mudança: só renova coleta/ativo, sem reescrever a linha
+    @Modifying
+    @Query("update JobEntity j set j.coletadoEm = :coletadoEm, j.active = true where j.id in :ids")
+    int touch(@Param("ids") Collection<UUID> ids, @Param("coletadoEm") OffsetDateTime coletadoEm);
+
+    // =========================
+    // EXPIRAÇÃO (StalenessSweeper)
+    // =========================
+
+    @Query("select distinct j.source from JobEntity j where j.active = true")
+    List<String> findActiveSources();
+
+    @Query("select j.id from JobEntity j " +
+            "where j.active = true and j.source = :source and j.coletadoEm < :cutoff and j.id > :after " +
+            "order by j.id")
+    List<UUID> findStaleIds(@Param("source") String source,
+                            @Param("cutoff") OffsetDateTime cutoff,
+                            @Param("after") UUID after,
+                            Pageable limit);
+
+    // repete o corte: vagas recoletadas depois do SELECT não são desativadas
+    @Transactional
+    @Modifying
+    @Query("update JobEntity j set j.active = false " +
+            "where j.id in :ids and j.active = true and j.coletadoEm < :cutoff")
+    int deactivate(@Param("ids") Collection<UUID> ids, @Param("cutoff") OffsetDateTime cutoff);
+
+    @Query("select j.id from JobEntity j where j.active = false and j.id > :after order by j.id")
+    List<UUID> findInactiveIds(@Param("after") UUID after, Pageable limit);
+
+    @Query("select j.id from JobEntity j where j.id in :ids and j.active = true")
+    List<UUID> findActiveIdsIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("select j.id, j.simHash, j.duplicateGroup from JobEntity j " +
+            "where j.active = true and j.simHash is not null and j.duplicateGroup is not null")
+    List<Object[]> findActiveSimHashes();
+
+    // =========================
+    // ARQUIVO (JobArchive)
+    // =========================
+
+    // copia no banco, com o id de antes; a descrição comprimida passa sem recomprimir
+    @Modifying
+    @Query("insert into JobEntity (id, url, urlHash, empresa, domain, coletadoEm, active, source, sourceType, " +
+            "sourceName, confidence, parserVersion, ingestionTraceId, title, location, compressedDescription, " +
+            "compressedNormalizedDescription, stacks, seniority, workMode, contentHash, simHash, duplicateGroup) " +
+            "select a.id, a.url, a.urlHash, a.empresa, a.domain, a.coletadoEm, false, a.source, a.sourceType, " +
+            "a.sourceName, a.confidence, a.parserVersion, a.ingestionTraceId, a.title, a.location, a.compressedDescription, " +
+            "a.compressedNormalizedDescription, a.stacks, a.seniority, a.workMode, a.contentHash, a.simHash, a.duplicateGroup " +
+            "from ArchivedJobEntity a where a.urlHash in :urlHashes")
+    int insertFromArchive(@Param("urlHashes") Collection<Long> urlHashes);
+
+    // só o que chegou ao arquivo: uma vaga reativada entre os dois comandos não fica nas duas tabelas
+    @Modifying
+    @Query("delete from JobEntity j where j.id in (select a.id from ArchivedJobEntity a where a.id in :ids)")
+    int deleteArchivedByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // =========================
+    // LISTAGEM POR CURSOR (JobCursor)
+    // =========================
+
+    String AFTER_CURSOR = " and (j.coletadoEm < :coletadoEm or (j.coletadoEm = :coletadoEm and j.id < :id))"
+            + " order by j.coletadoEm desc, j.id desc";
+
+    @Query("select j from JobEntity j where j.active = true" + AFTER_CURSOR)
+    Slice<JobEntity> findActiveAfter(@Param("coletadoEm") OffsetDateTime coletadoEm,
+                                     @Param("id") UUID id,
+                                     Pageable limit);
+
+    @Query("select j from JobEntity j where j.domain = :domain and j.active = true" + AFTER_CURSOR)
+    Slice<JobEntity> findActiveByDomainAfter(@Param("domain") String domain,
+                                             @Param("coletadoEm") OffsetDateTime coletadoEm,
+                                             @Param("id") UUID id,
+                                             Pageable limit);
+
+    @Query("select j from JobEntity j where j.source = :source and j.active = true" + AFTER_CURSOR)
+    Slice<JobEntity> findActiveBySourceAfter(@Param("source") String source,
+                                             @Param("coletadoEm") OffsetDateTime coletadoEm,
+                                             @Param("id") UUID id,
+                                             Pageable limit);
+
+    // :empresa já escapado com '\' (JobService.likeEscaped); o like com '%' na frente não usa índice,
+    // então a consulta percorre idx_job_active_coletado na ordem do cursor filtrando a empresa
+    @Query("select j from JobEntity j where lower(j.empresa) like lower(concat('%', :empresa, '%')) escape '\\'"
+            + " and j.active = true" + AFTER_CURSOR)
+    Slice<JobEntity> findActiveByEmpresaAfter(@Param("empresa") String empresa,
+                                              @Param("coletadoEm") OffsetDateTime coletadoEm,
+                                              @Param("id") UUID id,
+                                              Pageable limit);
+
+    // =========================
+    // LISTAGEM POR PÁGINA
+    // =========================
 
     Page<JobEntity> findByActiveTrue(Pageable pageable);
 
@@ -19,4 +129,8 @@ public interface JobRepository extends JpaRepository<JobEntity, UUID>, JpaSpecif
     Page<JobEntity> findByEmpresaContainingIgnoreCaseAndActiveTrue(String empresa, Pageable pageable);
 
     Page<JobEntity> findBySourceAndActiveTrue(String source, Pageable pageable);
+
+    Slice<JobEntity> findByActiveTrueAndColetadoEmAfter(OffsetDateTime since, Pageable pageable);
+
+    Slice<JobEntity> findByColetadoEmAfter(OffsetDateTime since, Pageable pageable);
 }
@@ -2,26 +2,41 @@ package com.hermes.jobs.job;
 
 import com.hermes.jobs.UrlUtils;
 import com.hermes.jobs.job.dto.ImportRequest;
+import com.hermes.jobs.job.dto.JobDocument;
 import com.hermes.jobs.job.dto.JobImportRequest;
 import com.hermes.jobs.search.JobClassifier;
+import com.hermes.jobs.search.JobSearchText;
+import com.hermes.jobs.search.SimHash;
 import com.hermes.jobs.search.TextSanitizer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.net.URI;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class JobService {
 
+    // limite de parâmetros por IN: lotes grandes viram algumas consultas
+    private static final int URL_LOOKUP_CHUNK = 1000;
+
     private final JobRepository repository;
     private final ImportMetricsService importMetricsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImportProperties importProperties;
+    private final NearDuplicateIndex nearDuplicates;
+    private final JobArchive archive;
 
     // =========================
     // IMPORTAÇÃO (INDEXADOR DE URL)
@@ -36,19 +51,25 @@ public class JobService {
                 .filter(Objects::nonNull)
                 .map(String::trim)
                 .filter(url -> !url.isBlank())
-                .filter(this::isSupportedUrl)
+                .filter(JobService::isSupportedUrl)
+                .map(UrlUtils::canonicalize)
                 .collect(Collectors.toSet());
 
         if (uniqueUrls.isEmpty())
             return 0;
 
         OffsetDateTime now = OffsetDateTime.now();
+        ExistingJobs existing = findExistingByUrl(uniqueUrls);
 
         List<JobEntity> toSave = new ArrayList<>();
 
         for (String url : uniqueUrls) {
 
-            Optional<JobEntity> existingOpt = repository.findByUrl(url);
+            long urlHash = UrlUtils.hash(url);
+            if (existing.collides(url, urlHash))
+                continue;
+
+            Optional<JobEntity> existingOpt = Optional.ofNullable(existing.byUrl().get(url));
             JobEntity entity;
 
             if (existingOpt.isPresent()) {
@@ -63,6 +84,7 @@ public class JobService {
             } else {
                 entity = JobEntity.builder()
                         .url(url)
+                        .urlHash(urlHash)
                         .empresa(UrlUtils.extractCompany(url))
                         .domain(UrlUtils.extractDomain(url))
                         .source(UrlUtils.extractSource(url))
@@ -76,11 +98,12 @@ public class JobService {
                         .build();
             }
 
+            JobSearchText.applyHeadline(entity);
             toSave.add(entity);
             importMetricsService.markImported(entity.getSourceName(), entity.getSourceType());
         }
 
-        repository.saveAll(toSave);
+        eventPublisher.publishEvent(new JobsImportedEvent(repository.saveAll(toSave)));
         return toSave.size();
     }
 
@@ -104,34 +127,101 @@ public class JobService {
         return repository.findBySourceAndActiveTrue(source, pageable);
     }
 
+    // por cursor: Slice de até size vagas depois do cursor, sem count(*) nem OFFSET
+
+    public Slice<JobEntity> listAfter(JobCursor cursor, int size) {
+        return repository.findActiveAfter(cursor.coletadoEm(), cursor.id(), PageRequest.of(0, size));
+    }
+
+    public Slice<JobEntity> byDomainAfter(String domain, JobCursor cursor, int size) {
+        return repository.findActiveByDomainAfter(domain, cursor.coletadoEm(), cursor.id(), PageRequest.of(0, size));
+    }
+
+    public Slice<JobEntity> searchAfter(String q, JobCursor cursor, int size) {
+        return repository.findActiveByEmpresaAfter(likeEscaped(q), cursor.coletadoEm(), cursor.id(), PageRequest.of(0, size));
+    }
+
+    public Slice<JobEntity> bySourceAfter(String source, JobCursor cursor, int size) {
+        return repository.findActiveBySourceAfter(source, cursor.coletadoEm(), cursor.id(), PageRequest.of(0, size));
+    }
+
+    // curingas do LIKE digitados pelo usuário contam como texto, como no findBy...Containing
+    private static String likeEscaped(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     // =========================
     // IMPORTAÇÃO COMPLETA (CRAWLER)
     // =========================
     @Transactional
     public int importDocuments(JobImportRequest request) {
+        return importDocuments(request, Runnable::run).imported();
+    }
+
+    /**
+     * Importa o lote em uma transação. A limpeza e a classificação dos
+     * documentos alterados rodam em {@code classification} (funções puras do
+     * documento); entidades e banco ficam só na thread chamadora.
+     */
+    @Transactional
+    public ImportResult importDocuments(JobImportRequest request, Executor classification) {
 
         if (request.jobs() == null || request.jobs().isEmpty())
-            return 0;
+            return ImportResult.EMPTY;
 
         OffsetDateTime now = OffsetDateTime.now();
-        List<JobEntity> toSave = new ArrayList<>();
+        int maxDescriptionLength = importProperties.getMaxDescriptionLength();
+        Map<String, Integer> rejected = new TreeMap<>();
+
+        // uma consulta IN pela chave de hash para o lote inteiro
+        ExistingJobs existing = findExistingByUrl(request.jobs().stream()
+                .map(JobService::acceptedUrl)
+                .filter(Objects::nonNull)
+                .toList());
+        Map<String, JobEntity> byUrl = existing.byUrl();
+
+        // URL repetida no mesmo lote atualiza a mesma entidade (vale o último documento)
+        Map<String, JobEntity> toSave = new LinkedHashMap<>();
+        Map<String, JobDocument> toClassify = new HashMap<>();
+
+        // vagas ativas com o mesmo conteúdo só renovam coletadoEm
+        Set<UUID> unchanged = new LinkedHashSet<>();
 
         for (var doc : request.jobs()) {
             if (doc == null || doc.url() == null || doc.url().isBlank()) {
-                importMetricsService.markImportRejected(null, null, "missing_url");
+                reject(rejected, null, null, "missing_url");
+                continue;
+            }
+
+            String normalizedUrl = acceptedUrl(doc);
+            if (normalizedUrl == null) {
+                reject(rejected, doc.sourceName(), doc.sourceType(), "invalid_url");
                 continue;
             }
 
-            String normalizedUrl = doc.url().trim();
-            if (!isSupportedUrl(normalizedUrl)) {
-                importMetricsService.markImportRejected(doc.sourceName(), doc.sourceType(), "invalid_url");
+            long urlHash = UrlUtils.hash(normalizedUrl);
+            if (existing.collides(normalizedUrl, urlHash)) {
+                reject(rejected, doc.sourceName(), doc.sourceType(), "url_hash_collision");
+                continue;
+            }
+
+            long contentHash = ContentFingerprint.of(doc, maxDescriptionLength);
+            JobEntity entity = byUrl.computeIfAbsent(normalizedUrl, url -> new JobEntity());
+
+            if (entity.getId() != null && entity.isActive()
+                    && Objects.equals(entity.getContentHash(), contentHash)
+                    && !toSave.containsKey(normalizedUrl)) {
+                unchanged.add(entity.getId());
+                importMetricsService.markImported(entity.getSourceName(), entity.getSourceType());
                 continue;
             }
 
-            JobEntity entity = repository.findByUrl(normalizedUrl)
-                    .orElseGet(JobEntity::new);
+            if (entity.getId() != null)
+                unchanged.remove(entity.getId());
 
+            entity.setContentHash(contentHash);
             entity.setUrl(normalizedUrl);
+            entity.setUrlHash(urlHash);
             entity.setEmpresa(UrlUtils.extractCompany(normalizedUrl));
             entity.setDomain(UrlUtils.extractDomain(normalizedUrl));
             entity.setSource(UrlUtils.extractSource(normalizedUrl));
@@ -144,26 +234,6 @@ public class JobService {
             entity.setTitle(normalizeNullableText(doc.title()));
             entity.setLocation(normalizeNullableText(doc.location()));
 
-            // limpa texto
-            String clean = TextSanitizer.clean(doc.description());
-            entity.setDescription(clean);
-
-            // ================= CLASSIFICAÇÃO =================
-            String classificationText =
-                    (entity.getTitle() == null ? "" : entity.getTitle() + " ") +
-                            (entity.getLocation() == null ? "" : entity.getLocation() + " ") +
-                            clean;
-
-            var result = JobClassifier.classify(classificationText);
-
-            // stacks ordenados para consistência
-            entity.setStacks(result.stacks().isEmpty()
-                    ? null
-                    : result.stacks().stream().sorted().collect(Collectors.joining(",")));
-
-            entity.setSeniority(result.seniority());
-            entity.setWorkMode(result.workMode());
-
             if (entity.getSourceType() == null) entity.setSourceType(entity.getSource());
             if (entity.getSourceName() == null) entity.setSourceName(entity.getEmpresa());
             if (entity.getParserVersion() == null) entity.setParserVersion("unknown");
@@ -172,18 +242,136 @@ public class JobService {
             entity.setColetadoEm(now);
             entity.setActive(true);
 
-            toSave.add(entity);
+            toSave.put(normalizedUrl, entity);
+            toClassify.put(normalizedUrl, doc);
             importMetricsService.markImported(entity.getSourceName(), entity.getSourceType());
         }
 
-        if (toSave.isEmpty())
-            return 0;
+        // ================= CLASSIFICAÇÃO =================
+        Map<String, CompletableFuture<Classification>> classified = new HashMap<>();
+        toClassify.forEach((url, doc) -> classified.put(url,
+                CompletableFuture.supplyAsync(() -> classify(doc, maxDescriptionLength), classification)));
 
-        repository.saveAll(toSave);
-        return toSave.size();
+        NearDuplicateIndex.Session duplicates = nearDuplicates.session();
+
+        toSave.forEach((url, entity) -> {
+            Classification result = classified.get(url).join();
+            entity.setDescription(result.description());
+            entity.setStacks(result.stacks());
+            entity.setSeniority(result.seniority());
+            entity.setWorkMode(result.workMode());
+
+            OptionalLong simHash = result.simHash();
+            entity.setSimHash(simHash.isPresent() ? simHash.getAsLong() : null);
+            entity.setDuplicateGroup(simHash.isPresent() ? duplicates.groupOf(entity.getId(), simHash.getAsLong()) : null);
+
+            JobSearchText.apply(entity, result.description());
+        });
+
+        touchUnchanged(unchanged, now);
+
+        if (!toSave.isEmpty())
+            eventPublisher.publishEvent(new JobsImportedEvent(repository.saveAll(toSave.values())));
+
+        return new ImportResult(toSave.size() + unchanged.size(), rejected);
+    }
+
+    private static Classification classify(JobDocument doc, int maxDescriptionLength) {
+        String title = normalizeNullableText(doc.title());
+        String location = normalizeNullableText(doc.location());
+
+        // limpa texto
+        String clean = TextSanitizer.clean(doc.description(), maxDescriptionLength);
+
+        var result = JobClassifier.classify(
+                (title == null ? "" : title + " ") +
+                        (location == null ? "" : location + " ") +
+                        clean);
+
+        // stacks ordenados para consistência
+        String stacks = result.stacks().isEmpty()
+                ? null
+                : result.stacks().stream().sorted().collect(Collectors.joining(","));
+
+        // fingerprint de quase duplicata sobre o mesmo texto limpo
+        OptionalLong simHash = SimHash.of((title == null ? "" : title + " ") + clean);
+
+        return new Classification(clean, stacks, result.seniority(), result.workMode(), simHash);
+    }
+
+    private record Classification(String description, String stacks, String seniority, String workMode,
+                                  OptionalLong simHash) {
+    }
+
+    private void reject(Map<String, Integer> rejected, String sourceName, String sourceType, String reason) {
+        rejected.merge(reason, 1, Integer::sum);
+        importMetricsService.markImportRejected(sourceName, sourceType, reason);
+    }
+
+    // um UPDATE por bloco de ids; as entidades carregadas não são tocadas e não viram dirty
+    private void touchUnchanged(Collection<UUID> ids, OffsetDateTime now) {
+        if (ids.isEmpty())
+            return;
+
+        List<UUID> all = List.copyOf(ids);
+        for (int from = 0; from < all.size(); from += URL_LOOKUP_CHUNK)
+            repository.touch(all.subList(from, Math.min(from + URL_LOOKUP_CHUNK, all.size())), now);
+
+        eventPublisher.publishEvent(new JobsTouchedEvent(all, now));
+    }
+
+    /** {@code urls} já canônicas. */
+    private ExistingJobs findExistingByUrl(Collection<String> urls) {
+        List<Long> hashes = urls.stream().map(UrlUtils::hash).distinct().toList();
+        Map<String, JobEntity> byUrl = new HashMap<>();
+        Set<Long> takenHashes = new HashSet<>();
+
+        for (int from = 0; from < hashes.size(); from += URL_LOOKUP_CHUNK) {
+            List<Long> chunk = hashes.subList(from, Math.min(from + URL_LOOKUP_CHUNK, hashes.size()));
+            repository.findByUrlHashIn(chunk).forEach(job -> {
+                byUrl.put(job.getUrl(), job);
+                takenHashes.add(job.getUrlHash());
+            });
+        }
+
+        // vagas arquivadas que o crawler viu de novo voltam para a tabela quente
+        List<Long> missing = hashes.stream().filter(hash -> !takenHashes.contains(hash)).toList();
+        for (int from = 0; from < missing.size(); from += URL_LOOKUP_CHUNK) {
+            List<Long> chunk = missing.subList(from, Math.min(from + URL_LOOKUP_CHUNK, missing.size()));
+            archive.restore(chunk).forEach(job -> {
+                byUrl.put(job.getUrl(), job);
+                takenHashes.add(job.getUrlHash());
+            });
+        }
+
+        return new ExistingJobs(byUrl, takenHashes);
+    }
+
+    /**
+     * Vagas do lote já gravadas, por URL canônica, e os hashes em uso. Uma URL
+     * nova cujo hash já pertence a outra URL colide e não pode ser gravada.
+     */
+    private record ExistingJobs(Map<String, JobEntity> byUrl, Set<Long> takenHashes) {
+
+        boolean collides(String url, long urlHash) {
+            if (byUrl.containsKey(url))
+                return false;
+
+            // a primeira URL nova com o hash fica com ele
+            return !takenHashes.add(urlHash);
+        }
+    }
+
+    /** URL canônica com que o documento seria gravado, ou null quando o import o rejeita. */
+    static String acceptedUrl(JobDocument doc) {
+        if (doc == null || doc.url() == null || doc.url().isBlank())
+            return null;
+
+        String url = doc.url().trim();
+        return isSupportedUrl(url) ? UrlUtils.canonicalize(url) : null;
     }
 
-    private boolean isSupportedUrl(String url) {
+    private static boolean isSupportedUrl(String url) {
         try {
             URI uri = URI.create(url);
             return uri.getHost() != null
@@ -194,7 +382,7 @@ public class JobService {
         }
     }
 
-    private String normalizeNullableText(String value) {
+    private static String normalizeNullableText(String value) {
         if (value == null)
             return null;
 
@@ -0,0 +1,125 @@
+package com.hermes.jobs.job;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.hermes.jobs.job.dto.ImportChunkResponse;
+import com.hermes.jobs.job.dto.JobDocument;
+import com.hermes.jobs.job.dto.JobImportRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Import em streaming de documentos NDJSON (um {@link JobDocument} por linha),
+ * opcionalmente gzip. Os documentos são lidos um a um pelo parser do Jackson e
+ * gravados em blocos de {@code jobs.import.stream-chunk-size}, cada bloco na
+ * sua própria transação: a memória fica no tamanho de um bloco e um erro no
+ * meio do stream mantém os blocos já gravados ({@code skip} retoma dali).
+ * Tanto um documento inválido quanto uma falha ao gravar um bloco encerram a
+ * resposta com uma linha de erro cujo {@code next} aponta para o primeiro
+ * documento não gravado.
+ */
+@Slf4j
+@Component
+public class JobStreamImporter {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private final JobService service;
+    private final ImportProperties properties;
+    private final ObjectReader reader;
+
+    public JobStreamImporter(JobService service, ImportProperties properties, ObjectMapper objectMapper) {
+        this.service = service;
+        this.properties = properties;
+        this.reader = objectMapper.readerFor(JobDocument.class);
+    }
+
+    /**
+     * Lê o stream inteiro, ignorando os {@code skip} primeiros documentos, e
+     * entrega o resultado de cada bloco gravado a {@code onChunk}.
+     */
+    public void importStream(InputStream body, long skip, Consumer<ImportChunkResponse> onChunk) throws IOException {
+        int chunkSize = Math.max(1, properties.getStreamChunkSize());
+        List<JobDocument> chunk = new ArrayList<>(chunkSize);
+        long position = 0;
+        long chunkOffset = skip;
+
+        try (MappingIterator<JobDocument> documents = reader.readValues(decode(body))) {
+            while (true) {
+                JobDocument doc;
+                try {
+                    if (!documents.hasNextValue())
+                        break;
+                    doc = documents.nextValue();
+                } catch (JsonProcessingException e) {
+                    if (!flush(chunk, chunkOffset, onChunk))
+                        return;
+                    long next = chunkOffset + chunk.size();
+                    log.warn("[import-stream] documento {} inválido, stream interrompido", position, e);
+                    onChunk.accept(new ImportChunkResponse(next, 0, 0, Map.of(), next,
+                            "documento " + position + " inválido: " + e.getOriginalMessage()));
+                    return;
+                }
+
+                if (position++ < skip)
+                    continue;
+
+                chunk.add(doc);
+                if (chunk.size() == chunkSize) {
+                    if (!flush(chunk, chunkOffset, onChunk))
+                        return;
+                    chunkOffset += chunk.size();
+                    chunk.clear();
+                }
+            }
+        }
+
+        if (!chunk.isEmpty())
+            flush(chunk, chunkOffset, onChunk);
+    }
+
+    /** Grava o bloco; false quando a gravação falhou e o stream deve parar. */
+    private boolean flush(List<JobDocument> chunk, long offset, Consumer<ImportChunkResponse> onChunk) {
+        if (chunk.isEmpty())
+            return true;
+
+        ImportResult result;
+        try {
+            result = service.importDocuments(new JobImportRequest(new ArrayList<>(chunk)), Runnable::run);
+        } catch (RuntimeException e) {
+            // a transação do bloco voltou inteira: retoma do primeiro documento dele
+            log.warn("[import-stream] falha ao gravar o bloco que começa em {}, stream interrompido", offset, e);
+            onChunk.accept(new ImportChunkResponse(offset, chunk.size(), 0, Map.of(), offset,
+                    "falha ao gravar o bloco a partir do documento " + offset + ": " + e.getMessage()));
+            return false;
+        }
+
+        onChunk.accept(new ImportChunkResponse(offset, chunk.size(), result.imported(), result.rejected(),
+                offset + chunk.size(), null));
+        return true;
+    }
+
+    // gzip reconhecido pelos bytes mágicos, com ou sem Content-Encoding
+    private static InputStream decode(InputStream body) throws IOException {
+        InputStream in = body.markSupported() ? body : new BufferedInputStream(body);
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+
+        return first >= 0 && second >= 0 && ((second << 8) | first) == GZIP_MAGIC
+                ? new GZIPInputStream(in)
+                : in;
+    }
+}
@@ -0,0 +1,11 @@
+package com.hermes.jobs.job;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Vagas desativadas pelo {@link StalenessSweeper} por não serem recoletadas
+ * dentro do TTL da source; índices em memória devem descartá-las.
+ */
+public record JobsDeactivatedEvent(Collection<UUID> ids) {
+}
@@ -0,0 +1,10 @@
+package com.hermes.jobs.job;
+
+import java.util.List;
+
+/**
+ * Publicado pelo {@link JobService} com as vagas gravadas em uma importação.
+ * Os listeners devem reagir apenas após o commit da transação.
+ */
+public record JobsImportedEvent(List<JobEntity> jobs) {
+}
@@ -0,0 +1,12 @@
+package com.hermes.jobs.job;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Vagas recoletadas sem mudança de conteúdo: só {@code coletadoEm} e
+ * {@code active} foram renovados.
+ */
+public record JobsTouchedEvent(Collection<UUID> ids, OffsetDateTime coletadoEm) {
+}
@@ -0,0 +1,184 @@
+package com.hermes.jobs.job;
+
+import com.hermes.jobs.search.SimHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * Índice LSH em memória dos SimHash das vagas ativas, para ligar quase
+ * duplicatas (mesma vaga em outro ATS ou outra URL) a um grupo.
+ *
+ * <p>Busca por múltiplos índices: o fingerprint é dividido em {@value #BANDS}
+ * bandas de 16 bits. Duas vagas a até {@value #MAX_DISTANCE} bits de
+ * distância ficam, em alguma banda, a até {@value #PROBE_RADIUS} bit (senão a
+ * soma passaria de {@value #MAX_DISTANCE}); basta olhar, em cada banda, o
+ * balde do fingerprint novo e os dos valores a um bit dele, e aceitar os que
+ * estão a até {@value #MAX_DISTANCE} bits. Com bandas de 16 bits cada balde
+ * guarda ~N/65536 vagas, contra ~N/256 com bandas de 8 bits.
+ *
+ * <p>O grupo é o SimHash do primeiro membro, o representante, e não depende do
+ * id, que vagas novas só recebem ao gravar. Uma vaga só entra num grupo se
+ * está a até {@value #MAX_DISTANCE} bits do representante: vizinhas de
+ * vizinhas não encadeiam grupos.
+ */
+@Slf4j
+@Component
+public class NearDuplicateIndex implements SmartInitializingSingleton {
+
+    static final int BANDS = 4;
+    static final int MAX_DISTANCE = 6;
+    static final int PROBE_RADIUS = MAX_DISTANCE / BANDS;
+    private static final int BAND_BITS = Long.SIZE / BANDS;
+
+    record Entry(UUID jobId, long simHash, long group) {
+    }
+
+    private final JobRepository repository;
+
+    private final Map<Integer, List<Entry>> buckets = new HashMap<>();
+    private final Map<UUID, Entry> byJob = new HashMap<>();
+
+    public NearDuplicateIndex(JobRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<Object[]> rows = repository.findActiveSimHashes();
+        synchronized (this) {
+            for (Object[] row : rows)
+                put(new Entry((UUID) row[0], (Long) row[1], (Long) row[2]));
+        }
+        log.info("[near-duplicates] {} fingerprints carregados", rows.size());
+    }
+
+    /** Grupos atribuídos dentro de um lote de import, antes das vagas terem id. */
+    public Session session() {
+        return new Session();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobsImported(JobsImportedEvent event) {
+        synchronized (this) {
+            for (JobEntity job : event.jobs()) {
+                if (job.getId() == null)
+                    continue;
+
+                remove(job.getId());
+                if (job.isActive() && job.getSimHash() != null && job.getDuplicateGroup() != null)
+                    put(new Entry(job.getId(), job.getSimHash(), job.getDuplicateGroup()));
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobsDeactivated(JobsDeactivatedEvent event) {
+        remove(event.ids());
+    }
+
+    public synchronized void remove(Collection<UUID> ids) {
+        ids.forEach(this::remove);
+    }
+
+    public synchronized int size() {
+        return byJob.size();
+    }
+
+    // =========================
+    // BALDES
+    // =========================
+
+    /** Grupo indexado cujo representante está mais perto de {@code simHash}; null quando nenhum está a até {@value #MAX_DISTANCE} bits. */
+    private synchronized Long nearestGroup(UUID jobId, long simHash) {
+        Long best = null;
+        int bestDistance = MAX_DISTANCE + 1;
+
+        for (int band = 0; band < BANDS; band++) {
+            // balde do próprio valor da banda e os dos valores a um bit dele
+            for (int flip = -1; flip < BAND_BITS; flip++) {
+                long probe = flip < 0 ? simHash : simHash ^ (1L << (band * BAND_BITS + flip));
+                List<Entry> bucket = buckets.get(bucketKey(band, probe));
+                if (bucket == null)
+                    continue;
+
+                for (Entry entry : bucket) {
+                    if (entry.jobId().equals(jobId) || SimHash.distance(entry.simHash(), simHash) > MAX_DISTANCE)
+                        continue;
+
+                    int distance = SimHash.distance(entry.group(), simHash);
+                    if (distance < bestDistance) {
+                        best = entry.group();
+                        bestDistance = distance;
+                    }
+                }
+            }
+        }
+
+        return best;
+    }
+
+    private void put(Entry entry) {
+        byJob.put(entry.jobId(), entry);
+        for (int band = 0; band < BANDS; band++)
+            buckets.computeIfAbsent(bucketKey(band, entry.simHash()), ignored -> new ArrayList<>()).add(entry);
+    }
+
+    private void remove(UUID jobId) {
+        Entry entry = byJob.remove(jobId);
+        if (entry == null)
+            return;
+
+        for (int band = 0; band < BANDS; band++) {
+            int key = bucketKey(band, entry.simHash());
+            List<Entry> bucket = buckets.get(key);
+            if (bucket == null)
+                continue;
+
+            bucket.remove(entry);
+            if (bucket.isEmpty())
+                buckets.remove(key);
+        }
+    }
+
+    private static int bucketKey(int band, long simHash) {
+        int bits = (int) (simHash >>> (band * BAND_BITS)) & ((1 << BAND_BITS) - 1);
+        return band << BAND_BITS | bits;
+    }
+
+    // =========================
+    // LOTE
+    // =========================
+
+    public final class Session {
+
+        private final List<Entry> batch = new ArrayList<>();
+
+        /**
+         * Grupo da vaga: o de uma quase duplicata já indexada ou já vista no
+         * lote cujo representante também está perto, ou o próprio SimHash
+         * quando não há nenhum.
+         */
+        public long groupOf(UUID jobId, long simHash) {
+            Long group = nearestGroup(jobId, simHash);
+
+            if (group == null) {
+                int bestDistance = MAX_DISTANCE + 1;
+                for (Entry entry : batch) {
+                    int distance = SimHash.distance(entry.group(), simHash);
+                    if (distance < bestDistance && SimHash.distance(entry.simHash(), simHash) <= MAX_DISTANCE) {
+                        group = entry.group();
+                        bestDistance = distance;
+                    }
+                }
+            }
+
+            long assigned = group == null ? simHash : group;
+            batch.add(new Entry(jobId, simHash, assigned));
+            return assigned;
+        }
+    }
+}
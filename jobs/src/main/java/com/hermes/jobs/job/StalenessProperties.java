@@ -0,0 +1,48 @@
+package com.hermes.jobs.job;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "jobs.staleness")
+public class StalenessProperties {
+
+    private boolean enabled = true;
+
+    // intervalo entre rodadas (lido pelo @Scheduled do StalenessSweeper)
+    private Duration interval = Duration.ofMinutes(15);
+
+    // vagas não recoletadas há mais que o TTL da source são desativadas
+    private Duration defaultTtl = Duration.ofDays(30);
+
+    // TTL por source (UrlUtils.extractSource: gupy, greenhouse, lever, workday, site)
+    private Map<String, Duration> ttl = new HashMap<>();
+
+    // vagas por UPDATE
+    private int chunkSize = 500;
+
+    // pausa entre UPDATEs para não disputar o banco com o import
+    private Duration pause = Duration.ofMillis(100);
+
+    private final Archive archive = new Archive();
+
+    public Duration ttlFor(String source) {
+        return ttl.getOrDefault(source, defaultTtl);
+    }
+
+    @Getter
+    @Setter
+    public static class Archive {
+
+        // vagas inativas saem da tabela jobs para jobs_archive (descrição comprimida)
+        private boolean enabled = true;
+    }
+}
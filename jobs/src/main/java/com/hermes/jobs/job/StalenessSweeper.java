@@ -0,0 +1,152 @@
+package com.hermes.jobs.job;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Desativa vagas cujo {@code coletadoEm} passou do TTL da source. Cada
+ * rodada percorre as vagas vencidas por id (keyset) em blocos de
+ * {@code jobs.staleness.chunk-size}: só ids são lidos e cada bloco é um
+ * UPDATE na sua própria transação, com pausa entre blocos. Em seguida as
+ * vagas inativas são movidas, nos mesmos blocos, para {@code jobs_archive}
+ * ({@link JobArchive}).
+ */
+@Slf4j
+@Component
+public class StalenessSweeper {
+
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    private final JobRepository repository;
+    private final StalenessProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final JobArchive archive;
+    private final Timer sweepTimer;
+    private final Counter archivedCounter;
+
+    public StalenessSweeper(JobRepository repository,
+                            JobArchive archive,
+                            StalenessProperties properties,
+                            ApplicationEventPublisher eventPublisher,
+                            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.archive = archive;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.sweepTimer = Timer.builder("hermes_jobs_staleness_sweep")
+                .register(meterRegistry);
+        this.archivedCounter = meterRegistry.counter("hermes_jobs_archived_total");
+    }
+
+    @Scheduled(
+            initialDelayString = "${jobs.staleness.interval:PT15M}",
+            fixedDelayString = "${jobs.staleness.interval:PT15M}"
+    )
+    public void scheduledSweep() {
+        if (properties.isEnabled())
+            sweep();
+    }
+
+    /** Uma rodada completa; devolve quantas vagas foram desativadas. */
+    public synchronized int sweep() {
+        return sweepTimer.record(() -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            int total = 0;
+
+            for (String source : repository.findActiveSources())
+                total += sweep(source, now.minus(properties.ttlFor(source)));
+
+            if (total > 0)
+                log.info("[staleness] {} vagas desativadas", total);
+
+            if (properties.getArchive().isEnabled())
+                archiveInactive();
+            return total;
+        });
+    }
+
+    private int sweep(String source, OffsetDateTime cutoff) {
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        UUID after = FIRST_ID;
+        int deactivated = 0;
+
+        while (true) {
+            List<UUID> ids = repository.findStaleIds(source, cutoff, after, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty())
+                break;
+
+            int updated = repository.deactivate(ids, cutoff);
+            if (updated > 0) {
+                deactivated += updated;
+                eventPublisher.publishEvent(new JobsDeactivatedEvent(updated == ids.size() ? ids : stillInactive(ids)));
+            }
+
+            if (ids.size() < chunkSize)
+                break;
+
+            after = ids.get(ids.size() - 1);
+            pause();
+        }
+
+        meterRegistry.counter("hermes_jobs_deactivated_total", "source", source).increment(deactivated);
+        return deactivated;
+    }
+
+    // inclui inativas de rodadas anteriores ou de quando o arquivo estava desligado
+    private void archiveInactive() {
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        UUID after = FIRST_ID;
+        int archived = 0;
+
+        while (true) {
+            List<UUID> ids = repository.findInactiveIds(after, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty())
+                break;
+
+            archived += archive.archive(ids);
+
+            if (ids.size() < chunkSize)
+                break;
+
+            after = ids.get(ids.size() - 1);
+            pause();
+        }
+
+        if (archived > 0)
+            log.info("[staleness] {} vagas arquivadas", archived);
+        archivedCounter.increment(archived);
+    }
+
+    // vagas recoletadas entre o SELECT e o UPDATE continuam ativas e no índice
+    private Set<UUID> stillInactive(List<UUID> ids) {
+        Set<UUID> inactive = new HashSet<>(ids);
+        inactive.removeAll(repository.findActiveIdsIn(ids));
+        return inactive;
+    }
+
+    private void pause() {
+        long millis = properties.getPause().toMillis();
+        if (millis <= 0)
+            return;
+
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
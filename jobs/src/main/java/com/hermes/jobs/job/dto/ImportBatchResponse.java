@@ -0,0 +1,17 @@
+package com.hermes.jobs.job.dto;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+public record ImportBatchResponse(
+        UUID batchId,
+        String status,
+        int documents,
+        int imported,
+        Map<String, Integer> rejected,
+        OffsetDateTime submittedAt,
+        OffsetDateTime startedAt,
+        OffsetDateTime finishedAt,
+        String error
+) {}
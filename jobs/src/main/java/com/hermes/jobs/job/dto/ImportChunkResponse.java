@@ -0,0 +1,17 @@
+package com.hermes.jobs.job.dto;
+
+import java.util.Map;
+
+/**
+ * Uma linha da resposta do import em streaming. {@code offset} é a posição do
+ * primeiro documento do bloco no stream e {@code next} o valor de {@code skip}
+ * para retomar depois dele; {@code error} só aparece na linha que interrompe o stream.
+ */
+public record ImportChunkResponse(
+        long offset,
+        int documents,
+        int imported,
+        Map<String, Integer> rejected,
+        long next,
+        String error
+) {}
@@ -0,0 +1,13 @@
+package com.hermes.jobs.job.dto;
+
+import java.util.List;
+
+/**
+ * Uma página da listagem por cursor. {@code nextCursor} é o valor de
+ * {@code cursor} para a página seguinte e só vem quando {@code hasNext}.
+ */
+public record JobSliceResponse(
+        List<JobResponse> content,
+        boolean hasNext,
+        String nextCursor
+) {}
@@ -1,7 +0,0 @@
-package com.hermes.jobs.search;
-
-public record AnalyzedJob(
-        String stacks,
-        String seniority,
-        String workMode
-) {}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.hermes.jobs.search;
+
+import java.util.Arrays;
+
+/**
+ * Maior frequência de um token em uma vaga, por bloco de doc ids
+ * ({@link JobSearchIndex#BLOCK_SHIFT}) e no geral. Os blocos ficam em pares
+ * (bloco, máximo) ordenados pelo bloco, com o máximo em um byte: a partir de
+ * {@value #SATURATED} vale o máximo geral.
+ *
+ * <p>Como os máximos só crescem (a saída de uma vaga não os recalcula), podem
+ * ficar acima do real, nunca abaixo.
+ */
+final class BlockMaxima {
+
+    private static final int SATURATED = 0xff;
+
+    private int[] blocks = new int[1];
+    private byte[] maxima = new byte[1];
+    private int size;
+    private int max;
+
+    void update(int block, int frequency) {
+        max = Math.max(max, frequency);
+        int stored = Math.min(frequency, SATURATED);
+
+        // atalho comum: doc ids crescentes caem no último bloco
+        int index = size > 0 && blocks[size - 1] == block ? size - 1 : Arrays.binarySearch(blocks, 0, size, block);
+        if (index >= 0) {
+            if (stored > (maxima[index] & 0xff))
+                maxima[index] = (byte) stored;
+            return;
+        }
+
+        index = -index - 1;
+        if (size == blocks.length) {
+            blocks = Arrays.copyOf(blocks, size * 2);
+            maxima = Arrays.copyOf(maxima, size * 2);
+        }
+
+        System.arraycopy(blocks, index, blocks, index + 1, size - index);
+        System.arraycopy(maxima, index, maxima, index + 1, size - index);
+        blocks[index] = block;
+        maxima[index] = (byte) stored;
+        size++;
+    }
+
+    /** Quantos blocos já tiveram o token. */
+    int size() {
+        return size;
+    }
+
+    int block(int i) {
+        return blocks[i];
+    }
+
+    int max(int i) {
+        int stored = maxima[i] & 0xff;
+        return stored == SATURATED ? max : stored;
+    }
+}
@@ -0,0 +1,73 @@
+package com.hermes.jobs.search;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Posições em ordem decrescente de teto e, no empate, a posição menor
+ * primeiro. O heap é montado em tempo linear e cada retirada custa log n,
+ * então uma varredura que para cedo não paga a ordenação do resto.
+ */
+final class BoundQueue {
+
+    private final float[] bounds;
+    private final long[] keys;
+    private int size;
+
+    BoundQueue(float[] bounds) {
+        this.bounds = bounds;
+        this.keys = new long[bounds.length];
+        for (int i = 0; i < bounds.length; i++)
+            keys[i] = key(bounds[i], i);
+
+        size = bounds.length;
+        for (int i = size / 2 - 1; i >= 0; i--)
+            siftDown(i);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Teto da próxima posição; a fila não pode estar vazia. */
+    float peekBound() {
+        return bounds[(int) keys[0]];
+    }
+
+    int poll() {
+        int position = (int) keys[0];
+        keys[0] = keys[--size];
+        siftDown(0);
+        return position;
+    }
+
+    /** Posições ainda na fila, em qualquer ordem. */
+    void forEachRemaining(IntConsumer consumer) {
+        for (int i = 0; i < size; i++)
+            consumer.accept((int) keys[i]);
+    }
+
+    // chave crescente = maior teto primeiro e, no empate, posição menor
+    private static long key(float bound, int position) {
+        int bits = Float.floatToIntBits(bound);
+        int ascending = bits ^ ((bits >> 31) & 0x7fffffff);
+        return ((long) ~ascending << 32) | position;
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size)
+                return;
+
+            int right = left + 1;
+            int child = right < size && keys[right] < keys[left] ? right : left;
+            if (keys[child] >= keys[i])
+                return;
+
+            long key = keys[i];
+            keys[i] = keys[child];
+            keys[child] = key;
+            i = child;
+        }
+    }
+}
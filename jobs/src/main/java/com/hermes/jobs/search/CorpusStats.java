@@ -0,0 +1,19 @@
+package com.hermes.jobs.search;
+
+/**
+ * Estatísticas do índice para o BM25F de uma consulta, copiadas sob o lock
+ * de leitura: número de vagas ativas, comprimento médio (em tokens) de cada
+ * campo indexado e, por termo da consulta, em quantas vagas ele pode
+ * aparecer em algum campo de texto.
+ *
+ * @param averageLength indexado pelo ordinal do {@link IndexField}; 0 nos campos sem postings
+ * @param documentFrequency indexado pelo id do termo no {@link QueryTermMatcher}
+ */
+record CorpusStats(int documents, double[] averageLength, int[] documentFrequency) {
+
+    /** IDF do BM25, sempre positivo. */
+    double idf(int term) {
+        int df = Math.min(documents, documentFrequency[term]);
+        return Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+    }
+}
@@ -0,0 +1,446 @@
+package com.hermes.jobs.search;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Bitmap comprimido de doc ids no estilo roaring: os 16 bits altos escolhem um
+ * container e os 16 bits baixos são guardados num array ordenado (até 4096
+ * valores) ou num bitmap de 65536 bits, o que for menor.
+ */
+final class DocIdBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    // =========================
+    // ESCRITA
+    // =========================
+
+    void add(int docId) {
+        char key = high(docId);
+        int index = indexOf(key);
+
+        if (index >= 0) {
+            containers[index] = containers[index].add(low(docId));
+            return;
+        }
+
+        insertAt(-index - 1, key, new ArrayContainer().add(low(docId)));
+    }
+
+    void remove(int docId) {
+        int index = indexOf(high(docId));
+        if (index < 0)
+            return;
+
+        Container container = containers[index].remove(low(docId));
+        if (container.cardinality() == 0) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+            size--;
+            containers[size] = null;
+        } else {
+            containers[index] = container;
+        }
+    }
+
+    // =========================
+    // LEITURA
+    // =========================
+
+    boolean contains(int docId) {
+        int index = indexOf(high(docId));
+        return index >= 0 && containers[index].contains(low(docId));
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++)
+            total += containers[i].cardinality();
+        return total;
+    }
+
+    void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            int base = keys[i] << 16;
+            containers[i].forEach(value -> consumer.accept(base | value));
+        }
+    }
+
+    int[] toArray() {
+        int[] result = new int[cardinality()];
+        int[] n = {0};
+        forEach(docId -> result[n[0]++] = docId);
+        return result;
+    }
+
+    DocIdBitmap copy() {
+        DocIdBitmap copy = new DocIdBitmap();
+        copy.keys = Arrays.copyOf(keys, keys.length);
+        copy.containers = new Container[containers.length];
+        for (int i = 0; i < size; i++)
+            copy.containers[i] = containers[i].copy();
+        copy.size = size;
+        return copy;
+    }
+
+    // =========================
+    // OPERAÇÕES DE CONJUNTO
+    // =========================
+
+    static DocIdBitmap and(DocIdBitmap a, DocIdBitmap b) {
+        DocIdBitmap result = new DocIdBitmap();
+        int i = 0, j = 0;
+
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) i++;
+            else if (a.keys[i] > b.keys[j]) j++;
+            else {
+                Container container = a.containers[i].and(b.containers[j]);
+                if (container.cardinality() > 0)
+                    result.append(a.keys[i], container);
+                i++;
+                j++;
+            }
+        }
+
+        return result;
+    }
+
+    static int andCardinality(DocIdBitmap a, DocIdBitmap b) {
+        int total = 0;
+        int i = 0, j = 0;
+
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) i++;
+            else if (a.keys[i] > b.keys[j]) j++;
+            else {
+                total += a.containers[i].andCardinality(b.containers[j]);
+                i++;
+                j++;
+            }
+        }
+
+        return total;
+    }
+
+    static DocIdBitmap or(DocIdBitmap a, DocIdBitmap b) {
+        DocIdBitmap result = new DocIdBitmap();
+        int i = 0, j = 0;
+
+        while (i < a.size || j < b.size) {
+            if (j >= b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.append(a.keys[i], a.containers[i].copy());
+                i++;
+            } else if (i >= a.size || a.keys[i] > b.keys[j]) {
+                result.append(b.keys[j], b.containers[j].copy());
+                j++;
+            } else {
+                result.append(a.keys[i], a.containers[i].or(b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+
+        return result;
+    }
+
+    // =========================
+    // INTERNOS
+    // =========================
+
+    private static char high(int docId) {
+        return (char) (docId >>> 16);
+    }
+
+    private static char low(int docId) {
+        return (char) docId;
+    }
+
+    private int indexOf(char key) {
+        // atalho comum: doc ids crescentes caem no último container
+        if (size > 0 && keys[size - 1] == key)
+            return size - 1;
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertAt(int index, char key, Container container) {
+        ensureCapacity();
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void append(char key, Container container) {
+        ensureCapacity();
+        keys[size] = key;
+        containers[size] = container;
+        size++;
+    }
+
+    private void ensureCapacity() {
+        if (size < keys.length)
+            return;
+
+        keys = Arrays.copyOf(keys, size * 2);
+        containers = Arrays.copyOf(containers, size * 2);
+    }
+
+    private interface Container {
+
+        Container add(char value);
+
+        Container remove(char value);
+
+        boolean contains(char value);
+
+        int cardinality();
+
+        void forEach(IntConsumer consumer);
+
+        Container copy();
+
+        default Container and(Container other) {
+            if (this instanceof BitmapContainer a && other instanceof BitmapContainer b)
+                return a.and(b).shrinkIfSparse();
+
+            ArrayContainer array = this instanceof ArrayContainer a ? a : (ArrayContainer) other;
+            Container probe = array == this ? other : this;
+
+            char[] values = new char[array.cardinality];
+            int n = 0;
+            for (int i = 0; i < array.cardinality; i++)
+                if (probe.contains(array.values[i]))
+                    values[n++] = array.values[i];
+
+            return new ArrayContainer(values, n);
+        }
+
+        default int andCardinality(Container other) {
+            if (this instanceof BitmapContainer a && other instanceof BitmapContainer b) {
+                int total = 0;
+                for (int i = 0; i < BITMAP_WORDS; i++)
+                    total += Long.bitCount(a.words[i] & b.words[i]);
+                return total;
+            }
+
+            ArrayContainer array = this instanceof ArrayContainer a ? a : (ArrayContainer) other;
+            Container probe = array == this ? other : this;
+
+            int total = 0;
+            for (int i = 0; i < array.cardinality; i++)
+                if (probe.contains(array.values[i]))
+                    total++;
+            return total;
+        }
+
+        default Container or(Container other) {
+            if (this instanceof ArrayContainer a && other instanceof ArrayContainer b
+                    && a.cardinality + b.cardinality <= ARRAY_MAX)
+                return a.union(b);
+
+            BitmapContainer result = this instanceof BitmapContainer bitmap
+                    ? (BitmapContainer) bitmap.copy()
+                    : ((ArrayContainer) this).toBitmap();
+            other.forEach(value -> result.set((char) value));
+            return result.shrinkIfSparse();
+        }
+    }
+
+    private static final class ArrayContainer implements Container {
+
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        public Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0)
+                return this;
+
+            if (cardinality == ARRAY_MAX) {
+                BitmapContainer bitmap = toBitmap();
+                bitmap.set(value);
+                return bitmap;
+            }
+
+            index = -index - 1;
+            if (cardinality == values.length)
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, cardinality * 2)));
+
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index < 0)
+                return this;
+
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            cardinality--;
+            return this;
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public void forEach(IntConsumer consumer) {
+            for (int i = 0; i < cardinality; i++)
+                consumer.accept(values[i]);
+        }
+
+        @Override
+        public Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(cardinality, 1)), cardinality);
+        }
+
+        ArrayContainer union(ArrayContainer other) {
+            char[] result = new char[cardinality + other.cardinality];
+            int i = 0, j = 0, n = 0;
+
+            while (i < cardinality && j < other.cardinality) {
+                if (values[i] < other.values[j]) result[n++] = values[i++];
+                else if (values[i] > other.values[j]) result[n++] = other.values[j++];
+                else {
+                    result[n++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+
+            while (i < cardinality) result[n++] = values[i++];
+            while (j < other.cardinality) result[n++] = other.values[j++];
+
+            return new ArrayContainer(result, n);
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++)
+                bitmap.set(values[i]);
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer implements Container {
+
+        private final long[] words = new long[BITMAP_WORDS];
+        private int cardinality;
+
+        @Override
+        public Container add(char value) {
+            set(value);
+            return this;
+        }
+
+        @Override
+        public Container remove(char value) {
+            clear(value);
+            return shrinkIfSparse();
+        }
+
+        @Override
+        public boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        public int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        public void forEach(IntConsumer consumer) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    consumer.accept((i << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        public Container copy() {
+            BitmapContainer copy = new BitmapContainer();
+            System.arraycopy(words, 0, copy.words, 0, BITMAP_WORDS);
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        BitmapContainer and(BitmapContainer other) {
+            BitmapContainer result = new BitmapContainer();
+            for (int i = 0; i < BITMAP_WORDS; i++)
+                result.words[i] = words[i] & other.words[i];
+            result.recount();
+            return result;
+        }
+
+        void set(char value) {
+            long mask = 1L << value;
+            int index = value >>> 6;
+            if ((words[index] & mask) == 0) {
+                words[index] |= mask;
+                cardinality++;
+            }
+        }
+
+        void clear(char value) {
+            long mask = 1L << value;
+            int index = value >>> 6;
+            if ((words[index] & mask) != 0) {
+                words[index] &= ~mask;
+                cardinality--;
+            }
+        }
+
+        void recount() {
+            int total = 0;
+            for (long word : words)
+                total += Long.bitCount(word);
+            cardinality = total;
+        }
+
+        Container shrinkIfSparse() {
+            if (cardinality > ARRAY_MAX)
+                return this;
+
+            char[] values = new char[Math.max(cardinality, 1)];
+            int[] n = {0};
+            forEach(value -> values[n[0]++] = (char) value);
+            return new ArrayContainer(values, cardinality);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.hermes.jobs.search;
+
+public enum IndexField {
+    TITLE,
+    DESCRIPTION,
+    COMPANY,
+    STACKS,
+    LOCATION,
+    SENIORITY,
+    WORK_MODE
+}
@@ -0,0 +1,72 @@
+package com.hermes.jobs.search;
+
+import com.hermes.jobs.job.JobEntity;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Snapshot de busca de uma vaga. Os campos de texto já vêm normalizados
+ * ({@link TextNormalizer#normalize}), prontos para tokenização e ranking.
+ */
+public record IndexedJob(
+        UUID id,
+        String title,
+        String description,
+        String empresa,
+        String stacks,
+        String seniority,
+        String workMode,
+        String location,
+        OffsetDateTime coletadoEm,
+        String ingestionTraceId,
+        Long contentHash,
+        Long duplicateGroup
+) {
+
+    static IndexedJob from(JobEntity job) {
+        return new IndexedJob(
+                job.getId(),
+                precomputed(job.getNormalizedTitle(), job::getTitle),
+                precomputed(job.getNormalizedDescription(), job::getDescription),
+                precomputed(job.getNormalizedCompany(), job::getEmpresa),
+                TextNormalizer.normalize(job.getStacks()),
+                TextNormalizer.normalize(job.getSeniority()),
+                TextNormalizer.normalize(job.getWorkMode()),
+                precomputed(job.getNormalizedLocation(), job::getLocation),
+                job.getColetadoEm(),
+                job.getIngestionTraceId(),
+                job.getContentHash(),
+                job.getDuplicateGroup()
+        );
+    }
+
+    IndexedJob withColetadoEm(OffsetDateTime coletadoEm) {
+        return new IndexedJob(id, title, description, empresa, stacks, seniority, workMode, location,
+                coletadoEm, ingestionTraceId, contentHash, duplicateGroup);
+    }
+
+    /** Mesmo conteúdo indexável: os tokens e facetas não mudam. */
+    boolean sameContent(JobEntity job) {
+        return contentHash != null && contentHash.equals(job.getContentHash());
+    }
+
+    // linhas gravadas antes das colunas normalizadas ainda não têm o valor pronto;
+    // o texto cru só é lido (e a descrição descomprimida) nesse caso
+    private static String precomputed(String normalized, Supplier<String> raw) {
+        return normalized != null ? normalized : TextNormalizer.normalize(raw.get());
+    }
+
+    String field(IndexField field) {
+        return switch (field) {
+            case TITLE -> title;
+            case DESCRIPTION -> description;
+            case COMPANY -> empresa;
+            case STACKS -> stacks;
+            case LOCATION -> location;
+            case SENIORITY -> seniority;
+            case WORK_MODE -> workMode;
+        };
+    }
+}
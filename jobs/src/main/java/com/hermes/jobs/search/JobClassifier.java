@@ -1,11 +1,20 @@
 package com.hermes.jobs.search;
 
-import java.text.Normalizer;
 import java.util.*;
-import java.util.regex.Pattern;
 
+/**
+ * Classifica stacks, senioridade e modelo de trabalho de uma vaga.
+ *
+ * <p>As regras abaixo são compiladas uma vez em um índice pela primeira palavra
+ * de cada termo; o texto é percorrido uma única vez em sequências de letras e
+ * dígitos e cada sequência só é comparada com as regras que começam por ela
+ * (semântica de limite de palavra, como {@code \b} em regex).
+ */
 public class JobClassifier {
 
+    // incrementar ao mudar as regras: invalida o ContentFingerprint das vagas gravadas
+    public static final int VERSION = 2;
+
     // ================= STACKS =================
 
     private static final Set<String> STACKS = Set.of(
@@ -26,97 +35,190 @@ public class JobClassifier {
 
     // ================= SENIORIDADE =================
 
-    private static final Map<String, Pattern> SENIORITY = Map.of(
-            "intern", Pattern.compile("\\b(estagio|estagiario|intern(ship)?)\\b"),
-            "junior", Pattern.compile("\\b(junior|jr)\\b"),
-            "mid", Pattern.compile("\\b(pleno|mid|middle)\\b"),
-            "senior", Pattern.compile("\\b(senior|sr)\\b"),
-            "lead", Pattern.compile("\\b(lead|tech lead|principal|staff|head)\\b")
+    private static final Map<String, List<String>> SENIORITY = Map.of(
+            "intern", List.of("estagio", "estagiario", "intern", "internship"),
+            "junior", List.of("junior", "jr"),
+            "mid", List.of("pleno", "mid", "middle"),
+            "senior", List.of("senior", "sr"),
+            "lead", List.of("lead", "tech lead", "principal", "staff", "head")
     );
 
+    // em ordem crescente: vence o maior nível encontrado
     private static final List<String> SENIORITY_ORDER =
             List.of("intern","junior","mid","senior","lead");
 
 
     // ================= WORK MODE =================
 
-    private static final Map<String, Pattern> WORKMODE = Map.of(
-            "remote", Pattern.compile("\\b(100%\\s*)?(remote|remoto|work\\s*from\\s*home|anywhere)\\b"),
-            "hybrid", Pattern.compile("\\b(hybrid|hibrido|híbrido)\\b"),
-            "onsite", Pattern.compile("\\b(onsite|on-site|presencial)\\b")
+    private static final Map<String, List<String>> WORKMODE = Map.of(
+            "remote", List.of("remote", "remoto", "work from home", "anywhere"),
+            "hybrid", List.of("hybrid", "hibrido"),
+            "onsite", List.of("onsite", "on-site", "presencial")
     );
 
+    // em ordem de prioridade: vence o primeiro encontrado
+    private static final List<String> WORKMODE_ORDER =
+            List.of("remote","hybrid","onsite");
+
+
+    // ================= REGRAS COMPILADAS =================
+
+    private enum Kind { STACK, SENIORITY, WORK_MODE }
+
+    private static final Map<String, List<Rule>> RULES_BY_FIRST_WORD = compileRules();
+
 
     // ================= CLASSIFY =================
 
     public static ClassificationResult classify(String rawText) {
 
-        String text = normalize(rawText);
+        String text = TextNormalizer.fold(rawText);
 
-        Set<String> foundStacks = detectStacks(text);
-        String seniority = detectSeniority(text);
-        String workMode = detectWorkMode(text);
+        Set<String> foundStacks = new HashSet<>();
+        int seniorityRank = -1;
+        int workModeRank = WORKMODE_ORDER.size();
 
-        return new ClassificationResult(foundStacks, seniority, workMode);
-    }
+        int length = text.length();
+        int i = 0;
 
+        while (i < length) {
+            if (!isWordChar(text.charAt(i))) {
+                i++;
+                continue;
+            }
 
-    // ================= DETECT STACKS =================
+            int start = i;
+            while (i < length && isWordChar(text.charAt(i)))
+                i++;
 
-    private static Set<String> detectStacks(String text) {
+            List<Rule> rules = RULES_BY_FIRST_WORD.get(text.substring(start, i));
+            if (rules == null)
+                continue;
 
-        Set<String> found = new HashSet<>();
+            for (Rule rule : rules) {
+                if (!rule.matches(text, start, i))
+                    continue;
 
-        for (String stack : STACKS) {
-            Pattern p = Pattern.compile("\\b" + Pattern.quote(stack) + "\\b");
-            if (p.matcher(text).find())
-                found.add(stack);
+                switch (rule.kind()) {
+                    case STACK -> foundStacks.add(rule.value());
+                    case SENIORITY -> seniorityRank = Math.max(seniorityRank, rule.rank());
+                    case WORK_MODE -> workModeRank = Math.min(workModeRank, rule.rank());
+                }
+            }
         }
 
-        return found;
+        return new ClassificationResult(
+                foundStacks,
+                seniorityRank < 0 ? null : SENIORITY_ORDER.get(seniorityRank),
+                workModeRank >= WORKMODE_ORDER.size() ? null : WORKMODE_ORDER.get(workModeRank)
+        );
     }
 
 
-    // ================= DETECT SENIORITY =================
+    // ================= COMPILE =================
 
-    private static String detectSeniority(String text) {
+    private static Map<String, List<Rule>> compileRules() {
+        Map<String, List<Rule>> index = new HashMap<>();
 
-        String levelFound = null;
+        for (String stack : STACKS)
+            add(index, Rule.compile(Kind.STACK, stack, 0, stack));
 
-        for (String level : SENIORITY_ORDER) {
-            Pattern p = SENIORITY.get(level);
-            if (p.matcher(text).find())
-                levelFound = level; // sempre guarda o maior
+        for (int rank = 0; rank < SENIORITY_ORDER.size(); rank++) {
+            String level = SENIORITY_ORDER.get(rank);
+            for (String term : SENIORITY.get(level))
+                add(index, Rule.compile(Kind.SENIORITY, level, rank, term));
         }
 
-        return levelFound;
-    }
+        for (int rank = 0; rank < WORKMODE_ORDER.size(); rank++) {
+            String mode = WORKMODE_ORDER.get(rank);
+            for (String term : WORKMODE.get(mode))
+                add(index, Rule.compile(Kind.WORK_MODE, mode, rank, term));
+        }
 
+        return Map.copyOf(index);
+    }
 
-    // ================= DETECT WORKMODE =================
+    private static void add(Map<String, List<Rule>> index, Rule rule) {
+        index.computeIfAbsent(rule.words()[0], k -> new ArrayList<>()).add(rule);
+    }
 
-    private static String detectWorkMode(String text) {
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
 
-        for (var e : WORKMODE.entrySet())
-            if (e.getValue().matcher(text).find())
-                return e.getKey();
 
-        return null;
-    }
+    // ================= RULE =================
+
+    /**
+     * Termo quebrado em palavras e separadores: ".net" = "." + net,
+     * "c#" = c + "#", "react-native" = react + "-" + native,
+     * "work from home" = work + espaço + from + espaço + home (espaço casa
+     * qualquer sequência de espaços em branco).
+     */
+    private record Rule(Kind kind, String value, int rank,
+                        String leading, String[] words, String[] separators, String trailing) {
+
+        static Rule compile(Kind kind, String value, int rank, String term) {
+            List<String> words = new ArrayList<>();
+            List<String> separators = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean inWord = term.isEmpty() || isWordChar(term.charAt(0));
+
+            for (int i = 0; i <= term.length(); i++) {
+                boolean end = i == term.length();
+                boolean wordChar = !end && isWordChar(term.charAt(i));
+
+                if (end || wordChar != inWord) {
+                    String part = current.toString();
+                    if (inWord) words.add(part);
+                    else separators.add(part.isBlank() ? " " : part);
+                    current.setLength(0);
+                    inWord = wordChar;
+                }
+
+                if (!end)
+                    current.append(term.charAt(i));
+            }
+
+            String leading = isWordChar(term.charAt(0)) ? "" : separators.remove(0);
+            String trailing = separators.size() == words.size() ? separators.remove(separators.size() - 1) : "";
+
+            return new Rule(kind, value, rank, leading, words.toArray(String[]::new),
+                    separators.toArray(String[]::new), trailing);
+        }
 
+        /** {@code start..end} é a primeira palavra, já conhecida por casar com words[0]. */
+        boolean matches(String text, int start, int end) {
+            if (!leading.isEmpty()
+                    && (start < leading.length() || !text.startsWith(leading, start - leading.length())))
+                return false;
 
-    // ================= NORMALIZE =================
+            int position = end;
+            for (int w = 1; w < words.length; w++) {
+                position = skipSeparator(text, position, separators[w - 1]);
+                if (position < 0)
+                    return false;
 
-    private static String normalize(String text) {
+                String word = words[w];
+                int wordEnd = position + word.length();
+                if (!text.startsWith(word, position) || (wordEnd < text.length() && isWordChar(text.charAt(wordEnd))))
+                    return false;
 
-        if (text == null) return "";
+                position = wordEnd;
+            }
 
-        text = text.toLowerCase();
+            return trailing.isEmpty() || text.startsWith(trailing, position);
+        }
 
-        text = Normalizer.normalize(text, Normalizer.Form.NFD)
-                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
+        private static int skipSeparator(String text, int position, String separator) {
+            if (!separator.equals(" "))
+                return text.startsWith(separator, position) ? position + separator.length() : -1;
 
-        return text;
+            int next = position;
+            while (next < text.length() && Character.isWhitespace(text.charAt(next)))
+                next++;
+            return next > position ? next : -1;
+        }
     }
 
 
@@ -127,4 +229,4 @@ public class JobClassifier {
             String seniority,
             String workMode
     ) {}
-}
\ No newline at end of file
+}
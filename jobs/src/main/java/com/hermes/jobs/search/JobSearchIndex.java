@@ -0,0 +1,855 @@
+package com.hermes.jobs.search;
+
+import com.hermes.jobs.job.JobEntity;
+import com.hermes.jobs.job.JobRepository;
+import com.hermes.jobs.job.JobsDeactivatedEvent;
+import com.hermes.jobs.job.JobsImportedEvent;
+import com.hermes.jobs.job.JobsTouchedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Índice invertido em memória das vagas ativas. Mantém um bitmap de postings
+ * por campo e por token normalizado, um bitmap por valor de faceta (stack,
+ * senioridade, modelo de trabalho e área) e o bitmap {@code active}; um
+ * {@link SearchCriteria} vira algumas interseções de bitmaps e o banco só é
+ * usado para hidratar a página final.
+ *
+ * <p>Quase duplicatas ({@code duplicateGroup}) aparecem uma vez: o bitmap
+ * {@code visible} tem as vagas sem grupo e, de cada grupo, a coleta mais
+ * recente (no empate, o menor doc id), ajustado quando um membro entra, sai ou
+ * tem a coleta renovada. Toda consulta parte dele, então um grupo só aparece
+ * se o seu representante satisfaz o critério.
+ *
+ * <p>Cada token guarda também a maior frequência que já teve em uma vaga de
+ * cada bloco de {@code 2^BLOCK_SHIFT} doc ids ({@link BlockMaxima}), e cada
+ * bloco guarda a coleta mais nova, o menor comprimento não vazio de cada campo
+ * de texto e o maior texto de cada campo. Daí saem os tetos de pontuação por
+ * bloco e por vaga do ranking ({@link TermImpacts}). Os máximos só são
+ * recalculados quando o token sai do índice ou o bloco esvazia, então podem
+ * ficar acima do real (e os mínimos abaixo), nunca do lado errado.
+ *
+ * <p>Para o BM25F cada campo indexado soma os comprimentos das vagas ativas e
+ * guarda um byte por vaga com o comprimento quantizado ({@link LengthNorm});
+ * ambos são ajustados a cada vaga que entra ou sai, sem recálculo geral.
+ *
+ * <p>Os tokens que contêm um termo saem de um índice de n-gramas do
+ * vocabulário de cada campo ({@link VocabularyGrams}), sem percorrer o
+ * vocabulário. A união dos postings desses tokens fica num LRU por núcleo de
+ * termo, esvaziado a cada vaga que entra ou sai, então buscas repetidas entre
+ * duas escritas não refazem as uniões.
+ */
+@Slf4j
+@Component
+public final class JobSearchIndex implements SmartInitializingSingleton {
+
+    static final int BLOCK_SHIFT = 7;
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+    private static final int IMPACT_CACHE_SIZE = 256;
+    private static final OffsetDateTime EPOCH = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    static final Map<Area, Set<String>> AREA_KEYWORDS = Map.of(
+            Area.BACKEND, Set.of("backend", "back-end", "api", "microservices"),
+            Area.FRONTEND, Set.of("frontend", "front-end", "ui", "ux"),
+            Area.FULLSTACK, Set.of("fullstack", "full-stack"),
+            Area.MOBILE, Set.of("mobile", "android", "ios", "react-native", "flutter"),
+            Area.DATA, Set.of("data", "dados", "analytics", "machine learning"),
+            Area.DEVOPS, Set.of("devops", "sre", "infra", "platform"),
+            Area.SECURITY, Set.of("security", "seguranca", "cyber"),
+            Area.QA, Set.of("qa", "quality", "test")
+    );
+
+    private static final IndexField[] TEXT_FIELDS = {
+            IndexField.TITLE, IndexField.DESCRIPTION, IndexField.COMPANY, IndexField.STACKS, IndexField.LOCATION
+    };
+
+    private final JobRepository repository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> docIdsByJob = new HashMap<>();
+    private final List<IndexedJob> docs = new ArrayList<>();
+    private final Deque<Integer> freeDocIds = new ArrayDeque<>();
+    private final Map<IndexField, Map<String, DocIdBitmap>> postings = new EnumMap<>(IndexField.class);
+    private final Map<IndexField, Map<String, BlockMaxima>> maxFrequencies = new EnumMap<>(IndexField.class);
+    private final Map<IndexField, VocabularyGrams> vocabularies = new EnumMap<>(IndexField.class);
+    // por ordinal do campo; só os campos de texto são preenchidos
+    private final long[] lengthSums = new long[IndexField.values().length];
+    private final byte[][] norms = new byte[IndexField.values().length][];
+    // por bloco de doc ids; o menor comprimento guarda o norm, 0 quando nenhuma vaga do bloco tem o campo
+    private int[] blockSizes = new int[0];
+    private OffsetDateTime[] blockNewest = new OffsetDateTime[0];
+    private final byte[][] blockShortest = new byte[IndexField.values().length][0];
+    private final int[][] blockLongest = new int[IndexField.values().length][0];
+    private final Map<SearchFacet, Map<String, DocIdBitmap>> facets = new EnumMap<>(SearchFacet.class);
+    private final DocIdBitmap active = new DocIdBitmap();
+    private final DocIdBitmap visible = new DocIdBitmap();
+    private final Map<Long, List<Integer>> duplicateGroups = new HashMap<>();
+    // preenchido sob o read lock por buscas concorrentes, por isso sincronizado; esvaziado sob o write lock
+    private final Map<String, CoreImpacts> impactCache = Collections.synchronizedMap(
+            new LinkedHashMap<String, CoreImpacts>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CoreImpacts> eldest) {
+                    return size() > IMPACT_CACHE_SIZE;
+                }
+            });
+
+    private volatile OffsetDateTime lastRefresh = EPOCH;
+
+    public JobSearchIndex(JobRepository repository, MeterRegistry meterRegistry) {
+        this.repository = repository;
+
+        for (IndexField field : TEXT_FIELDS) {
+            postings.put(field, new HashMap<>());
+            maxFrequencies.put(field, new HashMap<>());
+            vocabularies.put(field, new VocabularyGrams());
+            norms[field.ordinal()] = new byte[LOAD_PAGE_SIZE];
+        }
+
+        for (SearchFacet facet : SearchFacet.values())
+            facets.put(facet, new HashMap<>());
+
+        Gauge.builder("hermes_search_index_documents", this, JobSearchIndex::size)
+                .register(meterRegistry);
+    }
+
+    // =========================
+    // CARGA
+    // =========================
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        OffsetDateTime startedAt = OffsetDateTime.now();
+        int loaded = load(pageable -> repository.findByActiveTrueAndColetadoEmAfter(EPOCH, pageable));
+        lastRefresh = startedAt;
+        log.info("[search-index] carga inicial concluída: {} vagas ativas", loaded);
+    }
+
+    /**
+     * Reaplica as vagas coletadas desde a última atualização, cobrindo
+     * importações feitas por outras instâncias.
+     */
+    @Scheduled(
+            initialDelayString = "${search.index.refresh-interval:PT30S}",
+            fixedDelayString = "${search.index.refresh-interval:PT30S}"
+    )
+    public void refresh() {
+        OffsetDateTime startedAt = OffsetDateTime.now();
+        OffsetDateTime since = lastRefresh.minus(REFRESH_OVERLAP);
+        load(pageable -> repository.findByColetadoEmAfter(since, pageable));
+        lastRefresh = startedAt;
+    }
+
+    /**
+     * Tira do índice as vagas que saíram do conjunto ativo sem passar por esta
+     * instância: desativadas pelo {@code StalenessSweeper} de outra instância
+     * ou apagadas pelo arquivamento. O {@code refresh} só enxerga vagas com
+     * coleta nova, e os eventos de desativação são locais.
+     *
+     * <p>Uma vaga reativada entre a consulta e a remoção sai do índice e volta
+     * no próximo {@code refresh}, pela coleta nova.
+     */
+    @Scheduled(
+            initialDelayString = "${search.index.reconcile-interval:PT5M}",
+            fixedDelayString = "${search.index.reconcile-interval:PT5M}"
+    )
+    public void reconcile() {
+        List<UUID> indexed = indexedIds();
+        List<UUID> gone = new ArrayList<>();
+
+        for (int from = 0; from < indexed.size(); from += LOAD_PAGE_SIZE) {
+            List<UUID> chunk = indexed.subList(from, Math.min(from + LOAD_PAGE_SIZE, indexed.size()));
+            Set<UUID> active = new HashSet<>(repository.findActiveIdsIn(chunk));
+            chunk.stream().filter(id -> !active.contains(id)).forEach(gone::add);
+        }
+
+        if (gone.isEmpty())
+            return;
+
+        remove(gone);
+        log.info("[search-index] {} vagas inativas ou apagadas em outra instância removidas do índice", gone.size());
+    }
+
+    private List<UUID> indexedIds() {
+        lock.readLock().lock();
+        try {
+            int[] docIds = active.toArray();
+            List<UUID> ids = new ArrayList<>(docIds.length);
+            for (int docId : docIds)
+                ids.add(docs.get(docId).id());
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int load(Function<Pageable, Slice<JobEntity>> query) {
+        int loaded = 0;
+        Pageable pageable = PageRequest.of(0, LOAD_PAGE_SIZE, Sort.by("coletadoEm", "id"));
+
+        while (true) {
+            Slice<JobEntity> slice = query.apply(pageable);
+            index(slice.getContent());
+            loaded += slice.getNumberOfElements();
+
+            if (!slice.hasNext())
+                return loaded;
+
+            pageable = slice.nextPageable();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobsImported(JobsImportedEvent event) {
+        index(event.jobs());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobsTouched(JobsTouchedEvent event) {
+        touch(event.ids(), event.coletadoEm());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobsDeactivated(JobsDeactivatedEvent event) {
+        remove(event.ids());
+    }
+
+    // =========================
+    // ESCRITA
+    // =========================
+
+    public void index(Collection<JobEntity> jobs) {
+        lock.writeLock().lock();
+        try {
+            for (JobEntity job : jobs) {
+                if (job.getId() == null)
+                    continue;
+
+                // mesmo hash de conteúdo: postings e facetas continuam válidos
+                Integer docId = docIdsByJob.get(job.getId());
+                if (docId != null && job.isActive() && docs.get(docId).sameContent(job)
+                        && Objects.equals(docs.get(docId).duplicateGroup(), job.getDuplicateGroup())) {
+                    docs.set(docId, IndexedJob.from(job));
+                    raiseNewest(docId, job.getColetadoEm());
+                    electRepresentative(job.getDuplicateGroup());
+                    continue;
+                }
+
+                removeDocument(job.getId());
+
+                if (job.isActive())
+                    addDocument(IndexedJob.from(job));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Renova {@code coletadoEm} sem retokenizar; vagas fora do índice são ignoradas. */
+    public void touch(Collection<UUID> ids, OffsetDateTime coletadoEm) {
+        lock.writeLock().lock();
+        try {
+            for (UUID id : ids) {
+                Integer docId = docIdsByJob.get(id);
+                if (docId != null) {
+                    docs.set(docId, docs.get(docId).withColetadoEm(coletadoEm));
+                    raiseNewest(docId, coletadoEm);
+                    electRepresentative(docs.get(docId).duplicateGroup());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Collection<UUID> ids) {
+        lock.writeLock().lock();
+        try {
+            ids.forEach(this::removeDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addDocument(IndexedJob job) {
+        int docId;
+        if (freeDocIds.isEmpty()) {
+            docId = docs.size();
+            docs.add(job);
+        } else {
+            docId = freeDocIds.pop();
+            docs.set(docId, job);
+        }
+
+        docIdsByJob.put(job.id(), docId);
+        active.add(docId);
+        impactCache.clear();
+
+        if (job.duplicateGroup() == null) {
+            visible.add(docId);
+        } else {
+            duplicateGroups.computeIfAbsent(job.duplicateGroup(), ignored -> new ArrayList<>()).add(docId);
+            electRepresentative(job.duplicateGroup());
+        }
+
+        for (IndexField field : TEXT_FIELDS) {
+            Map<String, DocIdBitmap> fieldPostings = postings.get(field);
+            Map<String, BlockMaxima> fieldMax = maxFrequencies.get(field);
+            VocabularyGrams vocabulary = vocabularies.get(field);
+
+            List<String> tokens = TextNormalizer.tokens(job.field(field));
+            lengthSums[field.ordinal()] += tokens.size();
+            setNorm(field, docId, LengthNorm.encode(tokens.size()));
+
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String token : tokens)
+                frequencies.merge(token, 1, Integer::sum);
+
+            frequencies.forEach((token, frequency) -> {
+                DocIdBitmap bitmap = fieldPostings.get(token);
+                if (bitmap == null) {
+                    bitmap = new DocIdBitmap();
+                    fieldPostings.put(token, bitmap);
+                    vocabulary.add(token);
+                }
+
+                bitmap.add(docId);
+                fieldMax.computeIfAbsent(token, ignored -> new BlockMaxima()).update(docId >>> BLOCK_SHIFT, frequency);
+            });
+        }
+
+        addToBlock(docId, job);
+
+        facetValues(job).forEach((facet, values) -> {
+            Map<String, DocIdBitmap> facetBitmaps = facets.get(facet);
+            for (String value : values)
+                facetBitmaps.computeIfAbsent(value, ignored -> new DocIdBitmap()).add(docId);
+        });
+    }
+
+    private void removeDocument(UUID id) {
+        Integer docId = docIdsByJob.remove(id);
+        if (docId == null)
+            return;
+
+        IndexedJob job = docs.get(docId);
+
+        for (IndexField field : TEXT_FIELDS) {
+            List<String> tokens = TextNormalizer.tokens(job.field(field));
+            lengthSums[field.ordinal()] -= tokens.size();
+            setNorm(field, docId, (byte) 0);
+
+            for (String token : tokens) {
+                if (removeFrom(postings.get(field), token, docId)) {
+                    maxFrequencies.get(field).remove(token);
+                    vocabularies.get(field).remove(token);
+                }
+            }
+        }
+
+        facetValues(job).forEach((facet, values) -> {
+            for (String value : values)
+                removeFrom(facets.get(facet), value, docId);
+        });
+
+        active.remove(docId);
+        visible.remove(docId);
+        impactCache.clear();
+        removeFromBlock(docId);
+
+        List<Integer> members = job.duplicateGroup() == null ? null : duplicateGroups.get(job.duplicateGroup());
+        if (members != null) {
+            members.remove(docId);
+            if (members.isEmpty())
+                duplicateGroups.remove(job.duplicateGroup());
+            else
+                electRepresentative(job.duplicateGroup());
+        }
+
+        docs.set(docId, null);
+        freeDocIds.push(docId);
+    }
+
+    // só o membro mais recente do grupo fica em visible; no empate, o menor doc id
+    private void electRepresentative(Long group) {
+        List<Integer> members = group == null ? null : duplicateGroups.get(group);
+        if (members == null)
+            return;
+
+        int best = members.get(0);
+        for (int member : members) {
+            visible.remove(member);
+            if (isNewer(docs.get(member), docs.get(best)) || (!isNewer(docs.get(best), docs.get(member)) && member < best))
+                best = member;
+        }
+        visible.add(best);
+    }
+
+    private void addToBlock(int docId, IndexedJob job) {
+        int block = docId >>> BLOCK_SHIFT;
+        if (block >= blockSizes.length)
+            growBlocks(block + 1);
+
+        blockSizes[block]++;
+        raiseNewest(docId, job.coletadoEm());
+
+        for (IndexField field : IndexField.values()) {
+            String text = job.field(field);
+            int[] longest = blockLongest[field.ordinal()];
+            longest[block] = Math.max(longest[block], text == null ? 0 : text.length());
+        }
+
+        for (IndexField field : TEXT_FIELDS) {
+            int norm = norms[field.ordinal()][docId] & 0xff;
+            byte[] shortest = blockShortest[field.ordinal()];
+            if (norm > 0 && (shortest[block] == 0 || norm < (shortest[block] & 0xff)))
+                shortest[block] = (byte) norm;
+        }
+    }
+
+    // os limites de um bloco só são refeitos quando ele esvazia
+    private void removeFromBlock(int docId) {
+        int block = docId >>> BLOCK_SHIFT;
+        if (--blockSizes[block] > 0)
+            return;
+
+        blockNewest[block] = null;
+        for (IndexField field : IndexField.values()) {
+            blockShortest[field.ordinal()][block] = 0;
+            blockLongest[field.ordinal()][block] = 0;
+        }
+    }
+
+    private void raiseNewest(int docId, OffsetDateTime coletadoEm) {
+        int block = docId >>> BLOCK_SHIFT;
+        if (coletadoEm != null && (blockNewest[block] == null || coletadoEm.isAfter(blockNewest[block])))
+            blockNewest[block] = coletadoEm;
+    }
+
+    private void growBlocks(int minimum) {
+        int length = Math.max(minimum, blockSizes.length * 2);
+        blockSizes = Arrays.copyOf(blockSizes, length);
+        blockNewest = Arrays.copyOf(blockNewest, length);
+        for (IndexField field : IndexField.values()) {
+            blockShortest[field.ordinal()] = Arrays.copyOf(blockShortest[field.ordinal()], length);
+            blockLongest[field.ordinal()] = Arrays.copyOf(blockLongest[field.ordinal()], length);
+        }
+    }
+
+    private void setNorm(IndexField field, int docId, byte norm) {
+        byte[] fieldNorms = norms[field.ordinal()];
+        if (docId >= fieldNorms.length) {
+            fieldNorms = Arrays.copyOf(fieldNorms, Math.max(docId + 1, fieldNorms.length * 2));
+            norms[field.ordinal()] = fieldNorms;
+        }
+        fieldNorms[docId] = norm;
+    }
+
+    // true quando a chave ficou sem nenhuma vaga
+    private static boolean removeFrom(Map<String, DocIdBitmap> bitmaps, String key, int docId) {
+        DocIdBitmap bitmap = bitmaps.get(key);
+        if (bitmap == null)
+            return false;
+
+        bitmap.remove(docId);
+        if (!bitmap.isEmpty())
+            return false;
+
+        bitmaps.remove(key);
+        return true;
+    }
+
+    // =========================
+    // FACETAS
+    // =========================
+
+    static Map<SearchFacet, Set<String>> facetValues(IndexedJob job) {
+        Map<SearchFacet, Set<String>> values = new EnumMap<>(SearchFacet.class);
+
+        Set<String> stacks = new HashSet<>();
+        for (String stack : TextNormalizer.tokens(job.stacks()))
+            stacks.add(facetKey(SearchFacet.STACK, stack));
+        values.put(SearchFacet.STACK, stacks);
+
+        values.put(SearchFacet.SENIORITY, parseSeniority(job.seniority())
+                .map(level -> Set.of(level.name()))
+                .orElse(Set.of()));
+
+        values.put(SearchFacet.WORK_MODE, job.workMode() == null || job.workMode().isBlank()
+                ? Set.of()
+                : Set.of(facetKey(SearchFacet.WORK_MODE, job.workMode())));
+
+        Set<String> text = new HashSet<>(TextNormalizer.tokens(job.title()));
+        text.addAll(TextNormalizer.tokens(job.description()));
+
+        Set<String> areas = new HashSet<>();
+        AREA_KEYWORDS.forEach((area, keywords) -> {
+            for (String keyword : keywords) {
+                List<String> keywordTokens = TextNormalizer.tokens(keyword);
+                if (!keywordTokens.isEmpty() && text.containsAll(keywordTokens)) {
+                    areas.add(area.name());
+                    break;
+                }
+            }
+        });
+        values.put(SearchFacet.AREA, areas);
+
+        return values;
+    }
+
+    // stacks e modelos de trabalho em minúsculas; enums pelo nome
+    static String facetKey(SearchFacet facet, String value) {
+        String trimmed = value.trim();
+        return switch (facet) {
+            case STACK, WORK_MODE -> trimmed.toLowerCase(Locale.ROOT);
+            case SENIORITY, AREA -> trimmed.toUpperCase(Locale.ROOT);
+        };
+    }
+
+    private static Optional<Seniority> parseSeniority(String value) {
+        if (value == null || value.isBlank())
+            return Optional.empty();
+
+        try {
+            return Optional.of(Seniority.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException ignored) {
+            return Optional.empty();
+        }
+    }
+
+    // =========================
+    // CONSULTA
+    // =========================
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIdsByJob.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vagas que satisfazem o critério, com o doc id e os comprimentos
+     * quantizados de cada uma, os tetos de ocorrência dos termos do
+     * {@code matcher} e as estatísticas do BM25F, lidos sob o mesmo lock para
+     * valerem para estas vagas. Valores de um mesmo filtro são combinados com
+     * OU; filtros diferentes com E. De cada grupo de quase duplicatas vem só
+     * o representante.
+     */
+    Candidates candidates(SearchCriteria criteria, QueryTermMatcher matcher) {
+        lock.readLock().lock();
+        try {
+            DocIdBitmap matches = match(criteria);
+
+            List<Candidate> jobs = new ArrayList<>(matches.cardinality());
+            matches.forEach(docId -> jobs.add(new Candidate(docs.get(docId), docId, normsOf(docId))));
+
+            // candidatas vêm em ordem de doc id: as de um bloco ficam contíguas
+            List<Block> blocks = new ArrayList<>();
+            for (int from = 0, to; from < jobs.size(); from = to) {
+                int block = jobs.get(from).docId() >>> BLOCK_SHIFT;
+                to = from + 1;
+                while (to < jobs.size() && jobs.get(to).docId() >>> BLOCK_SHIFT == block)
+                    to++;
+                blocks.add(block(block, from, to));
+            }
+
+            TermImpacts impacts = impacts(matcher);
+            return new Candidates(jobs, blocks, impacts, stats(matcher, impacts));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Contagem de vagas por valor de faceta dentro do conjunto que satisfaz o
+     * critério: uma interseção de cardinalidade por valor, sem materializar os
+     * documentos. Quase duplicatas contam uma vez, como na busca.
+     */
+    public Map<SearchFacet, Map<String, Integer>> facetCounts(SearchCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            DocIdBitmap matches = match(criteria);
+            Map<SearchFacet, Map<String, Integer>> counts = new EnumMap<>(SearchFacet.class);
+
+            facets.forEach((facet, bitmaps) -> {
+                Map<String, Integer> facetCounts = new HashMap<>();
+                bitmaps.forEach((value, bitmap) -> {
+                    int count = DocIdBitmap.andCardinality(matches, bitmap);
+                    if (count > 0)
+                        facetCounts.put(value, count);
+                });
+                counts.put(facet, facetCounts);
+            });
+
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Chamador deve segurar o read lock. Stacks, local e texto livre casam por
+     * trecho de token, como o {@code like '%x%'} de antes e como o ranking
+     * conta ocorrências: "java" também traz vagas de "javascript". Cada token
+     * do termo precisa estar dentro de algum token do campo, sem exigir a
+     * frase contígua. Modelo de trabalho, senioridade e área seguem pelas
+     * facetas.
+     */
+    private DocIdBitmap match(SearchCriteria criteria) {
+        DocIdBitmap matches = visible;
+
+        matches = and(matches, anyFacet(SearchFacet.WORK_MODE, criteria.workModes));
+        matches = and(matches, anyFacet(SearchFacet.SENIORITY, criteria.seniorities.stream().map(Enum::name).toList()));
+        matches = and(matches, anyOf(IndexField.STACKS, criteria.stacks));
+        matches = and(matches, anyFacet(SearchFacet.AREA, criteria.areas.stream().map(Enum::name).toList()));
+        matches = and(matches, anyOf(IndexField.LOCATION, criteria.locationTerms));
+
+        for (String term : criteria.freeTextTerms)
+            matches = and(matches, freeText(term));
+
+        return matches;
+    }
+
+    private static boolean isNewer(IndexedJob job, IndexedJob other) {
+        return job.coletadoEm() != null && (other.coletadoEm() == null || job.coletadoEm().isAfter(other.coletadoEm()));
+    }
+
+    // null representa "sem restrição"
+    private static DocIdBitmap and(DocIdBitmap current, DocIdBitmap filter) {
+        if (filter == null) return current;
+        if (current == null) return filter;
+        return DocIdBitmap.and(current, filter);
+    }
+
+    private static DocIdBitmap or(DocIdBitmap current, DocIdBitmap other) {
+        if (other == null) return current;
+        if (current == null) return other;
+        return DocIdBitmap.or(current, other);
+    }
+
+    private DocIdBitmap anyFacet(SearchFacet facet, Collection<String> values) {
+        DocIdBitmap result = null;
+        Map<String, DocIdBitmap> facetBitmaps = facets.get(facet);
+
+        for (String value : values) {
+            if (value == null || value.isBlank())
+                continue;
+
+            DocIdBitmap bitmap = facetBitmaps.get(facetKey(facet, value));
+            result = or(result, bitmap == null ? new DocIdBitmap() : bitmap);
+        }
+
+        return result;
+    }
+
+    private DocIdBitmap anyOf(IndexField field, Collection<String> values) {
+        DocIdBitmap result = null;
+
+        for (String value : values)
+            result = or(result, allTokens(field, value));
+
+        return result;
+    }
+
+    // cada token do termo precisa estar dentro de algum token de algum campo de texto
+    private DocIdBitmap freeText(String term) {
+        DocIdBitmap result = null;
+
+        for (String token : TextNormalizer.tokens(term))
+            result = and(result, cachedImpacts(token).any());
+
+        return result;
+    }
+
+    private DocIdBitmap allTokens(IndexField field, String value) {
+        DocIdBitmap result = null;
+        int index = textFieldIndex(field);
+
+        for (String token : TextNormalizer.tokens(value))
+            result = and(result, cachedImpacts(token).postings()[index]);
+
+        return result;
+    }
+
+    // chamador deve segurar o read lock
+    private TermImpacts impacts(QueryTermMatcher matcher) {
+        TermImpacts impacts = new TermImpacts(matcher);
+
+        for (int term = 0; term < matcher.size(); term++) {
+            String core = TermImpacts.core(matcher.term(term));
+            if (core.isEmpty())
+                continue;
+
+            CoreImpacts cached = cachedImpacts(core);
+            for (int i = 0; i < TEXT_FIELDS.length; i++)
+                impacts.put(TEXT_FIELDS[i], term, cached.postings()[i], cached.blockMaxHits()[i]);
+            impacts.putDocumentFrequency(term, cached.documentFrequency());
+        }
+
+        return impacts;
+    }
+
+    // chamador deve segurar o read lock; duas buscas podem calcular o mesmo núcleo ao mesmo tempo, com o mesmo resultado
+    private CoreImpacts cachedImpacts(String core) {
+        CoreImpacts cached = impactCache.get(core);
+        if (cached == null) {
+            cached = coreImpacts(core);
+            impactCache.put(core, cached);
+        }
+        return cached;
+    }
+
+    // chamador deve segurar o read lock
+    private CoreImpacts coreImpacts(String core) {
+        DocIdBitmap[] fieldPostings = new DocIdBitmap[TEXT_FIELDS.length];
+        int[][] blockMaxHits = new int[TEXT_FIELDS.length][blockSizes.length];
+        DocIdBitmap any = new DocIdBitmap();
+
+        for (int i = 0; i < TEXT_FIELDS.length; i++) {
+            Map<String, DocIdBitmap> tokenPostings = postings.get(TEXT_FIELDS[i]);
+            Map<String, BlockMaxima> fieldMax = maxFrequencies.get(TEXT_FIELDS[i]);
+            List<DocIdBitmap> containing = new ArrayList<>();
+            int[] blockMax = blockMaxHits[i];
+
+            for (String token : vocabularies.get(TEXT_FIELDS[i]).containing(core)) {
+                containing.add(tokenPostings.get(token));
+
+                BlockMaxima maxima = fieldMax.get(token);
+                int occurrences = TermImpacts.occurrences(token, core);
+                for (int k = 0; k < maxima.size(); k++) {
+                    int block = maxima.block(k);
+                    blockMax[block] = (int) Math.min((long) blockMax[block] + (long) maxima.max(k) * occurrences,
+                            Integer.MAX_VALUE);
+                }
+            }
+
+            fieldPostings[i] = union(containing);
+            any = DocIdBitmap.or(any, fieldPostings[i]);
+        }
+
+        return new CoreImpacts(fieldPostings, blockMaxHits, any, any.cardinality());
+    }
+
+    // chamador deve segurar o read lock
+    private CorpusStats stats(QueryTermMatcher matcher, TermImpacts impacts) {
+        int documents = docIdsByJob.size();
+
+        double[] averageLength = new double[IndexField.values().length];
+        if (documents > 0)
+            for (IndexField field : TEXT_FIELDS)
+                averageLength[field.ordinal()] = (double) lengthSums[field.ordinal()] / documents;
+
+        int[] documentFrequency = new int[matcher.size()];
+        for (int term = 0; term < matcher.size(); term++)
+            documentFrequency[term] = impacts.documentFrequency(term, documents);
+
+        return new CorpusStats(documents, averageLength, documentFrequency);
+    }
+
+    // um byte por campo de texto, na posição do ordinal
+    private long normsOf(int docId) {
+        long packed = 0;
+        for (IndexField field : TEXT_FIELDS)
+            packed |= (norms[field.ordinal()][docId] & 0xffL) << (Byte.SIZE * field.ordinal());
+        return packed;
+    }
+
+    // chamador deve segurar o read lock; copia os limites, que mudam com as escritas
+    private Block block(int block, int from, int to) {
+        long shortest = 0;
+        for (IndexField field : TEXT_FIELDS)
+            shortest |= (blockShortest[field.ordinal()][block] & 0xffL) << (Byte.SIZE * field.ordinal());
+
+        int[] longest = new int[IndexField.values().length];
+        for (IndexField field : IndexField.values())
+            longest[field.ordinal()] = blockLongest[field.ordinal()][block];
+
+        return new Block(block, from, to, shortest, blockNewest[block], longest);
+    }
+
+    static int length(long norms, IndexField field) {
+        return LengthNorm.decode((byte) (norms >>> (Byte.SIZE * field.ordinal())));
+    }
+
+    // une aos pares, para não recopiar o acumulado a cada bitmap
+    private static DocIdBitmap union(List<DocIdBitmap> bitmaps) {
+        if (bitmaps.isEmpty())
+            return new DocIdBitmap();
+
+        List<DocIdBitmap> level = bitmaps;
+        while (level.size() > 1) {
+            List<DocIdBitmap> next = new ArrayList<>((level.size() + 1) / 2);
+            for (int i = 0; i < level.size(); i += 2)
+                next.add(i + 1 < level.size() ? DocIdBitmap.or(level.get(i), level.get(i + 1)) : level.get(i));
+            level = next;
+        }
+
+        // um único bitmap ainda é o do índice: copia, porque o índice segue mudando
+        return level.get(0) == bitmaps.get(0) ? level.get(0).copy() : level.get(0);
+    }
+
+    private static int textFieldIndex(IndexField field) {
+        for (int i = 0; i < TEXT_FIELDS.length; i++)
+            if (TEXT_FIELDS[i] == field)
+                return i;
+        throw new IllegalArgumentException("campo sem postings: " + field);
+    }
+
+    record Candidate(IndexedJob job, int docId, long norms) {
+
+        /** Comprimento quantizado do campo em tokens; 0 nos campos sem postings. */
+        int length(IndexField field) {
+            return JobSearchIndex.length(norms, field);
+        }
+    }
+
+    /**
+     * Candidatas de um bloco de doc ids (posições {@code from} até {@code to},
+     * exclusivo, em {@link Candidates#jobs}) e os limites do bloco inteiro:
+     * menor comprimento não vazio por campo de texto (quantizado como em
+     * {@link Candidate#norms}), coleta mais nova ({@code null} se nenhuma
+     * vaga tem data) e maior texto, em caracteres, por campo.
+     */
+    record Block(int id, int from, int to, long norms, OffsetDateTime newest, int[] longest) {
+
+        int longest(IndexField field) {
+            return longest[field.ordinal()];
+        }
+
+        int size() {
+            return to - from;
+        }
+    }
+
+    record Candidates(List<Candidate> jobs, List<Block> blocks, TermImpacts impacts, CorpusStats stats) {
+    }
+
+    /**
+     * Impactos de um núcleo de termo nos campos de texto, na ordem de
+     * {@link #TEXT_FIELDS}: postings e teto de ocorrências por bloco, e a
+     * união dos campos ({@code any}). Tudo é cópia: nunca muda depois de
+     * calculado e pode ser lido fora do lock.
+     */
+    private record CoreImpacts(DocIdBitmap[] postings, int[][] blockMaxHits, DocIdBitmap any, int documentFrequency) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.hermes.jobs.search;
+
+import com.hermes.jobs.job.JobEntity;
+
+/**
+ * Forma normalizada dos textos de uma vaga, calculada uma vez na ingestão e
+ * gravada nas colunas {@code normalized*} para que índice e ranking não
+ * precisem normalizar de novo a cada busca.
+ */
+public final class JobSearchText {
+
+    private JobSearchText() {
+    }
+
+    /**
+     * Normaliza todos os campos; a descrição vem de quem acabou de gravá-la,
+     * para não descomprimir a coluna logo depois de comprimi-la.
+     */
+    public static void apply(JobEntity job, String description) {
+        applyHeadline(job);
+        job.setNormalizedDescription(TextNormalizer.normalize(description));
+    }
+
+    /** Só título, empresa e local; a descrição normalizada fica como está. */
+    public static void applyHeadline(JobEntity job) {
+        job.setNormalizedTitle(TextNormalizer.normalize(job.getTitle()));
+        job.setNormalizedCompany(TextNormalizer.normalize(job.getEmpresa()));
+        job.setNormalizedLocation(TextNormalizer.normalize(job.getLocation()));
+    }
+}
@@ -0,0 +1,39 @@
+package com.hermes.jobs.search;
+
+import java.util.Arrays;
+
+/**
+ * Comprimento de campo (em tokens) quantizado em um byte: exato até
+ * {@value #EXACT}, depois em degraus de cerca de 4% até ~180 mil tokens. O
+ * arredondamento é para baixo, então {@link #decode} nunca passa do
+ * comprimento real.
+ */
+final class LengthNorm {
+
+    static final int EXACT = 40;
+
+    private static final double STEP = 1.04;
+    private static final int[] DECODED = new int[256];
+
+    static {
+        for (int i = 0; i <= EXACT; i++)
+            DECODED[i] = i;
+        for (int i = EXACT + 1; i < DECODED.length; i++)
+            DECODED[i] = Math.max(DECODED[i - 1] + 1, (int) Math.round(DECODED[i - 1] * STEP));
+    }
+
+    private LengthNorm() {
+    }
+
+    static byte encode(int length) {
+        if (length <= 0)
+            return 0;
+
+        int index = Arrays.binarySearch(DECODED, length);
+        return (byte) (index >= 0 ? index : -index - 2);
+    }
+
+    static int decode(byte norm) {
+        return DECODED[norm & 0xff];
+    }
+}
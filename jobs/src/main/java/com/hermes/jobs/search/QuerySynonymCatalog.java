@@ -1,61 +1,165 @@
 package com.hermes.jobs.search;
 
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 
+/**
+ * Sinônimos do parser: defaults + {@code search.synonyms.*} do application.yml
+ * + arquivo opcional {@code search.synonyms.file} (formato .properties com as
+ * mesmas chaves), que pode ser recarregado em runtime por {@link #reload()}.
+ *
+ * <p>O parser lê só o {@link SynonymSnapshot} compilado; alterações trocam o
+ * snapshot inteiro de uma vez.
+ */
+@Slf4j
 @Getter
 @Component
 @ConfigurationProperties(prefix = "search.synonyms")
 public class QuerySynonymCatalog {
 
+    private static final String PREFIX = "search.synonyms";
+
     private Map<String, String> seniority = new LinkedHashMap<>();
     private Map<String, String> area = new LinkedHashMap<>();
     private Set<String> stacks = new LinkedHashSet<>();
     private Set<String> locations = new LinkedHashSet<>();
+    private String file;
+
+    @Getter(AccessLevel.NONE)
+    private QuerySynonymCatalog fromFile;
+
+    @Getter(AccessLevel.NONE)
+    private volatile SynonymSnapshot snapshot;
 
     public void setSeniority(Map<String, String> seniority) {
         this.seniority = seniority;
+        this.snapshot = null;
     }
 
     public void setArea(Map<String, String> area) {
         this.area = area;
+        this.snapshot = null;
     }
 
     public void setStacks(Set<String> stacks) {
         this.stacks = stacks;
+        this.snapshot = null;
     }
 
     public void setLocations(Set<String> locations) {
         this.locations = locations;
+        this.snapshot = null;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+        this.fromFile = null;
+        this.snapshot = null;
+    }
+
+    // =========================
+    // SNAPSHOT
+    // =========================
+
+    public SynonymSnapshot snapshot() {
+        SynonymSnapshot current = snapshot;
+        if (current != null)
+            return current;
+
+        synchronized (this) {
+            if (snapshot == null)
+                snapshot = compile();
+            return snapshot;
+        }
+    }
+
+    /**
+     * Relê o arquivo de sinônimos e troca o snapshot. Se o arquivo for
+     * inválido, o snapshot atual continua em uso.
+     */
+    public synchronized SynonymSnapshot reload() {
+        QuerySynonymCatalog previous = fromFile;
+        fromFile = loadFile();
+
+        try {
+            snapshot = compile();
+        } catch (RuntimeException e) {
+            fromFile = previous;
+            throw e;
+        }
+
+        log.info("[synonyms] snapshot recarregado: {} tokens (arquivo={})", snapshot.size(), file);
+        return snapshot;
     }
 
     public Map<String, Seniority> seniorityMap() {
-        Map<String, Seniority> map = new LinkedHashMap<>();
-        defaultSeniority().forEach((k, v) -> map.put(k, Seniority.valueOf(v)));
-        seniority.forEach((k, v) -> map.put(normalizeKey(k), Seniority.valueOf(v.toUpperCase(Locale.ROOT))));
-        return map;
+        return snapshot().seniorities();
     }
 
     public Map<String, Area> areaMap() {
-        Map<String, Area> map = new LinkedHashMap<>();
-        defaultArea().forEach((k, v) -> map.put(k, Area.valueOf(v)));
-        area.forEach((k, v) -> map.put(normalizeKey(k), Area.valueOf(v.toUpperCase(Locale.ROOT))));
-        return map;
+        return snapshot().areas();
     }
 
     public Set<String> stacksSet() {
-        Set<String> result = new LinkedHashSet<>(defaultStacks());
-        stacks.stream().map(this::normalizeKey).forEach(result::add);
-        return result;
+        return snapshot().stacks();
     }
 
     public Set<String> locationTermsSet() {
-        Set<String> result = new LinkedHashSet<>(defaultLocations());
-        locations.stream().map(this::normalizeKey).forEach(result::add);
-        return result;
+        return snapshot().locations();
+    }
+
+    private SynonymSnapshot compile() {
+        if (fromFile == null && file != null && !file.isBlank()) {
+            try {
+                fromFile = loadFile();
+            } catch (RuntimeException e) {
+                log.warn("[synonyms] arquivo de sinônimos ignorado: {}", e.getMessage());
+            }
+        }
+
+        List<QuerySynonymCatalog> layers = fromFile == null ? List.of(this) : List.of(this, fromFile);
+
+        Map<String, Seniority> seniorities = new LinkedHashMap<>();
+        Map<String, Area> areas = new LinkedHashMap<>();
+        Set<String> stackSet = new LinkedHashSet<>(defaultStacks());
+        Set<String> locationSet = new LinkedHashSet<>(defaultLocations());
+
+        defaultSeniority().forEach((k, v) -> seniorities.put(k, Seniority.valueOf(v)));
+        defaultArea().forEach((k, v) -> areas.put(k, Area.valueOf(v)));
+
+        for (QuerySynonymCatalog layer : layers) {
+            layer.seniority.forEach((k, v) -> seniorities.put(normalizeKey(k), Seniority.valueOf(v.toUpperCase(Locale.ROOT))));
+            layer.area.forEach((k, v) -> areas.put(normalizeKey(k), Area.valueOf(v.toUpperCase(Locale.ROOT))));
+            layer.stacks.stream().map(this::normalizeKey).forEach(stackSet::add);
+            layer.locations.stream().map(this::normalizeKey).forEach(locationSet::add);
+        }
+
+        return SynonymSnapshot.compile(seniorities, areas, stackSet, locationSet);
+    }
+
+    private QuerySynonymCatalog loadFile() {
+        if (file == null || file.isBlank())
+            return null;
+
+        try {
+            Properties properties = PropertiesLoaderUtils.loadProperties(new FileSystemResource(file));
+            return new Binder(new MapConfigurationPropertySource(properties))
+                    .bind(PREFIX, QuerySynonymCatalog.class)
+                    .orElseGet(QuerySynonymCatalog::new);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler arquivo de sinônimos: " + file, e);
+        }
     }
 
     private String normalizeKey(String value) {
@@ -0,0 +1,207 @@
+package com.hermes.jobs.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Autômato Aho-Corasick com os termos de uma consulta, compilado uma vez por
+ * busca. {@link #count(String)} percorre o campo uma única vez e devolve as
+ * ocorrências de todos os termos, com a mesma semântica de
+ * {@code indexOf} em laço (ocorrências sem sobreposição, da esquerda para a
+ * direita).
+ *
+ * <p>{@link #next(int, char)} e {@link #matchesAt(int)} expõem o autômato
+ * caractere a caractere para quem precisa reagir a cada termo no meio do texto
+ * (ex.: {@link TextSanitizer}).
+ */
+final class QueryTermMatcher {
+
+    private static final int[] NO_HITS = new int[0];
+
+    private final Map<String, Integer> ids;
+    private final String[] terms;
+    private final int[] lengths;
+    private final int[] asciiClass;
+    private final Map<Character, Integer> otherClass;
+    private final int width;
+    private final int[] transitions;
+    private final int[][] outputs;
+
+    private QueryTermMatcher(Map<String, Integer> ids, int[] lengths, int[] asciiClass,
+                             Map<Character, Integer> otherClass, int width, int[] transitions, int[][] outputs) {
+        this.ids = ids;
+        this.terms = ids.keySet().toArray(String[]::new);
+        this.lengths = lengths;
+        this.asciiClass = asciiClass;
+        this.otherClass = otherClass;
+        this.width = width;
+        this.transitions = transitions;
+        this.outputs = outputs;
+    }
+
+    static QueryTermMatcher compile(Collection<String> terms) {
+        Map<String, Integer> ids = new LinkedHashMap<>();
+        for (String term : terms) {
+            if (term == null || term.isBlank())
+                continue;
+            ids.putIfAbsent(term.toLowerCase(Locale.ROOT), ids.size());
+        }
+
+        // alfabeto: só os caracteres que aparecem nos termos; o resto é a classe 0
+        int[] asciiClass = new int[128];
+        Map<Character, Integer> otherClass = new HashMap<>();
+        int width = 1;
+        for (String term : ids.keySet()) {
+            for (int i = 0; i < term.length(); i++) {
+                char c = term.charAt(i);
+                if (c < 128) {
+                    if (asciiClass[c] == 0)
+                        asciiClass[c] = width++;
+                } else if (!otherClass.containsKey(c)) {
+                    otherClass.put(c, width++);
+                }
+            }
+        }
+
+        // trie
+        List<int[]> gotos = new ArrayList<>();
+        List<List<Integer>> terminal = new ArrayList<>();
+        gotos.add(newRow(width));
+        terminal.add(new ArrayList<>());
+
+        int[] lengths = new int[ids.size()];
+        for (var entry : ids.entrySet()) {
+            String term = entry.getKey();
+            lengths[entry.getValue()] = term.length();
+
+            int state = 0;
+            for (int i = 0; i < term.length(); i++) {
+                int cls = classOf(term.charAt(i), asciiClass, otherClass);
+                if (gotos.get(state)[cls] < 0) {
+                    gotos.get(state)[cls] = gotos.size();
+                    gotos.add(newRow(width));
+                    terminal.add(new ArrayList<>());
+                }
+                state = gotos.get(state)[cls];
+            }
+            terminal.get(state).add(entry.getValue());
+        }
+
+        // links de falha em BFS, completando a tabela de transições (DFA)
+        int states = gotos.size();
+        int[] transitions = new int[states * width];
+        int[] fail = new int[states];
+        int[][] outputs = new int[states][];
+        outputs[0] = terminal.get(0).stream().mapToInt(Integer::intValue).toArray();
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int cls = 0; cls < width; cls++) {
+            int next = gotos.get(0)[cls];
+            if (next < 0) {
+                transitions[cls] = 0;
+            } else {
+                transitions[cls] = next;
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+
+            int[] own = terminal.get(state).stream().mapToInt(Integer::intValue).toArray();
+            int[] inherited = outputs[fail[state]];
+            int[] merged = Arrays.copyOf(own, own.length + inherited.length);
+            System.arraycopy(inherited, 0, merged, own.length, inherited.length);
+            outputs[state] = merged;
+
+            for (int cls = 0; cls < width; cls++) {
+                int next = gotos.get(state)[cls];
+                if (next < 0) {
+                    transitions[state * width + cls] = transitions[fail[state] * width + cls];
+                } else {
+                    transitions[state * width + cls] = next;
+                    fail[next] = transitions[fail[state] * width + cls];
+                    queue.add(next);
+                }
+            }
+        }
+
+        return new QueryTermMatcher(ids, lengths, asciiClass, otherClass, width, transitions, outputs);
+    }
+
+    /** Id do termo em {@link #count(String)}, ou -1 se o termo foi descartado (vazio). */
+    int idOf(String term) {
+        if (term == null)
+            return -1;
+        return ids.getOrDefault(term.toLowerCase(Locale.ROOT), -1);
+    }
+
+    int size() {
+        return lengths.length;
+    }
+
+    int length(int id) {
+        return lengths[id];
+    }
+
+    /** Termo em minúsculas com o id dado. */
+    String term(int id) {
+        return terms[id];
+    }
+
+    /** Estado após consumir {@code c}; o estado inicial é 0. */
+    int next(int state, char c) {
+        return transitions[state * width + classOf(c, asciiClass, otherClass)];
+    }
+
+    /** Ids dos termos que terminam no estado (do mais longo para o mais curto). */
+    int[] matchesAt(int state) {
+        return outputs[state];
+    }
+
+    /** Ocorrências de cada termo no texto, indexadas pelo id do termo. */
+    int[] count(String text) {
+        if (lengths.length == 0)
+            return NO_HITS;
+
+        int[] hits = new int[lengths.length];
+        if (text == null || text.isBlank())
+            return hits;
+
+        // próxima posição inicial permitida por termo: evita contar sobreposições
+        int[] nextStart = new int[lengths.length];
+        int state = 0;
+
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = transitions[state * width + classOf(text.charAt(i), asciiClass, otherClass)];
+
+            for (int id : outputs[state]) {
+                int start = i - lengths[id] + 1;
+                if (start >= nextStart[id]) {
+                    hits[id]++;
+                    nextStart[id] = i + 1;
+                }
+            }
+        }
+
+        return hits;
+    }
+
+    private static int classOf(char c, int[] asciiClass, Map<Character, Integer> otherClass) {
+        return c < 128 ? asciiClass[c] : otherClass.getOrDefault(c, 0);
+    }
+
+    private static int[] newRow(int width) {
+        int[] row = new int[width];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
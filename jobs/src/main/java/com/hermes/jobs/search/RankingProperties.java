@@ -18,4 +18,8 @@ public class RankingProperties {
     private double weightStackHits = 1.2;
     private double weightSeniorityMatch = 1.0;
     private double weightFreshnessDays = 0.2;
+
+    // BM25F da pontuação textual: saturação das ocorrências e peso do comprimento do campo
+    private double bm25K1 = 1.2;
+    private double bm25B = 0.75;
 }
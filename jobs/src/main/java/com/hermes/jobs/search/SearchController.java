@@ -1,11 +1,13 @@
 package com.hermes.jobs.search;
 
+import com.hermes.jobs.job.JobEntity;
 import com.hermes.jobs.job.dto.JobResponse;
 import com.hermes.jobs.job.mapper.JobMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.LinkedHashSet;
@@ -13,29 +15,96 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping({"/api/search", "/api/v1/search"})
 @RequiredArgsConstructor
 public class SearchController {
 
+    static final String SCROLL_HEADER = "X-Scroll-Id";
+    static final String NEW_SCROLL = "new";
+
     private final SearchService service;
     private final QuerySynonymCatalog synonymCatalog;
 
     @PostMapping
-    public Page<JobResponse> search(@RequestBody @Valid SearchRequest request, Pageable pageable) {
-        return service.search(request.query(), pageable)
-                .map(JobMapper::toResponse);
+    public ResponseEntity<Page<JobResponse>> search(
+            @RequestBody @Valid SearchRequest request,
+            @RequestParam(name = "scroll", required = false) String scroll,
+            Pageable pageable
+    ) {
+        return paged(scroll, pageable, () -> QueryParser.parse(request.query(), synonymCatalog));
     }
 
     @GetMapping
-    public Page<JobResponse> searchByQueryParam(@RequestParam("q") String query, Pageable pageable) {
-        return service.search(query, pageable)
-                .map(JobMapper::toResponse);
+    public ResponseEntity<Page<JobResponse>> searchByQueryParam(
+            @RequestParam("q") String query,
+            @RequestParam(name = "scroll", required = false) String scroll,
+            Pageable pageable
+    ) {
+        return paged(scroll, pageable, () -> QueryParser.parse(query, synonymCatalog));
     }
 
     @PostMapping("/filters")
-    public Page<JobResponse> searchWithFilters(@RequestBody StructuredSearchRequest request, Pageable pageable) {
+    public ResponseEntity<Page<JobResponse>> searchWithFilters(
+            @RequestBody StructuredSearchRequest request,
+            @RequestParam(name = "scroll", required = false) String scroll,
+            Pageable pageable
+    ) {
+        return paged(scroll, pageable, () -> toCriteria(request));
+    }
+
+    @GetMapping("/options")
+    public SearchOptionsResponse options() {
+        return new SearchOptionsResponse(
+                List.of(Seniority.values()),
+                List.of(Area.values()),
+                List.of("remote", "hybrid", "onsite"),
+                synonymCatalog.stacksSet().stream().sorted().toList(),
+                List.of("spring", "react", "angular", "vue", "django", "flask", "laravel", "dotnet", "nodejs")
+        );
+    }
+
+    // com q e filtros juntos, os filtros entram como se estivessem no texto da consulta
+    @GetMapping("/facets")
+    public SearchFacetsResponse facets(
+            @RequestParam(name = "q", required = false) String query,
+            @ModelAttribute StructuredSearchRequest filters
+    ) {
+        SearchCriteria criteria = toCriteria(filters);
+        if (query != null && !query.isBlank())
+            criteria = merge(QueryParser.parse(query, synonymCatalog), criteria);
+
+        return service.facets(criteria);
+    }
+
+    /**
+     * Sem {@code scroll}: busca comum. {@code scroll=new} abre um contexto e
+     * devolve o id em {@value #SCROLL_HEADER}; com um id, a página sai do
+     * contexto e, se ele expirou, um novo é aberto e o header traz o id novo.
+     */
+    private ResponseEntity<Page<JobResponse>> paged(String scroll, Pageable pageable, Supplier<SearchCriteria> criteria) {
+        if (scroll == null || scroll.isBlank())
+            return ResponseEntity.ok(service.search(criteria.get(), pageable).map(JobMapper::toResponse));
+
+        if (!NEW_SCROLL.equals(scroll)) {
+            Optional<Page<JobEntity>> page = service.scroll(scroll, pageable);
+            if (page.isPresent())
+                return ResponseEntity.ok()
+                        .header(SCROLL_HEADER, scroll)
+                        .body(page.get().map(JobMapper::toResponse));
+        }
+
+        SearchService.ScrollPage opened = service.openScroll(criteria.get(), pageable);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (opened.scrollId() != null)
+            response.header(SCROLL_HEADER, opened.scrollId());
+
+        return response.body(opened.page().map(JobMapper::toResponse));
+    }
+
+    private SearchCriteria toCriteria(StructuredSearchRequest request) {
         SearchCriteria criteria = new SearchCriteria();
 
         normalizeSet(request.stacks()).forEach(criteria.stacks::add);
@@ -60,19 +129,22 @@ public class SearchController {
             criteria.locationTerms.add(request.location().toLowerCase(Locale.ROOT).trim());
 
         criteria.rawText = buildRawText(request);
-
-        return service.search(criteria, pageable).map(JobMapper::toResponse);
+        return criteria;
     }
 
-    @GetMapping("/options")
-    public SearchOptionsResponse options() {
-        return new SearchOptionsResponse(
-                List.of(Seniority.values()),
-                List.of(Area.values()),
-                List.of("remote", "hybrid", "onsite"),
-                synonymCatalog.stacksSet().stream().sorted().toList(),
-                List.of("spring", "react", "angular", "vue", "django", "flask", "laravel", "dotnet", "nodejs")
-        );
+    private static SearchCriteria merge(SearchCriteria parsed, SearchCriteria filters) {
+        parsed.stacks.addAll(filters.stacks);
+        parsed.workModes.addAll(filters.workModes);
+        parsed.seniorities.addAll(filters.seniorities);
+        parsed.areas.addAll(filters.areas);
+        parsed.locationTerms.addAll(filters.locationTerms);
+        parsed.freeTextTerms.addAll(filters.freeTextTerms);
+
+        if (!filters.rawText.isBlank())
+            parsed.rawText = parsed.rawText == null || parsed.rawText.isBlank()
+                    ? filters.rawText
+                    : parsed.rawText + " " + filters.rawText;
+        return parsed;
     }
 
     private Set<String> normalizeSet(Set<String> values) {
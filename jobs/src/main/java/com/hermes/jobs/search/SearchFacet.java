@@ -0,0 +1,8 @@
+package com.hermes.jobs.search;
+
+public enum SearchFacet {
+    STACK,
+    SENIORITY,
+    WORK_MODE,
+    AREA
+}
@@ -0,0 +1,11 @@
+package com.hermes.jobs.search;
+
+import java.util.Map;
+
+public record SearchFacetsResponse(
+        Map<String, Integer> stacks,
+        Map<String, Integer> seniorities,
+        Map<String, Integer> workModes,
+        Map<String, Integer> areas
+) {
+}
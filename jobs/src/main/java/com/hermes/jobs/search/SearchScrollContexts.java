@@ -0,0 +1,151 @@
+package com.hermes.jobs.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Contextos de scroll da busca: o ranking da primeira página guardado como
+ * pares de {@code long} (os dois halves de cada UUID), para as páginas
+ * seguintes só hidratarem os ids pedidos, na mesma ordem, mesmo com imports
+ * chegando no meio.
+ *
+ * <p>O mapa é LRU por acesso e cada leitura renova o TTL, então o contexto
+ * mais antigo do mapa é também o primeiro a expirar. Contextos expirados saem
+ * a cada abertura ou leitura; acima de {@code max-bytes} sai o menos usado.
+ */
+@Component
+public final class SearchScrollContexts {
+
+    // cabeçalho do array, entrada do mapa, chave e o próprio contexto
+    private static final long CONTEXT_OVERHEAD_BYTES = 160;
+
+    private final SearchScrollProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final LinkedHashMap<String, Context> contexts = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    public SearchScrollContexts(SearchScrollProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("hermes_search_scroll_contexts", this, SearchScrollContexts::size)
+                .register(meterRegistry);
+        Gauge.builder("hermes_search_scroll_bytes", this, SearchScrollContexts::bytes)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Guarda o ranking e devolve o id do contexto.
+     *
+     * @param complete se {@code ids} tem todas as vagas que pontuaram, e não só as primeiras
+     */
+    public synchronized String open(List<UUID> ids, long total, boolean complete) {
+        expire();
+
+        long[] packed = new long[ids.size() * 2];
+        for (int i = 0; i < ids.size(); i++) {
+            packed[2 * i] = ids.get(i).getMostSignificantBits();
+            packed[2 * i + 1] = ids.get(i).getLeastSignificantBits();
+        }
+
+        String id = UUID.randomUUID().toString();
+        Context context = new Context(packed, total, complete);
+        context.expiresAt = System.nanoTime() + properties.getTtl().toNanos();
+
+        contexts.put(id, context);
+        bytes += context.bytes();
+        evictOverBudget();
+
+        return id;
+    }
+
+    /** Contexto vivo com o id, renovando o TTL. */
+    public synchronized Optional<Context> get(String id) {
+        expire();
+
+        Context context = id == null ? null : contexts.get(id);
+        if (context != null)
+            context.expiresAt = System.nanoTime() + properties.getTtl().toNanos();
+
+        return Optional.ofNullable(context);
+    }
+
+    public synchronized int size() {
+        return contexts.size();
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    // do menos para o mais recentemente usado: para no primeiro ainda vivo
+    private void expire() {
+        long now = System.nanoTime();
+        Iterator<Context> iterator = contexts.values().iterator();
+
+        while (iterator.hasNext()) {
+            Context context = iterator.next();
+            if (now - context.expiresAt < 0)
+                return;
+
+            iterator.remove();
+            bytes -= context.bytes();
+            meterRegistry.counter("hermes_search_scroll_evicted_total", "reason", "expired").increment();
+        }
+    }
+
+    // o contexto recém-aberto fica mesmo sozinho acima do orçamento
+    private void evictOverBudget() {
+        Iterator<Context> iterator = contexts.values().iterator();
+
+        while (bytes > properties.getMaxBytes() && contexts.size() > 1) {
+            Context context = iterator.next();
+            iterator.remove();
+            bytes -= context.bytes();
+            meterRegistry.counter("hermes_search_scroll_evicted_total", "reason", "memory").increment();
+        }
+    }
+
+    public static final class Context {
+
+        private final long[] ids;
+        private final long total;
+        private final boolean complete;
+        private long expiresAt;
+
+        private Context(long[] ids, long total, boolean complete) {
+            this.ids = ids;
+            this.total = total;
+            this.complete = complete;
+        }
+
+        public int size() {
+            return ids.length / 2;
+        }
+
+        public long total() {
+            return total;
+        }
+
+        /** Se o contexto responde até a posição {@code to}: dentro dos ids ou com o ranking completo. */
+        public boolean covers(long to) {
+            return to <= size() || complete;
+        }
+
+        public List<UUID> ids(int from, int to) {
+            int end = Math.min(to, size());
+            List<UUID> page = new ArrayList<>(Math.max(0, end - from));
+            for (int i = from; i < end; i++)
+                page.add(new UUID(ids[2 * i], ids[2 * i + 1]));
+            return page;
+        }
+
+        long bytes() {
+            return (long) ids.length * Long.BYTES + CONTEXT_OVERHEAD_BYTES;
+        }
+    }
+}
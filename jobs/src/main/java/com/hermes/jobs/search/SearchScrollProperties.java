@@ -0,0 +1,24 @@
+package com.hermes.jobs.search;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "search.scroll")
+public class SearchScrollProperties {
+
+    // renovado a cada página lida; contexto parado além disso é descartado
+    private Duration ttl = Duration.ofMinutes(2);
+
+    // ids ranqueados guardados por contexto; páginas além disso refazem a busca
+    private int maxIds = 1000;
+
+    // memória somada dos contextos vivos; acima disso sai o menos usado
+    private long maxBytes = 16L * 1024 * 1024;
+}
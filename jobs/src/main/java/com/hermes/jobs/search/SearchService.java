@@ -7,23 +7,35 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 
-import java.text.Normalizer;
 import java.time.OffsetDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SearchService {
 
-    private static final int CANDIDATE_LIMIT = 500;
-    private static final Pattern MULTI_SPACE = Pattern.compile("\\s+");
+    // peso de cada campo por grupo de termos da consulta; o primeiro é o maior
+    private static final TermGroup STACK_TERMS = new TermGroup(
+            new IndexField[]{IndexField.TITLE, IndexField.STACKS, IndexField.DESCRIPTION}, new double[]{16, 12, 8});
+    private static final TermGroup AREA_TERMS = new TermGroup(
+            new IndexField[]{IndexField.TITLE, IndexField.DESCRIPTION}, new double[]{10, 6});
+    private static final TermGroup SENIORITY_TERMS = new TermGroup(
+            new IndexField[]{IndexField.SENIORITY, IndexField.TITLE, IndexField.DESCRIPTION}, new double[]{12, 8, 4});
+    private static final TermGroup WORK_MODE_TERMS = new TermGroup(
+            new IndexField[]{IndexField.WORK_MODE, IndexField.TITLE, IndexField.DESCRIPTION}, new double[]{8, 4, 1});
+    private static final TermGroup LOCATION_TERMS = new TermGroup(
+            new IndexField[]{IndexField.LOCATION, IndexField.DESCRIPTION, IndexField.TITLE}, new double[]{8, 4, 1});
+    private static final TermGroup FREE_TEXT_TERMS = new TermGroup(
+            new IndexField[]{IndexField.TITLE, IndexField.DESCRIPTION, IndexField.COMPANY}, new double[]{8, 3, 4});
 
     private final JobRepository repository;
+    private final JobSearchIndex searchIndex;
     private final QuerySynonymCatalog synonymCatalog;
     private final RankingProperties rankingProperties;
+    private final SearchScrollContexts scrollContexts;
+    private final SearchScrollProperties scrollProperties;
 
     public Page<JobEntity> search(String query, Pageable pageable) {
         SearchCriteria criteria = QueryParser.parse(query, synonymCatalog);
@@ -32,76 +44,272 @@ public class SearchService {
 
     public Page<JobEntity> search(SearchCriteria criteria, Pageable pageable) {
 
-        if (criteria == null || criteria.rawText == null || criteria.rawText.isBlank()) {
+        if (isBlank(criteria)) {
             return repository.findByActiveTrue(pageable);
         }
 
-        Pageable candidatePage = PageRequest.of(0, CANDIDATE_LIMIT, Sort.by(Sort.Direction.DESC, "coletadoEm"));
-
-        List<JobEntity> ranked = repository.findAll(JobSearchSpecifications.from(criteria), candidatePage)
-                .stream()
-                .map(job -> {
-                    int heuristicScore = score(job, criteria);
-                    RankingFeatures f = buildFeatures(job, criteria, heuristicScore);
-                    double rerankScore = rerank(f);
-                    maybeLogFeatures(job, f, rerankScore);
-                    return new ScoredJob(job, rerankScore);
-                })
-                .filter(scored -> scored.score() > 0)
-                .sorted((a, b) -> Double.compare(b.score(), a.score()))
-                .map(ScoredJob::job)
-                .toList();
+        RankedIds ranked = rankedIds(criteria, pageable.getOffset() + pageable.getPageSize());
+        return page(ranked, pageable);
+    }
 
-        int start = Math.toIntExact(pageable.getOffset());
-        int end = Math.min(start + pageable.getPageSize(), ranked.size());
+    /**
+     * Primeira página de um scroll: ranqueia até {@code search.scroll.max-ids}
+     * vagas (ou até a página pedida, se for mais funda) e guarda os ids em um
+     * contexto cujo id volta com a página. Sem texto de busca não há contexto:
+     * a listagem do banco já é estável.
+     */
+    public ScrollPage openScroll(SearchCriteria criteria, Pageable pageable) {
 
-        if (start >= ranked.size()) {
-            return new PageImpl<>(List.of(), pageable, ranked.size());
+        if (isBlank(criteria)) {
+            return new ScrollPage(null, repository.findByActiveTrue(pageable));
         }
 
-        return new PageImpl<>(ranked.subList(start, end), pageable, ranked.size());
+        long depth = Math.max(scrollProperties.getMaxIds(), pageable.getOffset() + pageable.getPageSize());
+        RankedIds ranked = rankedIds(criteria, depth);
+        String scrollId = scrollContexts.open(ranked.ids(), ranked.total(), ranked.ids().size() < depth);
+
+        return new ScrollPage(scrollId, page(ranked, pageable));
     }
 
-    private void maybeLogFeatures(JobEntity job, RankingFeatures f, double rerankScore) {
-        if (!rankingProperties.isFeatureLoggingEnabled())
-            return;
+    /**
+     * Página seguinte de um scroll, só hidratando os ids guardados. Vazio se
+     * o contexto expirou ou não chega até a página pedida; aí a busca precisa
+     * ser refeita.
+     */
+    public Optional<Page<JobEntity>> scroll(String scrollId, Pageable pageable) {
+        long start = pageable.getOffset();
+        long end = start + pageable.getPageSize();
+
+        return scrollContexts.get(scrollId)
+                .filter(context -> context.covers(end))
+                .map(context -> {
+                    if (start >= context.size())
+                        return new PageImpl<>(List.of(), pageable, context.total());
+
+                    List<UUID> ids = context.ids((int) start, (int) Math.min(end, context.size()));
+                    return new PageImpl<>(hydrate(ids), pageable, context.total());
+                });
+    }
 
-        log.info("[ranking] traceId={} title='{}' heuristic={} titleHits={} descHits={} stackHits={} seniorityMatch={} freshnessDays={} rerank={}",
-                job.getIngestionTraceId(), job.getTitle(), f.heuristicScore(), f.titleHits(), f.descriptionHits(),
-                f.stackHits(), f.seniorityMatch(), f.freshnessDays(), rerankScore);
+    private static boolean isBlank(SearchCriteria criteria) {
+        return criteria == null || criteria.rawText == null || criteria.rawText.isBlank();
     }
 
-    private RankingFeatures buildFeatures(JobEntity job, SearchCriteria c, int heuristicScore) {
-        String title = normalize(job.getTitle());
-        String description = normalize(job.getDescription());
-        String stacks = normalize(job.getStacks());
-        String seniority = normalize(job.getSeniority());
+    // as depth melhores vagas, da melhor para a pior, e o total do ranking
+    private RankedIds rankedIds(SearchCriteria criteria, long depth) {
+        RankingQuery query = RankingQuery.compile(criteria);
 
-        int titleHits = 0;
-        int descriptionHits = 0;
-        int stackHits = 0;
+        // quase duplicatas já vêm reduzidas ao representante de cada grupo
+        JobSearchIndex.Candidates matches = searchIndex.candidates(criteria, query.matcher());
+        List<JobSearchIndex.Candidate> candidates = matches.jobs();
 
-        Set<String> allTokens = new HashSet<>();
-        allTokens.addAll(c.stacks);
-        allTokens.addAll(c.freeTextTerms);
+        int limit = (int) Math.min(candidates.size(), depth);
+        Ranking ranking = rank(matches, criteria, query, limit);
 
-        for (String token : allTokens) {
-            titleHits += countOccurrences(title, token);
-            descriptionHits += countOccurrences(description, token);
-            stackHits += countOccurrences(stacks, token);
+        int[] best = ranking.top().drainBestFirst();
+        List<UUID> ids = new ArrayList<>(best.length);
+        for (int position : best)
+            ids.add(candidates.get(position).job().id());
+
+        return new RankedIds(ids, ranking.total());
+    }
+
+    private Page<JobEntity> page(RankedIds ranked, Pageable pageable) {
+        long start = pageable.getOffset();
+        if (start >= ranked.ids().size()) {
+            return new PageImpl<>(List.of(), pageable, ranked.total());
         }
 
-        int seniorityMatch = 0;
-        for (var requested : c.seniorities) {
-            if (seniority.contains(requested.name().toLowerCase(Locale.ROOT))) {
-                seniorityMatch = 1;
+        int end = (int) Math.min(ranked.ids().size(), start + pageable.getPageSize());
+        return new PageImpl<>(hydrate(ranked.ids().subList((int) start, end)), pageable, ranked.total());
+    }
+
+    /**
+     * Mantém só as {@code depth} melhores candidatas com pontuação positiva,
+     * no estilo block-max: cada bloco de doc ids recebe um teto de pontuação
+     * tirado dos tetos por bloco dos termos ({@link TermImpacts}) e dos
+     * limites do bloco (coleta mais nova, campos mais curtos), sem olhar as
+     * vagas. Os blocos saem de um heap do maior teto para o menor; dentro de
+     * um bloco cada vaga recebe o próprio teto antes de ser pontuada. Quando o
+     * teto do próximo bloco não alcança a pior do heap, nenhum dos restantes
+     * alcança e a varredura termina sem ordenar nem visitar o resto.
+     *
+     * <p>O total é exato enquanto nada com teto positivo é descartado. Depois
+     * disso é uma estimativa por cima: conta também as vagas descartadas cujo
+     * teto (do bloco ou da vaga) ainda é positivo, mesmo que a pontuação real
+     * fosse zero.
+     *
+     * <p>A lista de candidatas ainda é montada inteira sob o lock do índice (só
+     * referências); tetos por vaga e pontuação só acontecem nos blocos que
+     * podem entrar.
+     */
+    private Ranking rank(JobSearchIndex.Candidates matches, SearchCriteria criteria, RankingQuery query, int depth) {
+        List<JobSearchIndex.Candidate> candidates = matches.jobs();
+        List<JobSearchIndex.Block> blocks = matches.blocks();
+        TermImpacts impacts = matches.impacts();
+        CorpusStats stats = matches.stats();
+
+        TopScores top = new TopScores(depth);
+        OffsetDateTime now = OffsetDateTime.now();
+        boolean sound = boundsAreSound();
+        boolean blocksSound = sound && blockBoundsAreSound();
+
+        FieldHits boundHits = FieldHits.empty(query.matcher());
+        float[] blockBounds = new float[blocks.size()];
+        for (int b = 0; b < blocks.size(); b++)
+            blockBounds[b] = blocksSound
+                    ? roundUp(blockBound(blocks.get(b), impacts, stats, criteria, query, boundHits, now))
+                    : Float.POSITIVE_INFINITY;
+
+        BoundQueue order = new BoundQueue(blockBounds);
+        int matched = 0;
+        int pruned = 0;
+
+        while (!order.isEmpty()) {
+            // no empate com a pior do heap a posição menor ainda entra
+            float blockBound = order.peekBound();
+            if (blockBound <= 0 || blockBound < top.threshold(0))
                 break;
+
+            JobSearchIndex.Block block = blocks.get(order.poll());
+            for (int i = block.from(); i < block.to(); i++) {
+                JobSearchIndex.Candidate candidate = candidates.get(i);
+
+                float bound = sound
+                        ? roundUp(upperBound(candidate, impacts, stats, criteria, query, boundHits, now))
+                        : Float.POSITIVE_INFINITY;
+                if (bound <= 0 || bound < top.threshold(0)) {
+                    if (bound > 0) pruned++;
+                    continue;
+                }
+
+                IndexedJob job = candidate.job();
+                FieldHits hits = FieldHits.of(job, query.matcher());
+                RankingFeatures f = buildFeatures(query, hits, score(query, hits, candidate.norms(), stats),
+                        seniorityMatch(job.seniority(), criteria), freshnessDays(job.coletadoEm(), now));
+                double rerankScore = rerank(f);
+                maybeLogFeatures(job, f, rerankScore);
+
+                if (rerankScore > 0) {
+                    matched++;
+                    top.offer(rerankScore, i);
+                }
             }
         }
 
-        long freshnessDays = 365;
-        if (job.getColetadoEm() != null) {
-            freshnessDays = Math.max(0, ChronoUnit.DAYS.between(job.getColetadoEm(), OffsetDateTime.now()));
+        int[] remaining = {0};
+        order.forEachRemaining(b -> {
+            if (blockBounds[b] > 0)
+                remaining[0] += blocks.get(b).size();
+        });
+
+        return new Ranking(top, matched + pruned + remaining[0]);
+    }
+
+    // pontuação com o máximo de ocorrências que os postings permitem; não lê os textos nem aloca por candidata
+    private double upperBound(JobSearchIndex.Candidate candidate, TermImpacts impacts, CorpusStats stats,
+                              SearchCriteria criteria, RankingQuery query, FieldHits hits, OffsetDateTime now) {
+        hits.fillBound(candidate, impacts);
+        IndexedJob job = candidate.job();
+        return rerank(buildFeatures(query, hits, score(query, hits, candidate.norms(), stats),
+                seniorityMatch(job.seniority(), criteria), freshnessDays(job.coletadoEm(), now)));
+    }
+
+    /**
+     * Pontuação de uma vaga ideal do bloco: em cada campo o teto de ocorrências
+     * do bloco sobre o menor comprimento do bloco, a coleta mais nova e
+     * senioridade casada sempre que a consulta pede uma. Vagas sem data contam
+     * 365 dias, então o bloco nunca passa disso.
+     */
+    private double blockBound(JobSearchIndex.Block block, TermImpacts impacts, CorpusStats stats,
+                              SearchCriteria criteria, RankingQuery query, FieldHits hits, OffsetDateTime now) {
+        hits.fillBound(block, impacts);
+        long freshness = Math.min(freshnessDays(block.newest(), now), freshnessDays(null, now));
+        return rerank(buildFeatures(query, hits, score(query, hits, block.norms(), stats),
+                criteria.seniorities.isEmpty() ? 0 : 1, freshness));
+    }
+
+    // o float mais próximo pode ficar abaixo do double; o teto não pode
+    private static float roundUp(double value) {
+        float rounded = (float) value;
+        return rounded < value ? Math.nextUp(rounded) : rounded;
+    }
+
+    // o teto só vale se a pontuação cresce com as ocorrências
+    private boolean boundsAreSound() {
+        return rankingProperties.getWeightHeuristic() >= 0
+                && rankingProperties.getWeightTitleHits() >= 0
+                && rankingProperties.getWeightDescriptionHits() >= 0
+                && rankingProperties.getWeightStackHits() >= 0;
+    }
+
+    // o do bloco também precisa que senioridade some, coleta antiga tire e campo curto valha mais
+    private boolean blockBoundsAreSound() {
+        return rankingProperties.getWeightSeniorityMatch() >= 0
+                && rankingProperties.getWeightFreshnessDays() >= 0
+                && rankingProperties.getBm25B() >= 0;
+    }
+
+    public SearchFacetsResponse facets(String query) {
+        return facets(QueryParser.parse(query, synonymCatalog));
+    }
+
+    public SearchFacetsResponse facets(SearchCriteria criteria) {
+        SearchCriteria effective = criteria == null ? new SearchCriteria() : criteria;
+        Map<SearchFacet, Map<String, Integer>> counts = searchIndex.facetCounts(effective);
+
+        return new SearchFacetsResponse(
+                sortedByCount(counts.get(SearchFacet.STACK)),
+                sortedByCount(counts.get(SearchFacet.SENIORITY)),
+                sortedByCount(counts.get(SearchFacet.WORK_MODE)),
+                sortedByCount(counts.get(SearchFacet.AREA))
+        );
+    }
+
+    private Map<String, Integer> sortedByCount(Map<String, Integer> counts) {
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    // carrega do banco apenas a página final, preservando a ordem do ranking
+    private List<JobEntity> hydrate(List<UUID> ids) {
+        Map<UUID, JobEntity> byId = new HashMap<>();
+        repository.findAllById(ids).forEach(job -> byId.put(job.getId(), job));
+
+        List<UUID> missing = ids.stream().filter(id -> !byId.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            log.warn("[search-index] {} vagas indexadas não existem mais no banco; removendo do índice", missing.size());
+            searchIndex.remove(missing);
+        }
+
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private void maybeLogFeatures(IndexedJob job, RankingFeatures f, double rerankScore) {
+        if (!rankingProperties.isFeatureLoggingEnabled())
+            return;
+
+        log.info("[ranking] traceId={} title='{}' heuristic={} titleHits={} descHits={} stackHits={} seniorityMatch={} freshnessDays={} rerank={}",
+                job.ingestionTraceId(), job.title(), f.heuristicScore(), f.titleHits(), f.descriptionHits(),
+                f.stackHits(), f.seniorityMatch(), f.freshnessDays(), rerankScore);
+    }
+
+    private RankingFeatures buildFeatures(RankingQuery query, FieldHits hits, double heuristicScore,
+                                          int seniorityMatch, long freshnessDays) {
+        int titleHits = 0;
+        int descriptionHits = 0;
+        int stackHits = 0;
+
+        for (int term : query.featureTerms()) {
+            titleHits += hits.get(IndexField.TITLE, term);
+            descriptionHits += hits.get(IndexField.DESCRIPTION, term);
+            stackHits += hits.get(IndexField.STACKS, term);
         }
 
         return new RankingFeatures(
@@ -114,120 +322,208 @@ public class SearchService {
         );
     }
 
+    private static int seniorityMatch(String seniority, SearchCriteria c) {
+        for (var requested : c.seniorities) {
+            if (seniority.contains(requested.name().toLowerCase(Locale.ROOT)))
+                return 1;
+        }
+        return 0;
+    }
+
+    private static long freshnessDays(OffsetDateTime coletadoEm, OffsetDateTime now) {
+        return coletadoEm == null ? 365 : Math.max(0, ChronoUnit.DAYS.between(coletadoEm, now));
+    }
+
     private double rerank(RankingFeatures f) {
         return (f.heuristicScore() * rankingProperties.getWeightHeuristic())
-                + (f.titleHits() * rankingProperties.getWeightTitleHits())
-                + (f.descriptionHits() * rankingProperties.getWeightDescriptionHits())
-                + (f.stackHits() * rankingProperties.getWeightStackHits())
+                + (saturate(f.titleHits()) * rankingProperties.getWeightTitleHits())
+                + (saturate(f.descriptionHits()) * rankingProperties.getWeightDescriptionHits())
+                + (saturate(f.stackHits()) * rankingProperties.getWeightStackHits())
                 + (f.seniorityMatch() * rankingProperties.getWeightSeniorityMatch())
                 - (f.freshnessDays() * rankingProperties.getWeightFreshnessDays());
     }
 
-    private int score(JobEntity job, SearchCriteria c) {
+    // contagens brutas saturam como no BM25: a 20ª ocorrência quase não soma
+    private double saturate(int hits) {
+        double k1 = rankingProperties.getBm25K1();
+        return hits * (k1 + 1) / (k1 + hits);
+    }
 
-        int score = 0;
+    /**
+     * BM25F: para cada termo, as ocorrências de cada campo entram com o peso
+     * do campo no grupo e divididas pelo comprimento do campo na vaga relativo
+     * à média do índice; a soma satura em {@code k1} e é multiplicada pelo IDF
+     * do termo e pelo peso do grupo. Comprimentos e frequências vêm de
+     * {@link CorpusStats} e dos norms da vaga (ou do bloco), sem varrer textos.
+     */
+    private double score(RankingQuery q, FieldHits hits, long norms, CorpusStats stats) {
 
-        String title = normalize(job.getTitle());
-        String description = normalize(job.getDescription());
-        String stacks = normalize(job.getStacks());
-        String seniority = normalize(job.getSeniority());
-        String workMode = normalize(job.getWorkMode());
-        String location = normalize(job.getLocation());
-        String company = normalize(job.getEmpresa());
+        double score = 0;
 
-        for (String stack : c.stacks) {
-            score += tokenScore(stack, 16, title, stacks, description);
+        for (int stack : q.stacks()) {
+            score += termScore(STACK_TERMS, stack, hits, norms, stats);
         }
 
-        for (var area : c.areas) {
-            String areaToken = area.name().toLowerCase(Locale.ROOT);
-            score += tokenScore(areaToken, 10, title, description);
+        for (int area : q.areas()) {
+            score += termScore(AREA_TERMS, area, hits, norms, stats);
         }
 
-        for (var requestedSeniority : c.seniorities) {
-            String seniorityToken = requestedSeniority.name().toLowerCase(Locale.ROOT);
-            score += tokenScore(seniorityToken, 12, seniority, title, description);
+        for (int seniority : q.seniorities()) {
+            score += termScore(SENIORITY_TERMS, seniority, hits, norms, stats);
         }
 
-        for (String workModeTerm : c.workModes) {
-            score += tokenScore(workModeTerm, 8, workMode, title, description);
+        for (int workMode : q.workModes()) {
+            score += termScore(WORK_MODE_TERMS, workMode, hits, norms, stats);
         }
 
-        for (String term : c.locationTerms) {
-            score += tokenScore(term, 8, location, description, title);
+        for (int location : q.locationTerms()) {
+            score += termScore(LOCATION_TERMS, location, hits, norms, stats);
         }
 
-        for (String token : c.freeTextTerms) {
-            int titleHits = countOccurrences(title, token);
-            int descriptionHits = countOccurrences(description, token);
-            int companyHits = countOccurrences(company, token);
+        int matchedTerms = 0;
+        for (int term : q.freeTextTerms()) {
+            score += termScore(FREE_TEXT_TERMS, term, hits, norms, stats);
 
-            score += (titleHits * 8) + (descriptionHits * 3) + (companyHits * 4);
+            if (hits.get(IndexField.TITLE, term) > 0 || hits.get(IndexField.DESCRIPTION, term) > 0)
+                matchedTerms++;
         }
 
-        if (!c.freeTextTerms.isEmpty()) {
-            int matchedTerms = (int) c.freeTextTerms.stream().filter(token -> containsToken(title + " " + description, token)).count();
-            double coverageBoost = (double) matchedTerms / c.freeTextTerms.size();
-            score += (int) Math.round(coverageBoost * 20);
+        if (q.freeTextTerms().length > 0) {
+            double coverageBoost = (double) matchedTerms / q.freeTextTerms().length;
+            score += coverageBoost * 20;
         }
 
-        if (c.stacks.isEmpty() && c.areas.isEmpty() && c.seniorities.isEmpty() && c.workModes.isEmpty() && c.locationTerms.isEmpty() && c.freeTextTerms.isEmpty()) {
+        if (q.isEmpty()) {
             score = 1;
         }
 
         return score;
     }
 
-    private int tokenScore(String token, int baseWeight, String... fields) {
-        int result = 0;
-        for (int i = 0; i < fields.length; i++) {
-            int hits = countOccurrences(fields[i], token);
-            if (hits == 0) continue;
+    private double termScore(TermGroup group, int term, FieldHits hits, long norms, CorpusStats stats) {
+        double groupWeight = group.weights()[0];
+        double frequency = 0;
 
-            int fieldWeight = switch (i) {
-                case 0 -> baseWeight;
-                case 1 -> Math.max(1, baseWeight - 4);
-                default -> Math.max(1, baseWeight - 8);
-            };
+        for (int i = 0; i < group.fields().length; i++) {
+            IndexField field = group.fields()[i];
+            int count = hits.get(field, term);
+            if (count == 0) continue;
 
-            result += hits * fieldWeight;
+            frequency += group.weights()[i] / groupWeight * count / lengthNorm(field, norms, stats);
         }
 
-        return result;
+        if (frequency == 0)
+            return 0;
+
+        double k1 = rankingProperties.getBm25K1();
+        return groupWeight * stats.idf(term) * frequency * (k1 + 1) / (k1 + frequency);
     }
 
-    private int countOccurrences(String text, String token) {
-        if (text == null || text.isBlank() || token == null || token.isBlank()) return 0;
+    // senioridade e modelo de trabalho não têm postings nem média: ficam sem normalização
+    private double lengthNorm(IndexField field, long norms, CorpusStats stats) {
+        double average = stats.averageLength()[field.ordinal()];
+        if (average <= 0)
+            return 1;
 
-        int count = 0;
-        int index = 0;
-        String normalizedToken = token.toLowerCase(Locale.ROOT);
+        double b = rankingProperties.getBm25B();
+        return Math.max(1 - b + b * JobSearchIndex.length(norms, field) / average, Double.MIN_NORMAL);
+    }
 
-        while ((index = text.indexOf(normalizedToken, index)) >= 0) {
-            count++;
-            index += normalizedToken.length();
+    /**
+     * Termos da consulta compilados uma vez por busca: cada lista guarda os ids
+     * dos termos no {@link QueryTermMatcher}.
+     */
+    private record RankingQuery(
+            QueryTermMatcher matcher,
+            int[] stacks,
+            int[] areas,
+            int[] seniorities,
+            int[] workModes,
+            int[] locationTerms,
+            int[] freeTextTerms,
+            int[] featureTerms
+    ) {
+
+        static RankingQuery compile(SearchCriteria c) {
+            List<String> areas = c.areas.stream().map(area -> area.name().toLowerCase(Locale.ROOT)).toList();
+            List<String> seniorities = c.seniorities.stream().map(s -> s.name().toLowerCase(Locale.ROOT)).toList();
+
+            List<String> terms = new ArrayList<>();
+            terms.addAll(c.stacks);
+            terms.addAll(areas);
+            terms.addAll(seniorities);
+            terms.addAll(c.workModes);
+            terms.addAll(c.locationTerms);
+            terms.addAll(c.freeTextTerms);
+
+            QueryTermMatcher matcher = QueryTermMatcher.compile(terms);
+
+            Set<String> featureTerms = new HashSet<>(c.stacks);
+            featureTerms.addAll(c.freeTextTerms);
+
+            return new RankingQuery(
+                    matcher,
+                    ids(matcher, c.stacks),
+                    ids(matcher, areas),
+                    ids(matcher, seniorities),
+                    ids(matcher, c.workModes),
+                    ids(matcher, c.locationTerms),
+                    ids(matcher, c.freeTextTerms),
+                    Arrays.stream(ids(matcher, featureTerms)).distinct().toArray()
+            );
+        }
+
+        boolean isEmpty() {
+            return stacks.length == 0 && areas.length == 0 && seniorities.length == 0
+                    && workModes.length == 0 && locationTerms.length == 0 && freeTextTerms.length == 0;
         }
 
-        return count;
+        private static int[] ids(QueryTermMatcher matcher, Collection<String> terms) {
+            return terms.stream().mapToInt(matcher::idOf).toArray();
+        }
     }
 
-    private String normalize(String input) {
-        if (input == null)
-            return "";
+    /** Ocorrências de cada termo da consulta por campo, com uma varredura por campo. */
+    private record FieldHits(int[][] byField) {
 
-        String normalized = Normalizer.normalize(input.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)
-                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "")
-                .replaceAll("[^a-z0-9#.+\\-\\s]", " ");
+        static FieldHits of(IndexedJob job, QueryTermMatcher matcher) {
+            IndexField[] fields = IndexField.values();
+            int[][] byField = new int[fields.length][];
+            for (IndexField field : fields)
+                byField[field.ordinal()] = matcher.count(job.field(field));
+            return new FieldHits(byField);
+        }
 
-        return MULTI_SPACE.matcher(normalized).replaceAll(" ").trim();
-    }
+        static FieldHits empty(QueryTermMatcher matcher) {
+            return new FieldHits(new int[IndexField.values().length][matcher.size()]);
+        }
+
+        /** Sobrescreve com o máximo de ocorrências de cada termo por campo segundo {@link TermImpacts}. */
+        void fillBound(JobSearchIndex.Candidate candidate, TermImpacts impacts) {
+            for (IndexField field : IndexField.values()) {
+                String text = candidate.job().field(field);
+                int[] counts = byField[field.ordinal()];
+                for (int term = 0; term < counts.length; term++)
+                    counts[term] = impacts.bound(field, term, candidate.docId(), text);
+            }
+        }
 
-    private boolean containsToken(String text, String token) {
-        return text.contains(token.toLowerCase(Locale.ROOT));
+        /** Sobrescreve com o máximo de ocorrências de cada termo por campo em qualquer vaga do bloco. */
+        void fillBound(JobSearchIndex.Block block, TermImpacts impacts) {
+            for (IndexField field : IndexField.values()) {
+                int[] counts = byField[field.ordinal()];
+                for (int term = 0; term < counts.length; term++)
+                    counts[term] = impacts.bound(field, term, block);
+            }
+        }
+
+        int get(IndexField field, int term) {
+            return term < 0 ? 0 : byField[field.ordinal()][term];
+        }
     }
 
     record RankingFeatures(
-            int heuristicScore,
+            double heuristicScore,
             int titleHits,
             int descriptionHits,
             int stackHits,
@@ -236,6 +532,16 @@ public class SearchService {
     ) {
     }
 
-    private record ScoredJob(JobEntity job, double score) {
+    private record Ranking(TopScores top, int total) {
+    }
+
+    private record RankedIds(List<UUID> ids, int total) {
+    }
+
+    /** Página e id do contexto de scroll aberto para ela; {@code null} quando não há contexto. */
+    public record ScrollPage(String scrollId, Page<JobEntity> page) {
+    }
+
+    private record TermGroup(IndexField[] fields, double[] weights) {
     }
 }
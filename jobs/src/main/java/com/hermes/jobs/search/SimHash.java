@@ -0,0 +1,82 @@
+package com.hermes.jobs.search;
+
+import java.util.OptionalLong;
+
+/**
+ * SimHash de 64 bits sobre shingles de {@value #SHINGLE} tokens normalizados
+ * ({@link TextNormalizer#tokenize}). Textos quase iguais ficam a poucos bits de
+ * distância ({@link #distance}); textos curtos demais não recebem fingerprint,
+ * porque um título genérico sozinho aproximaria vagas diferentes.
+ */
+public final class SimHash {
+
+    public static final int MIN_TOKENS = 20;
+
+    private static final int SHINGLE = 3;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private SimHash() {
+    }
+
+    public static OptionalLong of(String text) {
+        Accumulator accumulator = new Accumulator();
+        TextNormalizer.tokenize(text, accumulator);
+        return accumulator.tokens < MIN_TOKENS ? OptionalLong.empty() : OptionalLong.of(accumulator.fingerprint());
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static final class Accumulator implements TextNormalizer.TokenSink {
+
+        private final int[] weights = new int[Long.SIZE];
+        private final long[] window = new long[SHINGLE];
+        private int tokens;
+
+        @Override
+        public void token(char[] buffer, int offset, int length) {
+            long hash = FNV_OFFSET;
+            for (int i = offset; i < offset + length; i++)
+                hash = (hash ^ buffer[i]) * FNV_PRIME;
+
+            window[tokens % SHINGLE] = hash;
+            tokens++;
+
+            if (tokens >= SHINGLE)
+                add(shingle());
+        }
+
+        // combina os tokens da janela na ordem em que apareceram
+        private long shingle() {
+            long hash = 0;
+            for (int i = 0; i < SHINGLE; i++)
+                hash = hash * FNV_PRIME + window[(tokens + i) % SHINGLE];
+            return mix(hash);
+        }
+
+        private void add(long hash) {
+            for (int bit = 0; bit < Long.SIZE; bit++)
+                weights[bit] += ((hash >>> bit) & 1) == 1 ? 1 : -1;
+        }
+
+        long fingerprint() {
+            long fingerprint = 0;
+            for (int bit = 0; bit < Long.SIZE; bit++)
+                if (weights[bit] > 0)
+                    fingerprint |= 1L << bit;
+            return fingerprint;
+        }
+    }
+
+    // finalizador do MurmurHash3: espalha bits antes da votação
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
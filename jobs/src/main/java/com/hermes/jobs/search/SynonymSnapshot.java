@@ -0,0 +1,108 @@
+package com.hermes.jobs.search;
+
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dicionário de sinônimos compilado: token normalizado -> o que ele significa
+ * para o parser (senioridade, área, stack, localização, modelo de trabalho).
+ * Imutável; o {@link QuerySynonymCatalog} troca a instância inteira ao
+ * recarregar.
+ */
+public final class SynonymSnapshot {
+
+    /** Significados de um token; campos nulos não se aplicam. */
+    public record Entry(Seniority seniority, Area area, String stack, String location, String workMode) {
+
+        private Entry merge(Entry other) {
+            return new Entry(
+                    other.seniority != null ? other.seniority : seniority,
+                    other.area != null ? other.area : area,
+                    other.stack != null ? other.stack : stack,
+                    other.location != null ? other.location : location,
+                    other.workMode != null ? other.workMode : workMode
+            );
+        }
+    }
+
+    private static final Map<String, String> WORK_MODES = Map.of(
+            "remote", "remote",
+            "remoto", "remote",
+            "hybrid", "hybrid",
+            "hibrido", "hybrid",
+            "onsite", "onsite",
+            "on-site", "onsite",
+            "presencial", "onsite"
+    );
+
+    private final Map<String, Entry> byToken;
+    private final Map<String, Seniority> seniorities;
+    private final Map<String, Area> areas;
+    private final Set<String> stacks;
+    private final Set<String> locations;
+    private final OffsetDateTime compiledAt;
+
+    private SynonymSnapshot(Map<String, Seniority> seniorities, Map<String, Area> areas,
+                            Set<String> stacks, Set<String> locations) {
+        this.seniorities = Collections.unmodifiableMap(new LinkedHashMap<>(seniorities));
+        this.areas = Collections.unmodifiableMap(new LinkedHashMap<>(areas));
+        this.stacks = Collections.unmodifiableSet(new LinkedHashSet<>(stacks));
+        this.locations = Collections.unmodifiableSet(new LinkedHashSet<>(locations));
+        this.compiledAt = OffsetDateTime.now();
+
+        Map<String, Entry> table = new HashMap<>();
+        WORK_MODES.forEach((k, v) -> put(table, k, new Entry(null, null, null, null, v)));
+        seniorities.forEach((k, v) -> put(table, k, new Entry(v, null, null, null, null)));
+        areas.forEach((k, v) -> put(table, k, new Entry(null, v, null, null, null)));
+        stacks.forEach(stack -> put(table, stack, new Entry(null, null, stack.equals("dotnet") ? ".net" : stack, null, null)));
+        locations.forEach(location -> put(table, location, new Entry(null, null, null, location, null)));
+        this.byToken = Map.copyOf(table);
+    }
+
+    static SynonymSnapshot compile(Map<String, Seniority> seniorities, Map<String, Area> areas,
+                                   Set<String> stacks, Set<String> locations) {
+        return new SynonymSnapshot(seniorities, areas, stacks, locations);
+    }
+
+    // chaves com mais de um token nunca casam com um token da consulta
+    private static void put(Map<String, Entry> table, String key, Entry entry) {
+        String token = TextNormalizer.normalize(key);
+        if (token.isEmpty() || token.indexOf(' ') >= 0)
+            return;
+
+        table.merge(token, entry, Entry::merge);
+    }
+
+    public Entry lookup(String token) {
+        return byToken.get(token);
+    }
+
+    public Map<String, Seniority> seniorities() {
+        return seniorities;
+    }
+
+    public Map<String, Area> areas() {
+        return areas;
+    }
+
+    public Set<String> stacks() {
+        return stacks;
+    }
+
+    public Set<String> locations() {
+        return locations;
+    }
+
+    public int size() {
+        return byToken.size();
+    }
+
+    public OffsetDateTime compiledAt() {
+        return compiledAt;
+    }
+}
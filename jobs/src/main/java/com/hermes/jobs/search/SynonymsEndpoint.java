@@ -0,0 +1,44 @@
+package com.hermes.jobs.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/synonyms} mostra o snapshot em uso;
+ * {@code POST /actuator/synonyms} relê {@code search.synonyms.file} sem restart.
+ */
+@Component
+@Endpoint(id = "synonyms")
+@RequiredArgsConstructor
+public class SynonymsEndpoint {
+
+    private final QuerySynonymCatalog catalog;
+
+    @ReadOperation
+    public Map<String, Object> snapshot() {
+        return describe(catalog.snapshot());
+    }
+
+    @WriteOperation
+    public Map<String, Object> reload() {
+        return describe(catalog.reload());
+    }
+
+    private Map<String, Object> describe(SynonymSnapshot snapshot) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("file", catalog.getFile());
+        body.put("compiledAt", snapshot.compiledAt());
+        body.put("tokens", snapshot.size());
+        body.put("seniorities", snapshot.seniorities().size());
+        body.put("areas", snapshot.areas().size());
+        body.put("stacks", snapshot.stacks().size());
+        body.put("locations", snapshot.locations().size());
+        return body;
+    }
+}
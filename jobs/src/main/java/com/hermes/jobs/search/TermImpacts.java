@@ -0,0 +1,108 @@
+package com.hermes.jobs.search;
+
+import java.util.Arrays;
+
+/**
+ * Tetos de ocorrência dos termos de uma consulta, por campo, lidos dos
+ * postings sem tocar nos textos das vagas.
+ *
+ * <p>O ranking conta ocorrências por substring ({@link QueryTermMatcher}), não
+ * por token: "java" também aparece em "javascript". Por isso cada termo é
+ * reduzido ao seu núcleo ({@link #core}), o maior trecho sem espaço, e o teto
+ * soma, para cada token do vocabulário que contém o núcleo, a maior frequência
+ * do token em uma vaga do bloco de doc ids ({@link BlockMaxima}) vezes quantas
+ * vezes o núcleo cabe nele. As vagas fora da união dos postings desses tokens
+ * não têm nenhuma ocorrência do termo.
+ *
+ * <p>Os bitmaps e os tetos por bloco recebidos são compartilhados entre
+ * consultas ({@link JobSearchIndex} guarda os impactos por núcleo) e só são
+ * lidos.
+ */
+final class TermImpacts {
+
+    private final QueryTermMatcher matcher;
+    private final DocIdBitmap[][] postings;
+    // por campo e termo, indexado pelo bloco
+    private final int[][][] blockMaxHits;
+    // -1 nos termos sem núcleo
+    private final int[] documentFrequency;
+
+    TermImpacts(QueryTermMatcher matcher) {
+        this.matcher = matcher;
+        this.postings = new DocIdBitmap[IndexField.values().length][matcher.size()];
+        this.blockMaxHits = new int[IndexField.values().length][matcher.size()][];
+        this.documentFrequency = new int[matcher.size()];
+        Arrays.fill(documentFrequency, -1);
+    }
+
+    void put(IndexField field, int term, DocIdBitmap docs, int[] blockMax) {
+        postings[field.ordinal()][term] = docs;
+        blockMaxHits[field.ordinal()][term] = blockMax;
+    }
+
+    void putDocumentFrequency(int term, int documents) {
+        documentFrequency[term] = documents;
+    }
+
+    /**
+     * Máximo de ocorrências do termo no campo da vaga. Campos sem postings
+     * (senioridade, modelo de trabalho) e termos sem núcleo ficam só com o
+     * teto por comprimento do texto.
+     */
+    int bound(IndexField field, int term, int docId, String text) {
+        int byLength = text == null ? 0 : text.length() / matcher.length(term);
+
+        DocIdBitmap docs = postings[field.ordinal()][term];
+        if (docs == null)
+            return byLength;
+
+        return docs.contains(docId) ? Math.min(byLength, blockMax(field, term, docId >>> JobSearchIndex.BLOCK_SHIFT)) : 0;
+    }
+
+    /** Máximo de ocorrências do termo no campo em qualquer vaga do bloco. */
+    int bound(IndexField field, int term, JobSearchIndex.Block block) {
+        int byLength = block.longest(field) / matcher.length(term);
+
+        if (postings[field.ordinal()][term] == null)
+            return byLength;
+
+        return Math.min(byLength, blockMax(field, term, block.id()));
+    }
+
+    /** Vagas que podem conter o termo em algum campo com postings; sem núcleo, todas. */
+    int documentFrequency(int term, int documents) {
+        return documentFrequency[term] < 0 ? documents : documentFrequency[term];
+    }
+
+    private int blockMax(IndexField field, int term, int block) {
+        int[] maxima = blockMaxHits[field.ordinal()][term];
+        return block < maxima.length ? maxima[block] : 0;
+    }
+
+    /**
+     * Maior trecho do termo sem espaço, sem os hífens iniciais e os pontos e
+     * hífens finais que a tokenização descarta; cada ocorrência do termo contém
+     * uma ocorrência do núcleo dentro de um único token.
+     */
+    static String core(String term) {
+        String core = "";
+        for (String segment : term.split(" ")) {
+            int start = 0;
+            int end = segment.length();
+            while (start < end && segment.charAt(start) == '-') start++;
+            while (end > start && (segment.charAt(end - 1) == '.' || segment.charAt(end - 1) == '-')) end--;
+
+            if (end - start > core.length())
+                core = segment.substring(start, end);
+        }
+        return core;
+    }
+
+    /** Ocorrências sem sobreposição, como {@code indexOf} em laço. */
+    static int occurrences(String token, String core) {
+        int count = 0;
+        for (int i = token.indexOf(core); i >= 0; i = token.indexOf(core, i + core.length()))
+            count++;
+        return count;
+    }
+}
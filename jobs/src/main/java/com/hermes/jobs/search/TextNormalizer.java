@@ -0,0 +1,252 @@
+package com.hermes.jobs.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizador e tokenizador compartilhado por busca, parser de consulta e
+ * classificador.
+ *
+ * <p>O caminho rápido percorre o texto uma única vez com tabelas por caractere
+ * (Latin-1, Latin Extended e pontuação geral) que dobram maiúsculas e acentos.
+ * As tabelas são geradas a partir da implementação de referência com
+ * {@link Normalizer}, então o resultado é idêntico ao dela; textos com
+ * caracteres fora das tabelas caem na referência.
+ */
+public final class TextNormalizer {
+
+    /** Recebe um token emitido; o buffer só é válido durante a chamada. */
+    @FunctionalInterface
+    public interface TokenSink {
+        void token(char[] buffer, int offset, int length);
+    }
+
+    private static final int TABLE_SIZE = 0x2070;
+
+    // sentinelas da tabela de normalize: a saída real é sempre [a-z0-9#.+-] ou espaço
+    private static final char DELETE = 0;
+    private static final char FALLBACK = 1;
+    private static final char SEPARATOR = ' ';
+
+    // sentinelas da tabela de fold (não-caracteres Unicode)
+    private static final char FOLD_DELETE = '￿';
+    private static final char FOLD_FALLBACK = '￾';
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern NON_TOKEN = Pattern.compile("[^a-z0-9#.+\\-\\s]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s");
+    private static final Pattern MULTI_SPACE = Pattern.compile("\\s+");
+
+    private static final char[] NORMALIZE_TABLE = new char[TABLE_SIZE];
+    private static final char[] FOLD_TABLE = new char[TABLE_SIZE];
+
+    private static final ThreadLocal<char[]> TOKEN_BUFFER = ThreadLocal.withInitial(() -> new char[256]);
+
+    static {
+        for (int c = 0; c < TABLE_SIZE; c++) {
+            if (Character.isSurrogate((char) c)) {
+                NORMALIZE_TABLE[c] = FALLBACK;
+                FOLD_TABLE[c] = FOLD_FALLBACK;
+                continue;
+            }
+
+            String single = String.valueOf((char) c);
+            NORMALIZE_TABLE[c] = normalizeEntry(single);
+            FOLD_TABLE[c] = foldEntry(single);
+        }
+    }
+
+    private TextNormalizer() {
+    }
+
+    // =========================
+    // NORMALIZE
+    // =========================
+
+    /**
+     * Minúsculas, sem acentos, apenas {@code [a-z0-9#.+-]} e um espaço entre
+     * tokens, sem espaços nas pontas.
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty())
+            return "";
+
+        int length = text.length();
+        char[] out = new char[length];
+        int n = 0;
+        boolean pendingSpace = false;
+        boolean unchanged = true;
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            char mapped = c < TABLE_SIZE ? NORMALIZE_TABLE[c] : FALLBACK;
+
+            if (mapped == DELETE)
+                continue;
+
+            if (mapped == FALLBACK)
+                return referenceNormalize(text);
+
+            if (mapped == SEPARATOR) {
+                pendingSpace = n > 0;
+                continue;
+            }
+
+            if (pendingSpace) {
+                unchanged &= text.charAt(n) == ' ';
+                out[n++] = ' ';
+                pendingSpace = false;
+            }
+
+            unchanged &= text.charAt(n) == mapped;
+            out[n++] = mapped;
+        }
+
+        return unchanged && n == length ? text : new String(out, 0, n);
+    }
+
+    /**
+     * Apenas minúsculas e remoção de acentos, preservando pontuação e espaços.
+     */
+    public static String fold(String text) {
+        if (text == null || text.isEmpty())
+            return "";
+
+        int length = text.length();
+        char[] out = null;
+        int n = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            char mapped = c < TABLE_SIZE ? FOLD_TABLE[c] : FOLD_FALLBACK;
+
+            if (mapped == FOLD_FALLBACK)
+                return referenceFold(text);
+
+            if (out == null) {
+                if (mapped == c) {
+                    n++;
+                    continue;
+                }
+
+                out = new char[length];
+                text.getChars(0, n, out, 0);
+            }
+
+            if (mapped != FOLD_DELETE)
+                out[n++] = mapped;
+        }
+
+        return out == null ? text : new String(out, 0, n);
+    }
+
+    // =========================
+    // TOKENIZE
+    // =========================
+
+    /**
+     * Emite os tokens normalizados do texto sem criar uma String por token.
+     * Pontos e hífens nas pontas do token são descartados ("microservices." ->
+     * "microservices"), exceto o ponto inicial de nomes como ".net".
+     */
+    public static void tokenize(String text, TokenSink sink) {
+        if (text == null || text.isEmpty())
+            return;
+
+        if (needsFallback(text))
+            text = referenceNormalize(text);
+
+        char[] buffer = tokenBuffer(text.length());
+        int n = 0;
+
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char mapped = NORMALIZE_TABLE[text.charAt(i)];
+
+            if (mapped == DELETE)
+                continue;
+
+            if (mapped == SEPARATOR) {
+                emit(buffer, n, sink);
+                n = 0;
+                continue;
+            }
+
+            buffer[n++] = mapped;
+        }
+
+        emit(buffer, n, sink);
+    }
+
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(text, (buffer, offset, length) -> tokens.add(new String(buffer, offset, length)));
+        return tokens;
+    }
+
+    private static void emit(char[] buffer, int length, TokenSink sink) {
+        int start = 0;
+        int end = length;
+
+        while (start < end && buffer[start] == '-') start++;
+        while (end > start && (buffer[end - 1] == '.' || buffer[end - 1] == '-')) end--;
+
+        if (end > start)
+            sink.token(buffer, start, end - start);
+    }
+
+    private static boolean needsFallback(String text) {
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= TABLE_SIZE || NORMALIZE_TABLE[c] == FALLBACK)
+                return true;
+        }
+        return false;
+    }
+
+    private static char[] tokenBuffer(int minLength) {
+        char[] buffer = TOKEN_BUFFER.get();
+        if (buffer.length < minLength) {
+            buffer = new char[Math.max(minLength, buffer.length * 2)];
+            TOKEN_BUFFER.set(buffer);
+        }
+        return buffer;
+    }
+
+    // =========================
+    // REFERÊNCIA (Normalizer)
+    // =========================
+
+    static String referenceNormalize(String text) {
+        return MULTI_SPACE.matcher(NON_TOKEN.matcher(referenceFold(text)).replaceAll(" ")).replaceAll(" ").trim();
+    }
+
+    static String referenceFold(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("");
+    }
+
+    private static char normalizeEntry(String single) {
+        String mapped = NON_TOKEN.matcher(referenceFold(single)).replaceAll(" ");
+
+        if (mapped.isEmpty())
+            return DELETE;
+
+        if (WHITESPACE.matcher(mapped).replaceAll("").isEmpty())
+            return SEPARATOR;
+
+        return mapped.length() == 1 ? mapped.charAt(0) : FALLBACK;
+    }
+
+    private static char foldEntry(String single) {
+        String mapped = referenceFold(single);
+
+        if (mapped.isEmpty())
+            return FOLD_DELETE;
+
+        char c = mapped.charAt(0);
+        return mapped.length() == 1 && c != FOLD_DELETE && c != FOLD_FALLBACK ? c : FOLD_FALLBACK;
+    }
+}
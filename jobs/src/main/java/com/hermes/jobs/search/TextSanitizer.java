@@ -1,27 +1,217 @@
 package com.hermes.jobs.search;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Limpa a descrição coletada em uma única passada: colapsa espaços, remove
+ * blocos de candidatura ("apply ... submit application"), corta o texto no
+ * primeiro rótulo de formulário (nome, email, currículo...) e remove menus
+ * ("back to jobs"). Os marcadores ficam em um único autômato
+ * ({@link QueryTermMatcher}) e a saída para em {@code maxLength} caracteres.
+ */
 public class TextSanitizer {
 
+    public static final int DEFAULT_MAX_LENGTH = 20_000;
+
+    // blocos removidos do marcador de abertura até o de fechamento mais próximo
+    private static final String[][] SPANS = {
+            {"apply", "submit application"},
+            {"candidatar a esta vaga", "enviar inscrição"}
+    };
+
+    // a partir do primeiro rótulo (palavra inteira) o resto é formulário
+    private static final List<String> LABELS =
+            List.of("nome", "sobrenome", "email", "telefone", "currículo", "resume", "cover letter");
+
+    private static final List<String> MENUS = List.of("back to jobs", "voltar para vagas");
+
+    private enum Kind { OPEN, CLOSE, LABEL, MENU }
+
+    private static final QueryTermMatcher MARKERS;
+    private static final Kind[] KIND;
+    private static final int[] SPAN_OF;
+
+    static {
+        List<String> terms = new ArrayList<>();
+        for (String[] span : SPANS) {
+            terms.add(span[0]);
+            terms.add(span[1]);
+        }
+        terms.addAll(LABELS);
+        terms.addAll(MENUS);
+
+        MARKERS = QueryTermMatcher.compile(terms);
+        KIND = new Kind[MARKERS.size()];
+        SPAN_OF = new int[MARKERS.size()];
+
+        for (int s = 0; s < SPANS.length; s++) {
+            register(SPANS[s][0], Kind.OPEN, s);
+            register(SPANS[s][1], Kind.CLOSE, s);
+        }
+        LABELS.forEach(label -> register(label, Kind.LABEL, -1));
+        MENUS.forEach(menu -> register(menu, Kind.MENU, -1));
+    }
+
     public static String clean(String raw) {
+        return clean(raw, DEFAULT_MAX_LENGTH);
+    }
+
+    public static String clean(String raw, int maxLength) {
 
         if (raw == null) return "";
 
-        String text = raw;
+        Cleaner cleaner = new Cleaner(Math.min(raw.length(), maxLength));
+
+        for (int i = 0, length = raw.length(); i < length; i++) {
+            if (!cleaner.accept(raw.charAt(i), maxLength))
+                break;
+        }
+
+        return cleaner.finish();
+    }
+
+    private static void register(String term, Kind kind, int span) {
+        int id = MARKERS.idOf(term);
+        KIND[id] = kind;
+        SPAN_OF[id] = span;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    /**
+     * Estado da passada. Posições são na saída já colapsada; um bloco aberto
+     * sem fechamento é mantido, como no regex lazy anterior.
+     */
+    private static final class Cleaner {
+
+        private final StringBuilder out;
+        private final int[] spanStart = new int[SPANS.length];
+        private final int[] spanOpenEnd = new int[SPANS.length];
+        private int state;
+        private int labelCandidate = -1;
+        private int labelCut = -1;
+        private boolean done;
+
+        Cleaner(int capacity) {
+            this.out = new StringBuilder(capacity);
+            Arrays.fill(spanStart, -1);
+        }
+
+        boolean accept(char c, int maxLength) {
+            if (done)
+                return false;
+
+            if (Character.isWhitespace(c)) {
+                if (out.isEmpty() || out.charAt(out.length() - 1) == ' ')
+                    return true;
+                c = ' ';
+            }
+
+            // rótulo só vale como palavra inteira: decide no caractere seguinte
+            if (labelCandidate >= 0) {
+                if (isWordChar(c)) {
+                    labelCandidate = -1;
+                } else {
+                    confirmLabel();
+                    if (done)
+                        return false;
+                }
+            }
+
+            if (out.length() >= maxLength)
+                return false;
+
+            out.append(c);
+            state = MARKERS.next(state, Character.toLowerCase(c));
+
+            for (int id : MARKERS.matchesAt(state)) {
+                int end = out.length();
+                int start = end - MARKERS.length(id);
+
+                switch (KIND[id]) {
+                    case OPEN -> {
+                        int span = SPAN_OF[id];
+                        if (spanStart[span] < 0) {
+                            spanStart[span] = start;
+                            spanOpenEnd[span] = end;
+                        }
+                    }
+                    case CLOSE -> {
+                        int span = SPAN_OF[id];
+                        if (spanStart[span] >= 0 && start >= spanOpenEnd[span]) {
+                            truncate(spanStart[span]);
+                            return true;
+                        }
+                    }
+                    case LABEL -> {
+                        if ((start == 0 || !isWordChar(out.charAt(start - 1)))
+                                && (labelCandidate < 0 || start < labelCandidate))
+                            labelCandidate = start;
+                    }
+                    case MENU -> {
+                        truncate(start);
+                        return true;
+                    }
+                }
+            }
+
+            return true;
+        }
+
+        String finish() {
+            if (labelCandidate >= 0 && !done)
+                confirmLabel();
+
+            if (labelCut >= 0)
+                out.setLength(labelCut);
+
+            int end = out.length();
+            while (end > 0 && out.charAt(end - 1) == ' ')
+                end--;
+
+            return out.substring(0, end);
+        }
+
+        private void confirmLabel() {
+            if (labelCut < 0 || labelCandidate < labelCut)
+                labelCut = labelCandidate;
+            labelCandidate = -1;
+
+            // dentro de um bloco aberto o rótulo pode sumir junto com o bloco
+            if (!anySpanOpen()) {
+                out.setLength(labelCut);
+                labelCut = -1;
+                done = true;
+            }
+        }
 
-        // remove múltiplos espaços
-        text = text.replaceAll("\\s+", " ");
+        private boolean anySpanOpen() {
+            for (int start : spanStart)
+                if (start >= 0)
+                    return true;
+            return false;
+        }
 
-        // remove seções de candidatura
-        text = text.replaceAll("(?i)apply(.*?)submit application", "");
-        text = text.replaceAll("(?i)candidatar a esta vaga(.*?)enviar inscrição", "");
+        private void truncate(int position) {
+            out.setLength(position);
+            state = 0;
 
-        // remove labels de formulário
-        text = text.replaceAll("(?i)(nome|sobrenome|email|telefone|currículo|resume|cover letter).*", "");
+            for (int s = 0; s < spanStart.length; s++)
+                if (spanStart[s] >= position)
+                    spanStart[s] = -1;
 
-        // remove menus
-        text = text.replaceAll("(?i)back to jobs", "");
-        text = text.replaceAll("(?i)voltar para vagas", "");
+            if (labelCandidate >= position) labelCandidate = -1;
+            if (labelCut >= position) labelCut = -1;
 
-        return text.trim();
+            if (labelCut >= 0 && !anySpanOpen()) {
+                out.setLength(labelCut);
+                labelCut = -1;
+                done = true;
+            }
+        }
     }
-}
\ No newline at end of file
+}
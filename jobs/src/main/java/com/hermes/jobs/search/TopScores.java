@@ -0,0 +1,99 @@
+package com.hermes.jobs.search;
+
+/**
+ * As {@code capacity} maiores pontuações vistas, em um heap mínimo de pares
+ * primitivos (pontuação, posição da candidata). Em empate vence a posição
+ * menor, como na ordenação estável que substitui, em qualquer ordem de chegada.
+ */
+final class TopScores {
+
+    private final double[] scores;
+    private final int[] positions;
+    private int size;
+
+    TopScores(int capacity) {
+        this.scores = new double[Math.max(0, capacity)];
+        this.positions = new int[Math.max(0, capacity)];
+    }
+
+    /**
+     * Pontuação que uma candidata precisa superar para entrar: a pior do heap
+     * quando cheio, senão {@code floor}.
+     */
+    double threshold(double floor) {
+        return size == scores.length && size > 0 ? Math.max(floor, scores[0]) : floor;
+    }
+
+    void offer(double score, int position) {
+        if (scores.length == 0)
+            return;
+
+        if (size < scores.length) {
+            scores[size] = score;
+            positions[size] = position;
+            siftUp(size++);
+        } else if (score > scores[0] || (score == scores[0] && position < positions[0])) {
+            scores[0] = score;
+            positions[0] = position;
+            siftDown(0);
+        }
+    }
+
+    /** Posições da melhor para a pior; esvazia o heap. */
+    int[] drainBestFirst() {
+        int[] best = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            best[i] = positions[0];
+            size--;
+            scores[0] = scores[size];
+            positions[0] = positions[size];
+            siftDown(0);
+        }
+        return best;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // "menor" = pior: pontuação menor ou, no empate, posição maior
+    private boolean worse(int a, int b) {
+        return scores[a] < scores[b] || (scores[a] == scores[b] && positions[a] > positions[b]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!worse(i, parent))
+                return;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size)
+                return;
+
+            int right = left + 1;
+            int child = right < size && worse(right, left) ? right : left;
+            if (!worse(child, i))
+                return;
+
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+
+        int position = positions[a];
+        positions[a] = positions[b];
+        positions[b] = position;
+    }
+}
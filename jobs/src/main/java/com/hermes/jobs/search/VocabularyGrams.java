@@ -0,0 +1,93 @@
+package com.hermes.jobs.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Vocabulário de um campo com um índice de n-gramas (de 1 a {@value #GRAM}
+ * caracteres) dos tokens. Os tokens que contêm um núcleo de termo saem da
+ * interseção dos bitmaps dos n-gramas do núcleo, conferida token a token só
+ * quando o núcleo é maior que {@value #GRAM}, sem percorrer o vocabulário.
+ *
+ * <p>Não é thread-safe: {@link JobSearchIndex} escreve sob o write lock e lê
+ * sob o read lock.
+ */
+final class VocabularyGrams {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> tokens = new ArrayList<>();
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+    private final Map<String, DocIdBitmap> grams = new HashMap<>();
+
+    void add(String token) {
+        if (ids.containsKey(token))
+            return;
+
+        int id;
+        if (freeIds.isEmpty()) {
+            id = tokens.size();
+            tokens.add(token);
+        } else {
+            id = freeIds.pop();
+            tokens.set(id, token);
+        }
+
+        ids.put(token, id);
+        for (String gram : grams(token))
+            grams.computeIfAbsent(gram, ignored -> new DocIdBitmap()).add(id);
+    }
+
+    void remove(String token) {
+        Integer id = ids.remove(token);
+        if (id == null)
+            return;
+
+        for (String gram : grams(token)) {
+            DocIdBitmap bitmap = grams.get(gram);
+            bitmap.remove(id);
+            if (bitmap.isEmpty())
+                grams.remove(gram);
+        }
+
+        tokens.set(id, null);
+        freeIds.push(id);
+    }
+
+    /** Tokens do vocabulário que contêm {@code core}, que não pode ser vazio. */
+    List<String> containing(String core) {
+        int length = Math.min(GRAM, core.length());
+        DocIdBitmap candidates = null;
+
+        for (int i = 0; i + length <= core.length(); i++) {
+            DocIdBitmap bitmap = grams.get(core.substring(i, i + length));
+            if (bitmap == null)
+                return List.of();
+
+            candidates = candidates == null ? bitmap : DocIdBitmap.and(candidates, bitmap);
+        }
+
+        List<String> result = new ArrayList<>();
+        candidates.forEach(id -> {
+            String token = tokens.get(id);
+            if (core.length() <= GRAM || token.contains(core))
+                result.add(token);
+        });
+        return result;
+    }
+
+    private static Set<String> grams(String token) {
+        Set<String> result = new HashSet<>();
+        for (int length = 1; length <= GRAM; length++)
+            for (int i = 0; i + length <= token.length(); i++)
+                result.add(token.substring(i, i + length));
+        return result;
+    }
+}
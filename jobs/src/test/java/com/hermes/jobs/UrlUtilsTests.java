@@ -0,0 +1,39 @@
+package com.hermes.jobs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class UrlUtilsTests {
+
+    @Test
+    void shouldCanonicalizeAtsUrls() {
+        assertEquals("https://jobs.lever.co/acme/123",
+                UrlUtils.canonicalize(" HTTPS://Jobs.Lever.co/acme/123/apply?lever-source=linkedin#top "));
+        assertEquals("https://boards.greenhouse.io/acme/jobs/42",
+                UrlUtils.canonicalize("https://job-boards.greenhouse.io/acme/jobs/42?gh_src=abc"));
+        assertEquals("https://boards.greenhouse.io/embed/job_app?for=acme&token=42",
+                UrlUtils.canonicalize("https://boards.greenhouse.io/embed/job_app?token=42&for=acme&utm_source=x"));
+        assertEquals("https://acme.gupy.io/jobs/987",
+                UrlUtils.canonicalize("https://acme.gupy.io/jobs/987?jobBoardSource=gupy_public_page"));
+        assertEquals("https://acme.wd5.myworkdayjobs.com/careers/job/Sao-Paulo/Dev_R1",
+                UrlUtils.canonicalize("https://acme.wd5.myworkdayjobs.com/pt-BR/careers/job/Sao-Paulo/Dev_R1/apply"));
+    }
+
+    @Test
+    void shouldDropTrackingParamsAndDefaultsOnOtherSites() {
+        assertEquals("https://acme.com/careers/1?id=7&lang=pt",
+                UrlUtils.canonicalize("https://www.acme.com:443/careers/1/?utm_source=li&lang=pt&id=7&gclid=z"));
+        assertEquals("http://acme.com:8080", UrlUtils.canonicalize("http://acme.com:8080/"));
+        assertEquals("not a url", UrlUtils.canonicalize(" not a url "));
+    }
+
+    @Test
+    void shouldHashCanonicalUrl() {
+        String url = UrlUtils.canonicalize("https://jobs.lever.co/acme/1");
+
+        assertEquals(UrlUtils.hash(url), UrlUtils.hash(UrlUtils.canonicalize("https://jobs.lever.co/acme/1/?ref=x")));
+        assertNotEquals(UrlUtils.hash(url), UrlUtils.hash(UrlUtils.canonicalize("https://jobs.lever.co/acme/2")));
+    }
+}
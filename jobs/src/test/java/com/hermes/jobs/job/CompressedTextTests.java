@@ -0,0 +1,77 @@
+package com.hermes.jobs.job;
+
+import com.hermes.jobs.search.JobSearchText;
+import com.hermes.jobs.search.TextNormalizer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedTextTests {
+
+    @Test
+    void shouldCompressTypicalDescriptionSeveralTimes() {
+        String description = ("<p>Buscamos pessoa desenvolvedora sênior com experiência em Java, Spring Boot, "
+                + "Kafka e PostgreSQL para o time de pagamentos.</p><ul><li>Regime CLT</li><li>Remoto</li></ul>")
+                .repeat(6);
+
+        byte[] stored = CompressedText.compress(description);
+
+        assertTrue(CompressedText.isCompressed(stored));
+        assertTrue(stored.length * 3 < description.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(description, CompressedText.decompress(stored));
+    }
+
+    @Test
+    void shouldKeepShortTextsRaw() {
+        byte[] stored = CompressedText.compress("Java remoto");
+
+        assertFalse(CompressedText.isCompressed(stored));
+        assertEquals("Java remoto", CompressedText.decompress(stored));
+        assertEquals("", CompressedText.decompress(CompressedText.compress("")));
+    }
+
+    @Test
+    void shouldRoundTripNullThroughEntity() {
+        JobEntity job = new JobEntity();
+        job.setDescription(null);
+
+        assertNull(job.getCompressedDescription());
+        assertNull(job.getDescription());
+    }
+
+    @Test
+    void shouldStoreDescriptionAndItsNormalizedCopyInAFractionOfTheRawSize() {
+        String description = """
+                Sobre a vaga: estamos procurando uma pessoa engenheira de software sênior para o time de \
+                pagamentos, responsável pela liquidação de transações com cartão e Pix. Você vai desenhar e \
+                evoluir serviços em Java 21 e Spring Boot, integrados por Kafka, com dados em PostgreSQL e \
+                Redis. Responsabilidades: participar das decisões de arquitetura junto com o time; escrever \
+                código testável, com testes de unidade e de integração; acompanhar métricas e alertas dos \
+                serviços em produção e atuar nos incidentes do seu domínio; revisar o código das outras \
+                pessoas do time e apoiar o desenvolvimento das pessoas mais novas. Requisitos: experiência \
+                sólida com Java e Spring; vivência com mensageria (Kafka, RabbitMQ ou SQS); bancos de dados \
+                relacionais e modelagem de dados; boas práticas de observabilidade (logs estruturados, \
+                métricas, tracing). Diferenciais: Kubernetes, Terraform, AWS; experiência em meios de \
+                pagamento ou no mercado financeiro. Benefícios: regime CLT, vale-refeição ou alimentação, \
+                plano de saúde e odontológico sem coparticipação, auxílio home office, participação nos \
+                lucros, licença parental estendida e horário flexível. Modelo de trabalho: remoto, com \
+                encontros presenciais trimestrais em São Paulo. Na Hermes valorizamos a diversidade e \
+                encorajamos candidaturas de pessoas de todos os grupos sub-representados.""";
+
+        JobEntity job = JobEntity.builder().title("Engenharia de Software Sênior").empresa("hermes").build();
+        job.setDescription(description);
+        JobSearchText.apply(job, description);
+
+        int raw = description.getBytes(StandardCharsets.UTF_8).length
+                + TextNormalizer.normalize(description).getBytes(StandardCharsets.UTF_8).length;
+        int stored = job.getCompressedDescription().length + job.getCompressedNormalizedDescription().length;
+
+        assertTrue(stored * 3 < raw * 2, "armazenado " + stored + " de " + raw + " bytes");
+        assertEquals(TextNormalizer.normalize(description), job.getNormalizedDescription());
+    }
+}
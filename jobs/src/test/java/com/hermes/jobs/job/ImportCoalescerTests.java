@@ -0,0 +1,141 @@
+package com.hermes.jobs.job;
+
+import com.hermes.jobs.job.dto.JobDocument;
+import com.hermes.jobs.job.dto.JobImportRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "jobs.import.coalesce.window=PT0.2S"
+})
+class ImportCoalescerTests {
+
+    private static final int CALLERS = 20;
+
+    @Autowired
+    private ImportCoalescer coalescer;
+
+    @Autowired
+    private JobRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldShareTransactionAcrossConcurrentSingleDocumentImports() throws Exception {
+        List<Callable<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            String url = "https://jobs.lever.co/acme/" + i;
+            calls.add(() -> coalescer.importDocuments(request(url)));
+        }
+
+        List<Integer> results = invokeAll(calls);
+
+        assertEquals(List.of(1), results.stream().distinct().toList());
+        assertEquals(CALLERS, repository.count());
+        assertTrue(statistics.getTransactionCount() < CALLERS / 2,
+                "transações: " + statistics.getTransactionCount());
+    }
+
+    @Test
+    void shouldNotWaitForTheWindowWhenAlone() {
+        coalescer.importDocuments(request("https://jobs.lever.co/acme/warmup"));
+
+        long started = System.nanoTime();
+        assertEquals(1, coalescer.importDocuments(request("https://jobs.lever.co/acme/alone")));
+
+        // a janela desta classe é 200 ms
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofMillis(150)) < 0);
+    }
+
+    @Test
+    void shouldCountImportMetricsOnlyForTheAttemptThatCommits() throws Exception {
+        double before = importedCounter();
+        String tooLong = "https://jobs.lever.co/acme/" + "x".repeat(1200);
+
+        List<Callable<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            String url = i == CALLERS / 2 ? tooLong : "https://jobs.lever.co/acme/metric-" + i;
+            calls.add(() -> coalescer.importDocuments(request(url)));
+        }
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(calls.size())) {
+            executor.invokeAll(calls);
+        }
+
+        assertEquals(CALLERS - 1, repository.count());
+        assertEquals(CALLERS - 1, importedCounter() - before);
+    }
+
+    @Test
+    void shouldIsolateFailingCallerWhenGroupFails() throws Exception {
+        String tooLong = "https://jobs.lever.co/acme/" + "x".repeat(1200);
+
+        List<Callable<Integer>> calls = List.of(
+                () -> coalescer.importDocuments(request("https://jobs.lever.co/acme/ok")),
+                () -> coalescer.importDocuments(request(tooLong))
+        );
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(calls.size())) {
+            List<Future<Integer>> futures = executor.invokeAll(calls);
+
+            assertEquals(1, futures.get(0).get());
+            assertThrows(Exception.class, () -> futures.get(1).get());
+        }
+
+        assertTrue(repository.findByUrl("https://jobs.lever.co/acme/ok").isPresent());
+    }
+
+    private double importedCounter() {
+        Counter counter = meterRegistry.find("hermes_jobs_import_by_source_total")
+                .tags("source", "acme-lever", "source_type", "lever")
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static List<Integer> invokeAll(List<Callable<Integer>> calls) throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(calls.size())) {
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> future : executor.invokeAll(calls))
+                results.add(future.get());
+            return results;
+        }
+    }
+
+    private static JobImportRequest request(String url) {
+        return new JobImportRequest(List.of(
+                new JobDocument(url, "Backend Java", "Remote", "Java and Spring.", "lever", "acme-lever", 0.9, "v4", null)));
+    }
+}
@@ -0,0 +1,256 @@
+package com.hermes.jobs.job;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hermes.jobs.job.dto.ImportBatchResponse;
+import com.hermes.jobs.job.dto.JobDocument;
+import com.hermes.jobs.job.dto.JobImportRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImportJournalTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReturnRecordsAfterCheckpointOnReopen() throws Exception {
+        try (ImportJournal journal = new ImportJournal(directory, 1024)) {
+            long first = journal.append(bytes("a"));
+            long second = journal.append(bytes("b"));
+            long third = journal.append(bytes("c"));
+            journal.sync(third);
+            journal.checkpoint(first);
+
+            assertEquals(second + 1, third);
+        }
+
+        try (ImportJournal journal = new ImportJournal(directory, 1024)) {
+            assertEquals(List.of("b", "c"), payloads(journal));
+            assertEquals(4, journal.append(bytes("d")));
+        }
+    }
+
+    @Test
+    void shouldDropTornRecordAtTail() throws Exception {
+        try (ImportJournal journal = new ImportJournal(directory, 1024)) {
+            journal.sync(journal.append(bytes("inteiro")));
+        }
+
+        Path segment = segments().get(0);
+        Files.write(segment, new byte[]{0, 0, 0, 50, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (ImportJournal journal = new ImportJournal(directory, 1024)) {
+            assertEquals(List.of("inteiro"), payloads(journal));
+            journal.sync(journal.append(bytes("depois")));
+        }
+
+        try (ImportJournal journal = new ImportJournal(directory, 1024)) {
+            assertEquals(List.of("inteiro", "depois"), payloads(journal));
+        }
+    }
+
+    @Test
+    void shouldSyncWhileConcurrentAppendsRollSegments() throws Exception {
+        int threads = 8;
+        int perThread = 2000;
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+
+        // segmentos minúsculos: quase todo append fecha o segmento que um sync pode estar forçando
+        try (ImportJournal journal = new ImportJournal(directory, 64)) {
+            List<Thread> workers = IntStream.range(0, threads)
+                    .mapToObj(t -> new Thread(() -> {
+                        try {
+                            for (int i = 0; i < perThread; i++) {
+                                long sequence = journal.append(bytes(t + "-" + i));
+                                if (i % 2 == t % 2)
+                                    journal.sync(sequence);
+                            }
+                        } catch (Throwable e) {
+                            failures.add(e);
+                        }
+                    }))
+                    .toList();
+            workers.forEach(Thread::start);
+            for (Thread worker : workers)
+                worker.join();
+        }
+
+        assertEquals(List.of(), failures);
+        try (ImportJournal journal = new ImportJournal(directory, 64)) {
+            assertEquals(threads * perThread, journal.pendingRecords());
+            assertEquals(threads * perThread, records(journal).size());
+        }
+    }
+
+    @Test
+    void shouldRollSegmentsAndDeleteCheckpointedOnes() throws Exception {
+        try (ImportJournal journal = new ImportJournal(directory, 64)) {
+            long last = 0;
+            for (int i = 0; i < 10; i++)
+                last = journal.append(bytes("registro-" + "x".repeat(40) + i));
+            journal.sync(last);
+
+            assertEquals(10, segments().size());
+
+            journal.checkpoint(last - 1);
+            assertEquals(1, segments().size());
+        }
+
+        try (ImportJournal journal = new ImportJournal(directory, 64)) {
+            assertEquals(1, journal.pendingRecords());
+            assertEquals(List.of(10L), records(journal).stream().map(ImportJournal.Record::sequence).toList());
+        }
+    }
+
+    @Test
+    void shouldReadOnlySyncedRecordsAcrossSegmentsWhileWriting() throws Exception {
+        try (ImportJournal journal = new ImportJournal(directory, 64)) {
+            journal.checkpoint(journal.append(bytes("já no banco")));
+            ImportJournal.Reader reader = journal.reader();
+
+            long first = journal.append(bytes("primeiro-" + "x".repeat(60)));
+            assertNull(reader.next());
+
+            journal.sync(first);
+            long second = journal.append(bytes("segundo"));
+            assertEquals(first, reader.next().sequence());
+            assertNull(reader.next());
+
+            journal.sync(second);
+            assertEquals("segundo", new String(reader.next().payload(), StandardCharsets.UTF_8));
+            assertEquals(second + 1, reader.position());
+            assertTrue(segments().size() > 1);
+        }
+    }
+
+    @Test
+    void shouldReplayUnfinishedBatchesAfterRestart() throws Exception {
+        ImportProperties properties = new ImportProperties();
+        properties.getJournal().setEnabled(true);
+        properties.getJournal().setDirectory(directory.toString());
+        properties.setRetryBackoff(Duration.ofMillis(5));
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        // banco fora do ar: os lotes ficam só no journal
+        ImportPipeline unavailable = new ImportPipeline(new RecordingService(true), properties, objectMapper,
+                new SimpleMeterRegistry());
+        unavailable.start();
+        UUID first = unavailable.submit(request("https://jobs.lever.co/acme/1")).map(ImportBatchResponse::batchId).orElseThrow();
+        UUID second = unavailable.submit(request("https://jobs.lever.co/acme/2")).map(ImportBatchResponse::batchId).orElseThrow();
+        unavailable.stop();
+
+        RecordingService service = new RecordingService(false);
+        ImportPipeline restarted = new ImportPipeline(service, properties, objectMapper, new SimpleMeterRegistry());
+        restarted.start();
+        try {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!"COMPLETED".equals(restarted.status(second).map(ImportBatchResponse::status).orElse(null)))
+                assertTrue(System.currentTimeMillis() < deadline, "lotes não foram reaplicados");
+
+            assertEquals("COMPLETED", restarted.status(first).orElseThrow().status());
+            assertEquals(List.of("https://jobs.lever.co/acme/1", "https://jobs.lever.co/acme/2"), service.urls);
+        } finally {
+            restarted.stop();
+        }
+
+        try (ImportJournal journal = new ImportJournal(directory, properties.getJournal().getSegmentBytes())) {
+            assertEquals(0, journal.pendingRecords());
+        }
+    }
+
+    @Test
+    void shouldAdmitByPendingJournalBytesInsteadOfQueueSlots() throws Exception {
+        ImportProperties properties = new ImportProperties();
+        properties.setQueueCapacity(1);
+        properties.setRetryBackoff(Duration.ofMillis(5));
+        properties.getJournal().setEnabled(true);
+        properties.getJournal().setDirectory(directory.toString());
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        // cabe em torno de três lotes deste tamanho
+        int entry = objectMapper.writeValueAsBytes(new ImportPipeline.JournalEntry(UUID.randomUUID(),
+                java.time.OffsetDateTime.now(), request("https://jobs.lever.co/acme/0"))).length;
+        properties.getJournal().setMaxPendingBytes(entry * 3L + entry / 2);
+
+        // banco fora do ar: nada sai do journal
+        ImportPipeline pipeline = new ImportPipeline(new RecordingService(true), properties, objectMapper,
+                new SimpleMeterRegistry());
+        pipeline.start();
+        try {
+            List<Boolean> accepted = IntStream.range(0, 5)
+                    .mapToObj(i -> pipeline.submit(request("https://jobs.lever.co/acme/" + i)).isPresent())
+                    .toList();
+
+            assertEquals(List.of(true, true, true, false, false), accepted);
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    private static final class RecordingService extends JobService {
+
+        private final boolean unavailable;
+        private final List<String> urls = new CopyOnWriteArrayList<>();
+
+        RecordingService(boolean unavailable) {
+            super(null, null, null, null, null, null);
+            this.unavailable = unavailable;
+        }
+
+        @Override
+        public ImportResult importDocuments(JobImportRequest request, Executor classification) {
+            if (unavailable)
+                throw new CannotCreateTransactionException("banco indisponível");
+
+            request.jobs().forEach(doc -> urls.add(doc.url()));
+            return new ImportResult(request.jobs().size(), java.util.Map.of());
+        }
+    }
+
+    private static JobImportRequest request(String url) {
+        return new JobImportRequest(List.of(new JobDocument(url, "Backend", "Remote", "Java", "lever", "acme", 0.9, "v4", null)));
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private static List<String> payloads(ImportJournal journal) throws Exception {
+        return records(journal).stream()
+                .map(record -> new String(record.payload(), StandardCharsets.UTF_8))
+                .toList();
+    }
+
+    private static List<ImportJournal.Record> records(ImportJournal journal) throws Exception {
+        ImportJournal.Reader reader = journal.reader();
+        List<ImportJournal.Record> records = new ArrayList<>();
+        for (ImportJournal.Record record = reader.next(); record != null; record = reader.next())
+            records.add(record);
+        return records;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,110 @@
+package com.hermes.jobs.job;
+
+import com.hermes.jobs.job.dto.ImportRequest;
+import com.hermes.jobs.job.dto.JobDocument;
+import com.hermes.jobs.job.dto.JobImportRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "jobs.staleness.enabled=false",
+        "jobs.staleness.chunk-size=2",
+        "jobs.staleness.pause=PT0S"
+})
+class JobArchiveTests {
+
+    private static final String DESCRIPTION = "Java and Spring microservices for payments. ".repeat(40).trim();
+
+    @Autowired
+    private JobService service;
+
+    @Autowired
+    private StalenessSweeper sweeper;
+
+    @Autowired
+    private JobRepository repository;
+
+    @Autowired
+    private ArchivedJobRepository archiveRepository;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        archiveRepository.deleteAll();
+    }
+
+    @Test
+    void shouldMoveInactiveJobsToArchiveWithCompressedDescription() {
+        importDocuments("https://jobs.lever.co/acme/1", "https://jobs.lever.co/acme/2", "https://jobs.lever.co/acme/3");
+        age("https://jobs.lever.co/acme/1", "https://jobs.lever.co/acme/2", "https://jobs.lever.co/acme/3");
+        UUID id = repository.findByUrl("https://jobs.lever.co/acme/1").orElseThrow().getId();
+
+        assertEquals(3, sweeper.sweep());
+
+        assertEquals(0, repository.count());
+        assertEquals(3, archiveRepository.count());
+
+        ArchivedJobEntity archived = archiveRepository.findById(id).orElseThrow();
+        assertEquals("https://jobs.lever.co/acme/1", archived.getUrl());
+        assertTrue(archived.getArquivadoEm().isAfter(archived.getColetadoEm()));
+        assertEquals(DESCRIPTION, archived.getDescription());
+        assertTrue(archived.getCompressedDescription().length < DESCRIPTION.length() / 4);
+    }
+
+    @Test
+    void shouldRestoreArchivedJobWhenCrawlerSeesItAgain() {
+        importDocuments("https://jobs.lever.co/acme/1");
+        UUID id = repository.findByUrl("https://jobs.lever.co/acme/1").orElseThrow().getId();
+        age("https://jobs.lever.co/acme/1");
+        sweeper.sweep();
+
+        importDocuments("https://jobs.lever.co/acme/1?utm_source=linkedin");
+
+        JobEntity restored = repository.findByUrl("https://jobs.lever.co/acme/1").orElseThrow();
+        assertEquals(id, restored.getId());
+        assertTrue(restored.isActive());
+        assertEquals(DESCRIPTION, restored.getDescription());
+        assertEquals(0, archiveRepository.count());
+    }
+
+    @Test
+    void shouldKeepArchivedDetailsWhenRestoredByUrlIndex() {
+        importDocuments("https://jobs.lever.co/acme/1");
+        UUID id = repository.findByUrl("https://jobs.lever.co/acme/1").orElseThrow().getId();
+        age("https://jobs.lever.co/acme/1");
+        sweeper.sweep();
+
+        service.importUrls(new ImportRequest(List.of("https://jobs.lever.co/acme/1")));
+
+        JobEntity restored = repository.findByUrl("https://jobs.lever.co/acme/1").orElseThrow();
+        assertEquals(id, restored.getId());
+        assertTrue(restored.isActive());
+        assertEquals("Backend Java", restored.getTitle());
+        assertEquals(DESCRIPTION, restored.getDescription());
+        assertTrue(archiveRepository.findAll().isEmpty());
+    }
+
+    private void importDocuments(String... urls) {
+        service.importDocuments(new JobImportRequest(List.of(urls).stream()
+                .map(url -> new JobDocument(url, "Backend Java", "Remote", DESCRIPTION, "ats", "acme", 0.9, "v4", null))
+                .toList()));
+    }
+
+    private void age(String... urls) {
+        for (String url : urls) {
+            JobEntity job = repository.findByUrl(url).orElseThrow();
+            job.setColetadoEm(OffsetDateTime.now().minusDays(40));
+            repository.save(job);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.hermes.jobs.job;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hermes.jobs.job.dto.JobDocument;
+import com.hermes.jobs.job.dto.JobImportRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class JobCursorPaginationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JobService service;
+
+    @Autowired
+    private JobRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+
+        // dois lotes: coletadoEm diferente entre eles e empatado dentro de cada um
+        service.importDocuments(request("acme", 0, 3));
+        service.importDocuments(request("globex", 3, 7));
+    }
+
+    @Test
+    void shouldWalkEveryActiveJobOnceInCollectionOrder() throws Exception {
+        List<String> expected = repository.findAll(Sort.by(Sort.Direction.DESC, "coletadoEm", "id")).stream()
+                .map(job -> job.getId().toString())
+                .toList();
+
+        assertEquals(expected, walk("/api/jobs/cursor"));
+    }
+
+    @Test
+    void shouldFilterByDomainAndCompany() throws Exception {
+        assertEquals(3, walk("/api/jobs/domain/jobs.lever.co/cursor").size());
+        assertEquals(4, walk("/api/jobs/search/cursor?q=GLOB").size());
+        assertTrue(walk("/api/jobs/search/cursor?q=gl_bex").isEmpty());
+    }
+
+    @Test
+    void shouldRejectCursorsItDidNotIssue() throws Exception {
+        mockMvc.perform(get("/api/jobs/cursor").param("cursor", "bm9wZQ"))
+                .andExpect(status().isBadRequest());
+
+        // tamanho certo, mas segundos e nanos fora do que Instant aceita
+        byte[] outOfRange = ByteBuffer.allocate(32).putLong(Long.MAX_VALUE).putInt(-1).array();
+        mockMvc.perform(get("/api/jobs/cursor")
+                        .param("cursor", Base64.getUrlEncoder().withoutPadding().encodeToString(outOfRange)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<String> walk(String path) throws Exception {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            var request = get(path + (path.contains("?") ? "&" : "?") + "size=2");
+            if (cursor != null)
+                request.param("cursor", cursor);
+
+            JsonNode slice = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+
+            slice.get("content").forEach(job -> ids.add(job.get("id").asText()));
+            cursor = slice.get("hasNext").asBoolean() ? slice.get("nextCursor").asText() : null;
+            assertFalse(slice.get("content").size() > 2);
+        } while (cursor != null);
+
+        return ids;
+    }
+
+    private static JobImportRequest request(String empresa, int from, int to) {
+        String host = "acme".equals(empresa) ? "jobs.lever.co" : "boards.greenhouse.io";
+        return new JobImportRequest(IntStream.range(from, to)
+                .mapToObj(i -> new JobDocument("https://" + host + "/" + empresa + "/" + i, "Backend Java " + i,
+                        "Remote", "Java and Spring.", "ats", empresa, 0.9, "v4", null))
+                .toList());
+    }
+}
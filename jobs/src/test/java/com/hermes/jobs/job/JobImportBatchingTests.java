@@ -0,0 +1,119 @@
+package com.hermes.jobs.job;
+
+import com.hermes.jobs.job.dto.JobDocument;
+import com.hermes.jobs.job.dto.JobImportRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class JobImportBatchingTests {
+
+    private static final int DOCUMENTS = 250;
+
+    @Autowired
+    private JobService service;
+
+    @Autowired
+    private JobRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldImportBatchWithHandfulOfStatements() {
+        assertEquals(DOCUMENTS, service.importDocuments(request("Backend Java")));
+        long firstImport = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        assertEquals(DOCUMENTS, service.importDocuments(request("Backend Kotlin")));
+        long reimport = statistics.getPrepareStatementCount();
+
+        assertEquals(DOCUMENTS, repository.count());
+        assertTrue(firstImport <= 5, "statements no primeiro import: " + firstImport);
+        assertTrue(reimport <= 5, "statements no reimport: " + reimport);
+        assertTrue(repository.findByUrl("https://jobs.lever.co/acme/7").orElseThrow().getTitle().contains("Kotlin"));
+    }
+
+    @Test
+    void shouldOnlyTouchUnchangedDocumentsOnReimport() {
+        service.importDocuments(request("Backend Java"));
+        JobEntity before = repository.findByUrl("https://jobs.lever.co/acme/7").orElseThrow();
+
+        statistics.clear();
+        assertEquals(DOCUMENTS, service.importDocuments(request("Backend Java")));
+
+        JobEntity after = repository.findByUrl("https://jobs.lever.co/acme/7").orElseThrow();
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 3,
+                "statements no reimport sem mudança: " + statistics.getPrepareStatementCount());
+        assertTrue(after.getColetadoEm().isAfter(before.getColetadoEm()));
+        assertEquals(before.getIngestionTraceId(), after.getIngestionTraceId());
+    }
+
+    @Test
+    void shouldReclassifyWhenContentChanges() {
+        String url = "https://jobs.lever.co/acme/1";
+        service.importDocuments(new JobImportRequest(List.of(document(url, "Backend"))));
+        assertEquals("java,spring", repository.findByUrl(url).orElseThrow().getStacks());
+
+        service.importDocuments(new JobImportRequest(List.of(
+                new JobDocument(url, "Backend", "Remote", "Python and Django.", "lever", "acme-lever", 0.9, "v4", null))));
+
+        assertEquals("django,python", repository.findByUrl(url).orElseThrow().getStacks());
+    }
+
+    @Test
+    void shouldMergeRepeatedUrlWithinSameBatch() {
+        JobImportRequest request = new JobImportRequest(List.of(
+                document("https://jobs.lever.co/acme/1", "Primeira"),
+                document("https://jobs.lever.co/acme/1", "Segunda")
+        ));
+
+        assertEquals(1, service.importDocuments(request));
+        assertEquals("Segunda", repository.findByUrl("https://jobs.lever.co/acme/1").orElseThrow().getTitle());
+    }
+
+    @Test
+    void shouldMergeUrlVariantsIntoCanonicalJob() {
+        service.importDocuments(new JobImportRequest(List.of(
+                document("https://jobs.lever.co/acme/1?lever-source=linkedin", "Primeira"))));
+        service.importDocuments(new JobImportRequest(List.of(
+                document("https://jobs.lever.co/acme/1/apply", "Segunda"))));
+
+        assertEquals(1, repository.count());
+        JobEntity job = repository.findByUrl("https://jobs.lever.co/acme/1/").orElseThrow();
+        assertEquals("https://jobs.lever.co/acme/1", job.getUrl());
+        assertEquals("Segunda", job.getTitle());
+    }
+
+    private static JobImportRequest request(String title) {
+        List<JobDocument> documents = new ArrayList<>();
+        for (int i = 0; i < DOCUMENTS; i++)
+            documents.add(document("https://jobs.lever.co/acme/" + i, title + " " + i));
+        return new JobImportRequest(documents);
+    }
+
+    private static JobDocument document(String url, String title) {
+        return new JobDocument(url, title, "Remote", "Java and Spring.", "lever", "acme-lever", 0.9, "v4", null);
+    }
+}
@@ -0,0 +1,178 @@
+package com.hermes.jobs.job;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hermes.jobs.job.dto.ImportBatchResponse;
+import com.hermes.jobs.job.dto.JobDocument;
+import com.hermes.jobs.job.dto.JobImportRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class JobImportPipelineTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JobRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void shouldAcceptBatchAndReportProgress() throws Exception {
+        Map<String, Object> payload = Map.of("jobs", List.of(
+                document("https://jobs.lever.co/acme/1", "Senior Java Engineer"),
+                document("https://jobs.lever.co/acme/2", "Frontend React Engineer"),
+                document("ftp://jobs.lever.co/acme/3", "Invalid")
+        ));
+
+        String body = mockMvc.perform(post("/api/jobs/import/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(payload)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.documents").value(3))
+                .andReturn().getResponse().getContentAsString();
+
+        String batchId = objectMapper.readTree(body).get("batchId").asText();
+        JsonNode status = awaitFinished(batchId);
+
+        assertEquals("COMPLETED", status.get("status").asText());
+        assertEquals(2, status.get("imported").asInt());
+        assertEquals(1, status.get("rejected").get("invalid_url").asInt());
+        assertEquals("senior", repository.findByUrl("https://jobs.lever.co/acme/1").orElseThrow().getSeniority());
+        assertEquals("react", repository.findByUrl("https://jobs.lever.co/acme/2").orElseThrow().getStacks());
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownBatch() throws Exception {
+        mockMvc.perform(get("/api/jobs/import/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldRetryTransientDatabaseErrorsWithoutJournal() throws Exception {
+        ImportProperties properties = new ImportProperties();
+        properties.setRetryAttempts(3);
+        properties.setRetryBackoff(Duration.ofMillis(5));
+
+        FlakyService recovers = new FlakyService(2);
+        ImportPipeline pipeline = new ImportPipeline(recovers, properties, objectMapper, new SimpleMeterRegistry());
+        pipeline.start();
+        try {
+            UUID batchId = pipeline.submit(request()).map(ImportBatchResponse::batchId).orElseThrow();
+            assertEquals("COMPLETED", awaitFinished(pipeline, batchId).status());
+            assertEquals(3, recovers.calls.get());
+        } finally {
+            pipeline.stop();
+        }
+
+        FlakyService down = new FlakyService(Integer.MAX_VALUE);
+        pipeline = new ImportPipeline(down, properties, objectMapper, new SimpleMeterRegistry());
+        pipeline.start();
+        try {
+            UUID batchId = pipeline.submit(request()).map(ImportBatchResponse::batchId).orElseThrow();
+            assertEquals("FAILED", awaitFinished(pipeline, batchId).status());
+            assertEquals(3, down.calls.get());
+        } finally {
+            pipeline.stop();
+        }
+    }
+
+    private static ImportBatchResponse awaitFinished(ImportPipeline pipeline, UUID batchId) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+
+        while (true) {
+            ImportBatchResponse status = pipeline.status(batchId).orElseThrow();
+            if (status.status().equals("COMPLETED") || status.status().equals("FAILED"))
+                return status;
+
+            assertTrue(System.currentTimeMillis() < deadline, "lote não concluiu: " + status);
+            Thread.sleep(5);
+        }
+    }
+
+    private static JobImportRequest request() {
+        return new JobImportRequest(List.of(new JobDocument("https://jobs.lever.co/acme/retry", "Backend", "Remote",
+                "Java", "lever", "acme", 0.9, "v4", null)));
+    }
+
+    // banco fora do ar nas primeiras chamadas
+    private static final class FlakyService extends JobService {
+
+        private final int failures;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        FlakyService(int failures) {
+            super(null, null, null, null, null, null);
+            this.failures = failures;
+        }
+
+        @Override
+        public ImportResult importDocuments(JobImportRequest request, Executor classification) {
+            if (calls.incrementAndGet() <= failures)
+                throw new CannotCreateTransactionException("banco indisponível");
+
+            return new ImportResult(request.jobs().size(), Map.of());
+        }
+    }
+
+    private JsonNode awaitFinished(String batchId) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+
+        while (true) {
+            String body = mockMvc.perform(get("/api/jobs/import/" + batchId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            JsonNode status = objectMapper.readTree(body);
+            String state = status.get("status").asText();
+            if (state.equals("COMPLETED") || state.equals("FAILED"))
+                return status;
+
+            assertTrue(System.currentTimeMillis() < deadline, "lote não concluiu: " + body);
+            Thread.sleep(20);
+        }
+    }
+
+    private static Map<String, Object> document(String url, String title) {
+        return Map.of(
+                "url", url,
+                "title", title,
+                "location", "Remote",
+                "description", title + " role.",
+                "sourceType", "lever",
+                "sourceName", "acme-lever"
+        );
+    }
+}
@@ -0,0 +1,146 @@
+package com.hermes.jobs.job;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hermes.jobs.job.dto.ImportChunkResponse;
+import com.hermes.jobs.job.dto.JobImportRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "jobs.import.stream-chunk-size=2")
+@AutoConfigureMockMvc
+class JobStreamImportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JobRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void shouldImportNdjsonInChunks() throws Exception {
+        List<JsonNode> chunks = stream(ndjson(5).getBytes(StandardCharsets.UTF_8), "application/x-ndjson", 0);
+
+        assertEquals(3, chunks.size());
+        assertEquals(List.of(0L, 2L, 4L), chunks.stream().map(chunk -> chunk.get("offset").asLong()).toList());
+        assertEquals(5, chunks.get(2).get("next").asLong());
+        assertEquals(5, repository.count());
+    }
+
+    @Test
+    void shouldAcceptGzipAndResumeWithSkip() throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(ndjson(5).getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<JsonNode> chunks = stream(compressed.toByteArray(), "application/gzip", 3);
+
+        assertEquals(1, chunks.size());
+        assertEquals(3, chunks.get(0).get("offset").asLong());
+        assertEquals(2, chunks.get(0).get("imported").asInt());
+        assertTrue(repository.findByUrl("https://jobs.lever.co/acme/4").isPresent());
+        assertTrue(repository.findByUrl("https://jobs.lever.co/acme/0").isEmpty());
+    }
+
+    @Test
+    void shouldKeepCommittedChunksAndReportResumePointOnMalformedLine() throws Exception {
+        String body = ndjson(3) + "{\"url\": \n";
+
+        List<JsonNode> chunks = stream(body.getBytes(StandardCharsets.UTF_8), "application/x-ndjson", 0);
+        JsonNode last = chunks.get(chunks.size() - 1);
+
+        assertTrue(last.get("error").asText().contains("documento 3"));
+        assertEquals(3, last.get("next").asLong());
+        assertEquals(3, repository.count());
+    }
+
+    @Test
+    void shouldReportResumePointWhenChunkFailsToCommit() throws Exception {
+        ImportProperties properties = new ImportProperties();
+        properties.setStreamChunkSize(2);
+        JobStreamImporter importer = new JobStreamImporter(new FailingService(2), properties, objectMapper);
+
+        List<ImportChunkResponse> chunks = new ArrayList<>();
+        importer.importStream(new ByteArrayInputStream(ndjson(5).getBytes(StandardCharsets.UTF_8)), 0, chunks::add);
+
+        assertEquals(2, chunks.size());
+        assertNull(chunks.get(0).error());
+        assertEquals(2, chunks.get(1).offset());
+        assertEquals(2, chunks.get(1).next());
+        assertEquals(0, chunks.get(1).imported());
+        assertTrue(chunks.get(1).error().contains("documento 2"));
+    }
+
+    private List<JsonNode> stream(byte[] body, String contentType, long skip) throws Exception {
+        String response = mockMvc.perform(post("/api/jobs/import/stream")
+                        .param("skip", Long.toString(skip))
+                        .contentType(contentType)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : response.split("\n"))
+            if (!line.isBlank())
+                lines.add(objectMapper.readTree(line));
+        return lines;
+    }
+
+    private static String ndjson(int documents) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < documents; i++)
+            body.append("{\"url\":\"https://jobs.lever.co/acme/").append(i)
+                    .append("\",\"title\":\"Backend Java ").append(i)
+                    .append("\",\"location\":\"Remote\",\"description\":\"Java and Spring.\"}\n");
+        return body.toString();
+    }
+
+    // banco cai a partir do bloco de número failingChunk (1 = primeiro)
+    private static final class FailingService extends JobService {
+
+        private final int failingChunk;
+        private int chunks;
+
+        FailingService(int failingChunk) {
+            super(null, null, null, null, null, null);
+            this.failingChunk = failingChunk;
+        }
+
+        @Override
+        public ImportResult importDocuments(JobImportRequest request, Executor classification) {
+            if (++chunks >= failingChunk)
+                throw new DataAccessResourceFailureException("conexão perdida");
+
+            return new ImportResult(request.jobs().size(), Map.of());
+        }
+    }
+}
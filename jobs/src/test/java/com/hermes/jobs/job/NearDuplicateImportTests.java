@@ -0,0 +1,81 @@
+package com.hermes.jobs.job;
+
+import com.hermes.jobs.job.dto.JobDocument;
+import com.hermes.jobs.job.dto.JobImportRequest;
+import com.hermes.jobs.search.SearchFacetsResponse;
+import com.hermes.jobs.search.SearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+class NearDuplicateImportTests {
+
+    private static final String TITLE = "Senior Payments Engineer";
+    private static final String POSTING = "About the role: we are looking for an engineer with strong Java and "
+            + "Spring experience to build our payments platform. You will design microservices, mentor the team "
+            + "and own production services on AWS with Kubernetes and Postgres. Responsibilities include designing "
+            + "resilient APIs, improving observability with metrics and tracing, reviewing code, and working closely "
+            + "with product managers to plan the roadmap for card acquiring, settlement and reconciliation. "
+            + "Requirements: five years building backend systems, solid knowledge of SQL, messaging with Kafka, "
+            + "automated testing and continuous delivery. We offer remote work, flexible hours and stock options.";
+    private static final String FRONTEND = "About the role: we are looking for an engineer with strong React and "
+            + "TypeScript experience to build our merchant dashboard. You will design components, mentor the team "
+            + "and own the design system used across web products. Responsibilities include building accessible "
+            + "interfaces, improving performance with profiling and lazy loading, reviewing code, and working "
+            + "closely with designers to plan the roadmap for onboarding, reporting and billing screens. "
+            + "Requirements: five years building web applications, solid knowledge of CSS, state management, "
+            + "automated testing and continuous delivery. We offer remote work, flexible hours and stock options.";
+
+    @Autowired
+    private JobService service;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private JobRepository repository;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void shouldLinkSamePostingAcrossAtsAndCollapseInSearch() {
+        service.importDocuments(new JobImportRequest(List.of(
+                document("https://jobs.lever.co/acme/1", TITLE, POSTING))));
+        service.importDocuments(new JobImportRequest(List.of(
+                document("https://boards.greenhouse.io/acme/jobs/77", TITLE.toUpperCase(), POSTING + " Apply today!"),
+                document("https://jobs.lever.co/acme/2", "Senior Frontend Engineer", FRONTEND))));
+
+        JobEntity lever = repository.findByUrl("https://jobs.lever.co/acme/1").orElseThrow();
+        JobEntity greenhouse = repository.findByUrl("https://boards.greenhouse.io/acme/jobs/77").orElseThrow();
+        JobEntity frontend = repository.findByUrl("https://jobs.lever.co/acme/2").orElseThrow();
+
+        assertNotNull(lever.getDuplicateGroup());
+        assertEquals(lever.getDuplicateGroup(), greenhouse.getDuplicateGroup());
+        assertNotEquals(lever.getDuplicateGroup(), frontend.getDuplicateGroup());
+
+        List<String> urls = searchService.search("senior payments java", PageRequest.of(0, 10))
+                .map(JobEntity::getUrl)
+                .getContent();
+        assertEquals(1, urls.stream().filter(url -> !url.equals(frontend.getUrl())).count(), urls.toString());
+
+        // as facetas contam o mesmo conjunto que a busca mostra
+        SearchFacetsResponse facets = searchService.facets("senior payments java");
+        assertEquals(1, facets.stacks().get("java"), facets.toString());
+    }
+
+    private static JobDocument document(String url, String title, String description) {
+        return new JobDocument(url, title, "Remote", description, "ats", "acme", 0.9, "v4", null);
+    }
+}
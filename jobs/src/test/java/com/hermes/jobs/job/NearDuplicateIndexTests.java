@@ -0,0 +1,61 @@
+package com.hermes.jobs.job;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class NearDuplicateIndexTests {
+
+    private static final long BASE = 0x9e3779b97f4a7c15L;
+
+    @Test
+    void shouldFindNeighboursWhoseDifferingBitsAreSpreadAcrossAllBands() {
+        NearDuplicateIndex index = new NearDuplicateIndex(null);
+        index.onJobsImported(new JobsImportedEvent(List.of(indexed(BASE, BASE))));
+
+        // 6 bits: 1, 2, 2 e 1 por banda de 16; nenhuma banda igual
+        long spread = flip(BASE, 0, 16, 17, 32, 33, 48);
+        assertEquals(BASE, index.session().groupOf(UUID.randomUUID(), spread));
+
+        long tooFar = flip(BASE, 0, 1, 16, 17, 32, 33, 48);
+        assertEquals(tooFar, index.session().groupOf(UUID.randomUUID(), tooFar));
+    }
+
+    @Test
+    void shouldAnchorGroupOnRepresentativeInsteadOfChaining() {
+        long neighbour = flip(BASE, 0, 1, 2, 3);
+        long neighbourOfNeighbour = flip(neighbour, 20, 21, 22, 23);
+
+        NearDuplicateIndex index = new NearDuplicateIndex(null);
+        index.onJobsImported(new JobsImportedEvent(List.of(indexed(BASE, BASE), indexed(neighbour, BASE))));
+
+        // a 4 bits de neighbour, mas a 8 do representante
+        assertNotEquals(BASE, index.session().groupOf(UUID.randomUUID(), neighbourOfNeighbour));
+
+        NearDuplicateIndex.Session session = new NearDuplicateIndex(null).session();
+        assertEquals(BASE, session.groupOf(UUID.randomUUID(), BASE));
+        assertEquals(BASE, session.groupOf(UUID.randomUUID(), neighbour));
+        assertEquals(neighbourOfNeighbour, session.groupOf(UUID.randomUUID(), neighbourOfNeighbour));
+    }
+
+    private static JobEntity indexed(long simHash, long group) {
+        return JobEntity.builder()
+                .id(UUID.randomUUID())
+                .simHash(simHash)
+                .duplicateGroup(group)
+                .coletadoEm(OffsetDateTime.now())
+                .active(true)
+                .build();
+    }
+
+    private static long flip(long value, int... bits) {
+        for (int bit : bits)
+            value ^= 1L << bit;
+        return value;
+    }
+}
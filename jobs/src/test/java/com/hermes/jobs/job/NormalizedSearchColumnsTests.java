@@ -0,0 +1,106 @@
+package com.hermes.jobs.job;
+
+import com.hermes.jobs.job.dto.ImportRequest;
+import com.hermes.jobs.job.dto.JobDocument;
+import com.hermes.jobs.job.dto.JobImportRequest;
+import com.hermes.jobs.search.TextNormalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@SpringBootTest(properties = {
+        "jobs.staleness.enabled=false",
+        "jobs.staleness.pause=PT0S"
+})
+class NormalizedSearchColumnsTests {
+
+    private static final String URL = "https://jobs.lever.co/acme/42";
+
+    @Autowired
+    private JobService service;
+
+    @Autowired
+    private StalenessSweeper sweeper;
+
+    @Autowired
+    private JobRepository repository;
+
+    @Autowired
+    private ArchivedJobRepository archiveRepository;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        archiveRepository.deleteAll();
+    }
+
+    @Test
+    void shouldPersistNormalizedColumnsOnImport() {
+        importDocument("Engenheiro de Dados SÊNIOR", "São Paulo – Híbrido", "Construção de pipelines em Python e Spark.");
+
+        JobEntity job = repository.findByUrl(URL).orElseThrow();
+        assertNormalized(job);
+        assertEquals("engenheiro de dados senior", job.getNormalizedTitle());
+    }
+
+    @Test
+    void shouldRefreshNormalizedColumnsOnUpdate() {
+        importDocument("Engenheiro de Dados", "São Paulo", "Pipelines em Python.");
+        importDocument("Desenvolvedora Back-end JAVA", "Belo Horizonte · Remoto", "Microsserviços com Spring e Kafka.");
+
+        JobEntity job = repository.findByUrl(URL).orElseThrow();
+        assertNormalized(job);
+        assertEquals("desenvolvedora back-end java", job.getNormalizedTitle());
+    }
+
+    @Test
+    void shouldRebuildNormalizedColumnsOnRestore() {
+        importDocument("Analista de Segurança", "Florianópolis", "Resposta a incidentes e análise forense.");
+        archive();
+
+        importDocument("Analista de Segurança", "Florianópolis", "Resposta a incidentes e análise forense.");
+
+        assertNormalized(repository.findByUrl(URL).orElseThrow());
+    }
+
+    @Test
+    void shouldRebuildNormalizedColumnsOnRestoreByUrlIndex() {
+        importDocument("Analista de Segurança", "Florianópolis", "Resposta a incidentes e análise forense.");
+        archive();
+
+        service.importUrls(new ImportRequest(List.of(URL)));
+
+        JobEntity job = repository.findByUrl(URL).orElseThrow();
+        assertNormalized(job);
+        assertEquals("analista de seguranca", job.getNormalizedTitle());
+    }
+
+    private void assertNormalized(JobEntity job) {
+        assertEquals(TextNormalizer.normalize(job.getTitle()), job.getNormalizedTitle());
+        assertEquals(TextNormalizer.normalize(job.getEmpresa()), job.getNormalizedCompany());
+        assertEquals(TextNormalizer.normalize(job.getLocation()), job.getNormalizedLocation());
+        assertEquals(TextNormalizer.normalize(job.getDescription()), job.getNormalizedDescription());
+        assertNotEquals(job.getDescription(), job.getNormalizedDescription());
+    }
+
+    private void importDocument(String title, String location, String description) {
+        service.importDocuments(new JobImportRequest(List.of(
+                new JobDocument(URL, title, location, description, "ats", "acme", 0.9, "v4", null))));
+    }
+
+    private void archive() {
+        JobEntity job = repository.findByUrl(URL).orElseThrow();
+        job.setColetadoEm(OffsetDateTime.now().minusDays(40));
+        repository.save(job);
+
+        assertEquals(1, sweeper.sweep());
+        assertEquals(0, repository.count());
+    }
+}
@@ -0,0 +1,94 @@
+package com.hermes.jobs.job;
+
+import com.hermes.jobs.job.dto.JobDocument;
+import com.hermes.jobs.job.dto.JobImportRequest;
+import com.hermes.jobs.search.JobSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "jobs.staleness.enabled=false",
+        "jobs.staleness.chunk-size=2",
+        "jobs.staleness.pause=PT0S",
+        "jobs.staleness.default-ttl=P30D",
+        "jobs.staleness.ttl.greenhouse=P1D",
+        "jobs.staleness.archive.enabled=false"
+})
+class StalenessSweeperTests {
+
+    @Autowired
+    private JobService service;
+
+    @Autowired
+    private StalenessSweeper sweeper;
+
+    @Autowired
+    private JobRepository repository;
+
+    @Autowired
+    private JobSearchIndex searchIndex;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void shouldDeactivateJobsOlderThanSourceTtlInChunks() {
+        List<JobDocument> docs = new ArrayList<>(IntStream.range(0, 5)
+                .mapToObj(i -> document("https://jobs.lever.co/acme/" + i))
+                .toList());
+        docs.add(document("https://boards.greenhouse.io/acme/jobs/1"));
+        docs.add(document("https://jobs.lever.co/acme/fresh"));
+        service.importDocuments(new JobImportRequest(docs));
+
+        age("https://jobs.lever.co/acme/", 40, 5);
+        age("https://boards.greenhouse.io/acme/jobs/", 2, 1);
+        int indexed = searchIndex.size();
+
+        assertEquals(6, sweeper.sweep());
+
+        assertTrue(repository.findByUrl("https://jobs.lever.co/acme/fresh").orElseThrow().isActive());
+        assertFalse(repository.findByUrl("https://jobs.lever.co/acme/0").orElseThrow().isActive());
+        assertFalse(repository.findByUrl("https://boards.greenhouse.io/acme/jobs/1").orElseThrow().isActive());
+        assertEquals(indexed - 6, searchIndex.size());
+        assertEquals(0, sweeper.sweep());
+    }
+
+    @Test
+    void shouldReactivateWhenJobIsCollectedAgain() {
+        service.importDocuments(new JobImportRequest(List.of(document("https://jobs.lever.co/acme/9"))));
+        age("https://jobs.lever.co/acme/", 40, 1);
+        assertEquals(1, sweeper.sweep());
+        int indexed = searchIndex.size();
+
+        service.importDocuments(new JobImportRequest(List.of(document("https://jobs.lever.co/acme/9"))));
+
+        assertTrue(repository.findByUrl("https://jobs.lever.co/acme/9").orElseThrow().isActive());
+        assertEquals(indexed + 1, searchIndex.size());
+    }
+
+    private void age(String urlPrefix, int days, int expected) {
+        List<JobEntity> jobs = repository.findAll().stream()
+                .filter(job -> job.getUrl().startsWith(urlPrefix) && !job.getUrl().endsWith("fresh"))
+                .toList();
+        jobs.forEach(job -> job.setColetadoEm(OffsetDateTime.now().minusDays(days)));
+        repository.saveAll(jobs);
+        assertEquals(expected, jobs.size());
+    }
+
+    private static JobDocument document(String url) {
+        return new JobDocument(url, "Backend Java", "Remote", "Java and Spring.", "ats", "acme", 0.9, "v4", null);
+    }
+}
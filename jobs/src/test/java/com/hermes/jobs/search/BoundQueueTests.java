@@ -0,0 +1,61 @@
+package com.hermes.jobs.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundQueueTests {
+
+    @Test
+    void shouldPollHighestBoundFirstAndLowerPositionOnTie() {
+        BoundQueue queue = new BoundQueue(new float[]{2, 5, 0, 5, -1, Float.POSITIVE_INFINITY});
+
+        List<Integer> order = new ArrayList<>();
+        while (!queue.isEmpty())
+            order.add(queue.poll());
+
+        assertEquals(List.of(5, 1, 3, 0, 2, 4), order);
+    }
+
+    @Test
+    void shouldMatchStableSortOfRandomBounds() {
+        Random random = new Random(11);
+        float[] bounds = new float[700];
+        for (int i = 0; i < bounds.length; i++)
+            bounds[i] = random.nextInt(30) - 5 + (random.nextBoolean() ? 0.5f : 0);
+
+        List<Integer> expected = IntStream.range(0, bounds.length).boxed()
+                .sorted((a, b) -> Float.compare(bounds[b], bounds[a]))
+                .toList();
+
+        BoundQueue queue = new BoundQueue(bounds);
+        List<Integer> order = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            assertEquals(bounds[expected.get(order.size())], queue.peekBound());
+            order.add(queue.poll());
+        }
+
+        assertEquals(expected, order);
+    }
+
+    @Test
+    void shouldVisitRemainingPositionsAfterStoppingEarly() {
+        BoundQueue queue = new BoundQueue(new float[]{1, 4, 3, 2});
+        queue.poll();
+        queue.poll();
+
+        Set<Integer> remaining = new HashSet<>();
+        queue.forEachRemaining(remaining::add);
+
+        assertEquals(Set.of(0, 3), remaining);
+        assertTrue(new BoundQueue(new float[0]).isEmpty());
+    }
+}
@@ -0,0 +1,73 @@
+package com.hermes.jobs.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocIdBitmapTests {
+
+    @Test
+    void shouldBehaveLikeSortedSetAcrossArrayAndBitmapContainers() {
+        Random random = new Random(42);
+        DocIdBitmap a = new DocIdBitmap();
+        DocIdBitmap b = new DocIdBitmap();
+        TreeSet<Integer> expectedA = new TreeSet<>();
+        TreeSet<Integer> expectedB = new TreeSet<>();
+
+        // denso no primeiro container (vira bitmap), esparso nos demais
+        for (int i = 0; i < 20_000; i++) {
+            int dense = random.nextInt(30_000);
+            int sparse = random.nextInt(400_000);
+            a.add(dense);
+            expectedA.add(dense);
+            b.add(sparse);
+            expectedB.add(sparse);
+        }
+
+        for (int i = 0; i < 15_000; i++) {
+            int value = random.nextInt(30_000);
+            a.remove(value);
+            expectedA.remove(value);
+        }
+
+        assertContent(expectedA, a);
+        assertContent(expectedB, b);
+
+        TreeSet<Integer> and = new TreeSet<>(expectedA);
+        and.retainAll(expectedB);
+        assertContent(and, DocIdBitmap.and(a, b));
+        assertEquals(and.size(), DocIdBitmap.andCardinality(a, b));
+
+        TreeSet<Integer> or = new TreeSet<>(expectedA);
+        or.addAll(expectedB);
+        assertContent(or, DocIdBitmap.or(a, b));
+    }
+
+    @Test
+    void shouldNotMutateOperandsOfSetOperations() {
+        DocIdBitmap a = new DocIdBitmap();
+        DocIdBitmap b = new DocIdBitmap();
+        a.add(1);
+        b.add(2);
+
+        DocIdBitmap or = DocIdBitmap.or(a, b);
+        or.add(3);
+
+        assertTrue(a.contains(1));
+        assertFalse(a.contains(3));
+        assertEquals(1, b.cardinality());
+    }
+
+    private static void assertContent(TreeSet<Integer> expected, DocIdBitmap actual) {
+        assertEquals(expected.size(), actual.cardinality());
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), actual.toArray());
+        for (int value : expected)
+            assertTrue(actual.contains(value));
+    }
+}
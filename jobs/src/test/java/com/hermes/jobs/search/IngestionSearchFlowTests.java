@@ -2,16 +2,24 @@ package com.hermes.jobs.search;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hermes.jobs.job.JobRepository;
+import com.hermes.jobs.job.JobService;
+import com.hermes.jobs.job.dto.JobDocument;
+import com.hermes.jobs.job.dto.JobImportRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -29,11 +37,40 @@ class IngestionSearchFlowTests {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JobService service;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private JobSearchIndex searchIndex;
+
     @BeforeEach
     void setup() {
         repository.deleteAll();
     }
 
+    @Test
+    void shouldDropJobsDeactivatedOrDeletedByAnotherInstanceOnReconcile() {
+        service.importDocuments(new JobImportRequest(List.of(
+                new JobDocument("https://jobs.lever.co/acme/xenotime-1", "Xenotime Engineer", "Remote",
+                        "Xenotime pipelines.", "ats", "acme", 0.9, "v4", null),
+                new JobDocument("https://jobs.lever.co/acme/xenotime-2", "Xenotime Analyst", "Remote",
+                        "Xenotime reports.", "ats", "acme", 0.9, "v4", null))));
+        assertEquals(2, searchService.search("xenotime", PageRequest.of(0, 10)).getTotalElements());
+
+        // direto no banco, sem os eventos locais: como o sweeper e o arquivamento de outra instância
+        UUID deactivated = repository.findByUrl("https://jobs.lever.co/acme/xenotime-1").orElseThrow().getId();
+        UUID deleted = repository.findByUrl("https://jobs.lever.co/acme/xenotime-2").orElseThrow().getId();
+        repository.deactivate(List.of(deactivated), OffsetDateTime.now().plusMinutes(1));
+        repository.deleteAllByIdInBatch(List.of(deleted));
+
+        searchIndex.reconcile();
+
+        assertEquals(0, searchService.search("xenotime", PageRequest.of(0, 10)).getTotalElements());
+    }
+
     @Test
     void shouldImportFromCrawlerPayloadAndReturnRankedVersionedSearchResults() throws Exception {
         Map<String, Object> importPayload = Map.of(
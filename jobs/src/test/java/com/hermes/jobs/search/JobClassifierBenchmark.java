@@ -0,0 +1,113 @@
+package com.hermes.jobs.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.text.Normalizer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Vagas classificadas por segundo: motor compilado x implementação anterior
+ * (um Pattern.compile por stack por documento). Ver
+ * docs/TEXT_PIPELINE_BENCHMARK.md.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobClassifierBenchmark {
+
+    private static final String DOCUMENT = """
+            Pessoa Desenvolvedora Backend Sênior - São Paulo (Híbrido)
+            Buscamos alguém para atuar com Java 21, Spring Boot e Kafka em microsserviços.
+            Stack: PostgreSQL, Redis, Docker, Kubernetes e AWS. Desejável Node.js ou Go.
+            Você vai trabalhar com squads de produto, revisar código e apoiar pessoas Jr e Pleno.
+            Benefícios: VR/VA, plano de saúde, Gympass e auxílio home office.
+            """.repeat(3);
+
+    @Benchmark
+    public JobClassifier.ClassificationResult compiled() {
+        return JobClassifier.classify(DOCUMENT);
+    }
+
+    @Benchmark
+    public Object legacyRegex() {
+        return LegacyClassifier.classify(DOCUMENT);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JobClassifierBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    // implementação anterior, mantida só como baseline
+    private static final class LegacyClassifier {
+
+        private static final Set<String> STACKS = Set.of(
+                "java", "spring", "kotlin", "python", "django", "flask", "fastapi",
+                "node", "nodejs", "typescript", "javascript", "react", "angular", "vue", "next", "nestjs",
+                "c#", ".net", "dotnet", "golang", "go", "php", "laravel", "ruby", "rails",
+                "docker", "kubernetes", "terraform", "aws", "azure", "gcp",
+                "sql", "postgres", "postgresql", "mysql", "mongodb", "redis",
+                "html", "css", "sass", "tailwind", "android", "ios", "swift", "flutter", "react-native"
+        );
+
+        private static final Map<String, Pattern> SENIORITY = Map.of(
+                "intern", Pattern.compile("\\b(estagio|estagiario|intern(ship)?)\\b"),
+                "junior", Pattern.compile("\\b(junior|jr)\\b"),
+                "mid", Pattern.compile("\\b(pleno|mid|middle)\\b"),
+                "senior", Pattern.compile("\\b(senior|sr)\\b"),
+                "lead", Pattern.compile("\\b(lead|tech lead|principal|staff|head)\\b")
+        );
+
+        private static final List<String> SENIORITY_ORDER = List.of("intern", "junior", "mid", "senior", "lead");
+
+        private static final Map<String, Pattern> WORKMODE = Map.of(
+                "remote", Pattern.compile("\\b(100%\\s*)?(remote|remoto|work\\s*from\\s*home|anywhere)\\b"),
+                "hybrid", Pattern.compile("\\b(hybrid|hibrido|híbrido)\\b"),
+                "onsite", Pattern.compile("\\b(onsite|on-site|presencial)\\b")
+        );
+
+        static Object[] classify(String rawText) {
+            String text = Normalizer.normalize(rawText.toLowerCase(), Normalizer.Form.NFD)
+                    .replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
+
+            Set<String> found = new HashSet<>();
+            for (String stack : STACKS)
+                if (Pattern.compile("\\b" + Pattern.quote(stack) + "\\b").matcher(text).find())
+                    found.add(stack);
+
+            String level = null;
+            for (String candidate : SENIORITY_ORDER)
+                if (SENIORITY.get(candidate).matcher(text).find())
+                    level = candidate;
+
+            String workMode = null;
+            for (var e : WORKMODE.entrySet())
+                if (e.getValue().matcher(text).find()) {
+                    workMode = e.getKey();
+                    break;
+                }
+
+            return new Object[]{found, level, workMode};
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.hermes.jobs.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JobClassifierTests {
+
+    @Test
+    void shouldMatchStacksOnWordBoundaries() {
+        var result = JobClassifier.classify("JavaScript e TypeScript com Node.js, Go; sem java puro? Goiânia.");
+
+        assertEquals(Set.of("javascript", "typescript", "node", "go", "java"), result.stacks());
+    }
+
+    @Test
+    void shouldMatchTermsWithSymbolsAndPhrases() {
+        var result = JobClassifier.classify("Dev C# / ASP.NET e .NET Core, apps React-Native e React. Tech   Lead.");
+
+        assertEquals(Set.of("c#", ".net", "react-native", "react"), result.stacks());
+        assertEquals("lead", result.seniority());
+    }
+
+    @Test
+    void shouldPickHighestSeniorityAndFoldAccents() {
+        assertEquals("senior", JobClassifier.classify("Estágio? Não: vaga Sênior (ex-Jr)").seniority());
+        assertEquals("intern", JobClassifier.classify("Programa de ESTÁGIO 2026").seniority());
+        assertNull(JobClassifier.classify("Analista de sistemas").seniority());
+    }
+
+    @Test
+    void shouldDetectWorkModeWithDeterministicPriority() {
+        assertEquals("hybrid", JobClassifier.classify("Modelo Híbrido em SP").workMode());
+        assertEquals("remote", JobClassifier.classify("Work\nfrom home ou presencial").workMode());
+        assertEquals("onsite", JobClassifier.classify("Trabalho on-site").workMode());
+        assertNull(JobClassifier.classify("workfromhome e remotely").workMode());
+        assertNull(JobClassifier.classify(null).workMode());
+    }
+}
@@ -0,0 +1,241 @@
+package com.hermes.jobs.search;
+
+import com.hermes.jobs.job.JobEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JobSearchIndexTests {
+
+    private JobSearchIndex index;
+    private JobEntity backend;
+    private JobEntity frontend;
+
+    @BeforeEach
+    void setup() {
+        index = new JobSearchIndex(null, new SimpleMeterRegistry());
+
+        backend = job("Senior Backend Engineer", "Strong Java and Spring experience for backend platform and microservices.",
+                "java,spring", "senior", "remote", "São Paulo, Brasil");
+        frontend = job("Frontend Engineer", "React and TypeScript role.",
+                "react,typescript", "mid", "hybrid", "Lisboa, Portugal");
+
+        index.index(List.of(backend, frontend));
+    }
+
+    @Test
+    void shouldMatchStructuredFiltersByToken() {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.stacks.add("java");
+        criteria.seniorities.add(Seniority.SENIOR);
+        criteria.workModes.add("remote");
+        criteria.areas.add(Area.BACKEND);
+
+        assertEquals(List.of(backend.getId()), ids(search(criteria)));
+    }
+
+    @Test
+    void shouldRequireEveryTokenOfMultiWordFreeTextTerm() {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.freeTextTerms.add("backend microservices");
+
+        assertEquals(List.of(backend.getId()), ids(search(criteria)));
+
+        criteria.freeTextTerms.add("react");
+        assertTrue(search(criteria).isEmpty());
+    }
+
+    @Test
+    void shouldMatchInsideTokensLikeTheRanker() {
+        JobEntity script = job("Frontend Developer", "Modern javascript tooling.", "javascript,node.js",
+                "mid", "remote", "Campinas, Brasil");
+        index.index(List.of(script));
+
+        SearchCriteria text = new SearchCriteria();
+        text.freeTextTerms.add("java");
+        assertEquals(Set.of(backend.getId(), script.getId()), Set.copyOf(ids(search(text))));
+
+        SearchCriteria stack = new SearchCriteria();
+        stack.stacks.add("java");
+        assertEquals(Set.of(backend.getId(), script.getId()), Set.copyOf(ids(search(stack))));
+
+        SearchCriteria location = new SearchCriteria();
+        location.locationTerms.add("campin");
+        assertEquals(List.of(script.getId()), ids(search(location)));
+
+        // o trecho não atravessa tokens
+        SearchCriteria across = new SearchCriteria();
+        across.freeTextTerms.add("javascripttooling");
+        assertTrue(search(across).isEmpty());
+    }
+
+    @Test
+    void shouldFoldAccentsInLocation() {
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.locationTerms.add("sao paulo");
+
+        assertEquals(List.of(backend.getId()), ids(search(criteria)));
+    }
+
+    @Test
+    void shouldDropDeactivatedAndRemovedJobs() {
+        backend.setActive(false);
+        index.index(List.of(backend));
+        index.remove(List.of(frontend.getId()));
+
+        assertEquals(0, index.size());
+        assertTrue(search(new SearchCriteria()).isEmpty());
+    }
+
+    @Test
+    void shouldReplaceTokensWhenJobIsReindexed() {
+        frontend.setStacks("vue");
+        index.index(List.of(frontend));
+
+        SearchCriteria react = new SearchCriteria();
+        react.stacks.add("react");
+        SearchCriteria vue = new SearchCriteria();
+        vue.stacks.add("vue");
+
+        assertTrue(search(react).isEmpty());
+        assertEquals(List.of(frontend.getId()), ids(search(vue)));
+    }
+
+    @Test
+    void shouldCountFacetValuesWithinMatchingJobs() {
+        var all = index.facetCounts(new SearchCriteria());
+        assertEquals(1, all.get(SearchFacet.STACK).get("java"));
+        assertEquals(1, all.get(SearchFacet.STACK).get("react"));
+        assertEquals(1, all.get(SearchFacet.AREA).get("BACKEND"));
+
+        SearchCriteria remote = new SearchCriteria();
+        remote.workModes.add("remote");
+
+        var counts = index.facetCounts(remote);
+        assertEquals(1, counts.get(SearchFacet.SENIORITY).get("SENIOR"));
+        assertNull(counts.get(SearchFacet.SENIORITY).get("MID"));
+        assertEquals(1, counts.get(SearchFacet.WORK_MODE).get("remote"));
+    }
+
+    @Test
+    void shouldKeepOnlyTheMostRecentMemberOfEachDuplicateGroupVisible() {
+        JobEntity older = job("Platform Engineer", "Terraform platform work.", "terraform", "mid", "remote", "Remote");
+        older.setDuplicateGroup(7L);
+        older.setColetadoEm(OffsetDateTime.now().minusDays(2));
+        JobEntity newer = job("Platform Engineer", "Terraform platform work.", "terraform", "mid", "remote", "Remote");
+        newer.setDuplicateGroup(7L);
+        index.index(List.of(older, newer));
+
+        SearchCriteria terraform = new SearchCriteria();
+        terraform.stacks.add("terraform");
+        assertEquals(List.of(newer.getId()), ids(search(terraform)));
+        assertEquals(1, index.facetCounts(terraform).get(SearchFacet.STACK).get("terraform"));
+
+        // a coleta renovada troca o representante sem reindexar
+        index.touch(List.of(older.getId()), OffsetDateTime.now().plusMinutes(1));
+        assertEquals(List.of(older.getId()), ids(search(terraform)));
+
+        index.remove(List.of(older.getId()));
+        assertEquals(List.of(newer.getId()), ids(search(terraform)));
+    }
+
+    @Test
+    void shouldIndexFromNormalizedColumnsWithoutDecompressingDescription() {
+        // bytes que getDescription() não saberia ler
+        JobEntity unreadable = JobEntity.builder()
+                .id(UUID.randomUUID())
+                .title("Data Engineer")
+                .compressedDescription(new byte[]{9, 9, 9})
+                .normalizedDescription("airflow pipelines")
+                .coletadoEm(OffsetDateTime.now())
+                .active(true)
+                .build();
+
+        index.index(List.of(unreadable));
+
+        SearchCriteria criteria = new SearchCriteria();
+        criteria.freeTextTerms.add("airflow");
+        assertEquals(List.of(unreadable.getId()), ids(search(criteria)));
+    }
+
+    @Test
+    void shouldBoundSubstringHitsFromPostings() {
+        JobEntity mixed = job("Fullstack Engineer", "javascript and java javascript", "javascript",
+                "mid", "remote", "Remote");
+        index.index(List.of(mixed));
+
+        QueryTermMatcher matcher = QueryTermMatcher.compile(List.of("java"));
+        JobSearchIndex.Candidates candidates = index.candidates(new SearchCriteria(), matcher);
+
+        for (JobSearchIndex.Candidate candidate : candidates.jobs()) {
+            String description = candidate.job().description();
+            int bound = candidates.impacts().bound(IndexField.DESCRIPTION, 0, candidate.docId(), description);
+
+            // "java" também conta dentro de "javascript"
+            assertTrue(bound >= matcher.count(description)[0]);
+            if (candidate.job().id().equals(mixed.getId()))
+                assertEquals(3, bound);
+            if (candidate.job().id().equals(frontend.getId()))
+                assertEquals(0, bound);
+        }
+    }
+
+    @Test
+    void shouldRecomputeCachedImpactsAfterEveryWrite() {
+        QueryTermMatcher matcher = QueryTermMatcher.compile(List.of("kotlin"));
+        assertEquals(0, index.candidates(new SearchCriteria(), matcher).stats().documentFrequency()[0]);
+
+        JobEntity kotlin = job("Kotlin Engineer", "kotlin kotlin and more kotlin", "kotlin",
+                "mid", "remote", "Remote");
+        index.index(List.of(kotlin));
+
+        JobSearchIndex.Candidates candidates = index.candidates(new SearchCriteria(), matcher);
+        assertEquals(1, candidates.stats().documentFrequency()[0]);
+        for (JobSearchIndex.Candidate candidate : candidates.jobs())
+            if (candidate.job().id().equals(kotlin.getId()))
+                assertEquals(3, candidates.impacts().bound(IndexField.DESCRIPTION, 0, candidate.docId(),
+                        candidate.job().description()));
+
+        index.remove(List.of(kotlin.getId()));
+        assertEquals(0, index.candidates(new SearchCriteria(), matcher).stats().documentFrequency()[0]);
+    }
+
+    // só os filtros: sem termos de ranking
+    private List<IndexedJob> search(SearchCriteria criteria) {
+        return index.candidates(criteria, QueryTermMatcher.compile(List.of())).jobs().stream()
+                .map(JobSearchIndex.Candidate::job)
+                .toList();
+    }
+
+    private static List<UUID> ids(List<IndexedJob> jobs) {
+        return jobs.stream().map(IndexedJob::id).toList();
+    }
+
+    private static JobEntity job(String title, String description, String stacks,
+                                 String seniority, String workMode, String location) {
+        return JobEntity.builder()
+                .id(UUID.randomUUID())
+                .url("https://jobs.lever.co/acme/" + UUID.randomUUID())
+                .empresa("acme")
+                .domain("jobs.lever.co")
+                .source("lever")
+                .title(title)
+                .description(description)
+                .stacks(stacks)
+                .seniority(seniority)
+                .workMode(workMode)
+                .location(location)
+                .coletadoEm(OffsetDateTime.now())
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.hermes.jobs.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LengthNormTests {
+
+    @Test
+    void shouldKeepShortLengthsExact() {
+        for (int length = 0; length <= LengthNorm.EXACT; length++)
+            assertEquals(length, LengthNorm.decode(LengthNorm.encode(length)));
+    }
+
+    @Test
+    void shouldRoundDownWithinFewPercent() {
+        int previous = 0;
+        for (int length = 1; length <= 150_000; length += 37) {
+            int decoded = LengthNorm.decode(LengthNorm.encode(length));
+
+            assertTrue(decoded <= length);
+            assertTrue(decoded >= length * 0.95, "comprimento " + length + " virou " + decoded);
+            assertTrue(decoded >= previous);
+            previous = decoded;
+        }
+    }
+}
@@ -1,7 +1,16 @@
 package com.hermes.jobs.search;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class QueryParserTests {
@@ -25,4 +34,48 @@ class QueryParserTests {
 
         assertTrue(criteria.areas.contains(Area.DEVOPS));
     }
+
+    @Test
+    void shouldSplitQueryIntoDictionaryHitsAndFreeTerms() {
+        QuerySynonymCatalog catalog = new QuerySynonymCatalog();
+        SearchCriteria criteria = QueryParser.parse("Vaga de Dotnet híbrido no Brasil, microservices.", catalog);
+
+        assertEquals(Set.of(".net"), criteria.stacks);
+        assertEquals(Set.of("hybrid"), criteria.workModes);
+        assertEquals(Set.of("brasil"), criteria.locationTerms);
+        assertEquals("brazil", criteria.country);
+        assertEquals(Set.of("vaga", "microservices"), criteria.freeTextTerms);
+        assertFalse(criteria.remote);
+    }
+
+    @Test
+    void shouldReuseCompiledSnapshotUntilSynonymsChange() {
+        QuerySynonymCatalog catalog = new QuerySynonymCatalog();
+        SynonymSnapshot first = catalog.snapshot();
+
+        assertSame(first, catalog.snapshot());
+
+        catalog.setStacks(Set.of("elixir"));
+        assertTrue(catalog.snapshot().stacks().contains("elixir"));
+    }
+
+    @Test
+    void shouldReloadSynonymsFromFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("synonyms.properties");
+        Files.writeString(file, "search.synonyms.area.sre=devops\n");
+
+        QuerySynonymCatalog catalog = new QuerySynonymCatalog();
+        catalog.setFile(file.toString());
+        assertTrue(QueryParser.parse("sre", catalog).areas.contains(Area.DEVOPS));
+
+        Files.writeString(file, "search.synonyms.stacks=elixir,phoenix\n");
+        SynonymSnapshot reloaded = catalog.reload();
+
+        assertTrue(QueryParser.parse("phoenix", catalog).stacks.contains("phoenix"));
+        assertTrue(QueryParser.parse("sre", catalog).freeTextTerms.contains("sre"));
+
+        Files.writeString(file, "search.synonyms.area.sre=nao-existe\n");
+        assertThrows(RuntimeException.class, catalog::reload);
+        assertSame(reloaded, catalog.snapshot());
+    }
 }
@@ -0,0 +1,63 @@
+package com.hermes.jobs.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryTermMatcherTests {
+
+    @Test
+    void shouldCountLikeIndexOfLoopForOverlappingTerms() {
+        Random random = new Random(11);
+        String alphabet = "ab. #";
+
+        for (int round = 0; round < 500; round++) {
+            List<String> terms = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(6); i++)
+                terms.add(randomText(random, alphabet, 1 + random.nextInt(4)));
+
+            QueryTermMatcher matcher = QueryTermMatcher.compile(terms);
+            String text = randomText(random, alphabet + "é", random.nextInt(80));
+            int[] hits = matcher.count(text);
+
+            for (String term : terms.stream().filter(term -> !term.isBlank()).toList())
+                assertEquals(indexOfCount(text, term), hits[matcher.idOf(term)], term + " em '" + text + "'");
+        }
+    }
+
+    @Test
+    void shouldCountEveryTermInSingleScan() {
+        QueryTermMatcher matcher = QueryTermMatcher.compile(List.of("java", "spring", "Java", "spring boot", " ", "c#"));
+        int[] hits = matcher.count("java spring boot, spring e java 21; c# e java");
+
+        assertEquals(4, matcher.size());
+        assertEquals(3, hits[matcher.idOf("java")]);
+        assertEquals(2, hits[matcher.idOf("spring")]);
+        assertEquals(1, hits[matcher.idOf("spring boot")]);
+        assertEquals(1, hits[matcher.idOf("c#")]);
+        assertEquals(-1, matcher.idOf(" "));
+        assertArrayEquals(new int[4], matcher.count(null));
+    }
+
+    private static int indexOfCount(String text, String token) {
+        int count = 0;
+        int index = 0;
+        while ((index = text.indexOf(token, index)) >= 0) {
+            count++;
+            index += token.length();
+        }
+        return count;
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++)
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        return text.toString();
+    }
+}
@@ -1,12 +1,21 @@
 package com.hermes.jobs.search;
 
+import com.hermes.jobs.job.JobService;
+import com.hermes.jobs.job.dto.JobDocument;
+import com.hermes.jobs.job.dto.JobImportRequest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -16,9 +25,57 @@ class SearchControllerApiVersionTests {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private JobService jobService;
+
     @Test
     void shouldExposeVersionedOptionsEndpoint() throws Exception {
         mockMvc.perform(get("/api/v1/search/options"))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void shouldExposeVersionedFacetsEndpoint() throws Exception {
+        mockMvc.perform(get("/api/v1/search/facets").param("stacks", "java").param("workModes", "remote"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stacks").isMap())
+                .andExpect(jsonPath("$.seniorities").isMap())
+                .andExpect(jsonPath("$.workModes").isMap())
+                .andExpect(jsonPath("$.areas").isMap());
+    }
+
+    @Test
+    void shouldApplyStructuredFiltersTogetherWithQueryInFacets() throws Exception {
+        jobService.importDocuments(new JobImportRequest(List.of(
+                new JobDocument("https://jobs.lever.co/acme/thulium-remote", "Senior Thulium Engineer", "Remote",
+                        "Thulium platform, fully remote.", "ats", "acme", 0.9, "v4", null),
+                new JobDocument("https://jobs.lever.co/acme/thulium-onsite", "Junior Thulium Engineer", "Recife",
+                        "Thulium platform, on-site in Recife.", "ats", "acme", 0.9, "v4", null))));
+
+        mockMvc.perform(get("/api/v1/search/facets").param("q", "thulium"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seniorities.SENIOR").value(1))
+                .andExpect(jsonPath("$.seniorities.JUNIOR").value(1));
+
+        mockMvc.perform(get("/api/v1/search/facets").param("q", "thulium").param("seniorities", "junior"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seniorities.JUNIOR").value(1))
+                .andExpect(jsonPath("$.seniorities.SENIOR").doesNotExist());
+    }
+
+    @Test
+    void shouldOpenReuseAndReplaceScrollContexts() throws Exception {
+        String opened = scroll("new");
+        assertNotNull(opened);
+
+        assertEquals(opened, scroll(opened));
+        assertNotEquals("expirado", scroll("expirado"));
+    }
+
+    private String scroll(String scroll) throws Exception {
+        return mockMvc.perform(get("/api/v1/search").param("q", "kotlin").param("scroll", scroll))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isArray())
+                .andReturn().getResponse().getHeader(SearchController.SCROLL_HEADER);
+    }
 }
@@ -0,0 +1,147 @@
+package com.hermes.jobs.search;
+
+import com.hermes.jobs.job.JobEntity;
+import com.hermes.jobs.job.JobRepository;
+import com.hermes.jobs.job.JobService;
+import com.hermes.jobs.job.dto.JobDocument;
+import com.hermes.jobs.job.dto.JobImportRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SearchRankingPageTests {
+
+    @Autowired
+    private JobService service;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private JobRepository repository;
+
+    @Autowired
+    private QuerySynonymCatalog synonymCatalog;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void shouldReturnSameOrderWhetherReadInOnePageOrMany() {
+        service.importDocuments(new JobImportRequest(IntStream.range(0, 14)
+                .mapToObj(i -> new JobDocument("https://jobs.lever.co/acme/" + i,
+                        i % 3 == 0 ? "Zephyr Java Backend Engineer " + i : "Zephyr Backend Engineer " + i,
+                        "Remote",
+                        // curtas demais para SimHash: nenhuma vira quase duplicata
+                        "Backend services in Java. ".repeat(1 + i % 3),
+                        "ats", "acme", 0.9, "v4", null))
+                .toList()));
+
+        Page<JobEntity> all = searchService.search("zephyr java backend", PageRequest.of(0, 50));
+        List<UUID> paged = new ArrayList<>();
+        for (int page = 0; page * 4 < all.getTotalElements(); page++) {
+            Page<JobEntity> result = searchService.search("zephyr java backend", PageRequest.of(page, 4));
+            assertEquals(all.getTotalElements(), result.getTotalElements());
+            result.forEach(job -> paged.add(job.getId()));
+        }
+
+        assertEquals(14, all.getTotalElements());
+        assertEquals(all.map(JobEntity::getId).getContent(), paged);
+        assertTrue(searchService.search("zephyr java backend", PageRequest.of(9, 4)).isEmpty());
+    }
+
+    @Test
+    void shouldRankOlderJobsBeyondTheMostRecentCandidates() {
+        service.importDocuments(new JobImportRequest(List.of(new JobDocument("https://jobs.lever.co/acme/quasar",
+                "Quasar Platform Engineer", "Remote", "Quasar quasar quasar services.",
+                "ats", "acme", 0.9, "v4", null))));
+
+        // mais recentes que a vaga acima e além das 500 primeiras
+        service.importDocuments(new JobImportRequest(IntStream.range(0, 520)
+                .mapToObj(i -> new JobDocument("https://jobs.lever.co/other/" + i,
+                        "Quasar Engineer " + i, "Remote", "Role " + i + ".",
+                        "ats", "other", 0.9, "v4", null))
+                .toList()));
+
+        Page<JobEntity> result = searchService.search("quasar", PageRequest.of(0, 5));
+
+        assertEquals(521, result.getTotalElements());
+        assertEquals("https://jobs.lever.co/acme/quasar", result.getContent().get(0).getUrl());
+    }
+
+    @Test
+    void shouldPruneShallowPagesToTheSameOrderAsADeepRead() {
+        // vários blocos de doc ids com ocorrências e comprimentos variados
+        service.importDocuments(new JobImportRequest(IntStream.range(0, 600)
+                .mapToObj(i -> new JobDocument("https://jobs.lever.co/acme/hafnium-" + i,
+                        "Hafnium " + "Kotlin ".repeat(i % 4) + "Engineer " + i,
+                        i % 5 == 0 ? "Remote" : "Recife",
+                        "Hafnium platform role " + i + ". " + "Kotlin services. ".repeat(i % 7) + "Filler text. ".repeat(i % 11),
+                        "ats", "acme", 0.9, "v4", null))
+                .toList()));
+
+        // com profundidade igual ao total nada pode ser descartado
+        Page<JobEntity> deep = searchService.search("hafnium kotlin", PageRequest.of(0, 600));
+        Page<JobEntity> shallow = searchService.search("hafnium kotlin", PageRequest.of(0, 7));
+
+        // quase duplicatas já saíram; o total raso é uma estimativa por cima do exato
+        assertTrue(deep.getTotalElements() > 300);
+        assertTrue(shallow.getTotalElements() >= deep.getTotalElements());
+        assertEquals(deep.map(JobEntity::getId).getContent().subList(0, 7), shallow.map(JobEntity::getId).getContent());
+    }
+
+    @Test
+    void shouldNotLetLongRepetitiveDescriptionsDominate() {
+        String filler = "Our team builds services, tooling and dashboards for customers across many regions. ";
+        List<JobDocument> documents = new ArrayList<>(List.of(
+                new JobDocument("https://jobs.lever.co/acme/yttrium-long", "Yttrium Engineer", "Remote",
+                        (filler + "Yttrium yttrium yttrium. ").repeat(8), "ats", "acme", 0.9, "v4", null),
+                new JobDocument("https://jobs.lever.co/acme/yttrium-short", "Yttrium Engineer", "Remote",
+                        "Yttrium yttrium services.", "ats", "acme", 0.9, "v4", null)));
+
+        // corpus de fundo: com duas vagas só, o IDF de qualquer termo é quase zero
+        IntStream.range(0, 30).forEach(i -> documents.add(new JobDocument("https://jobs.lever.co/other/" + i,
+                "Support Engineer " + i, "Remote", "Role " + i + ".", "ats", "other", 0.9, "v4", null)));
+        service.importDocuments(new JobImportRequest(documents));
+
+        Page<JobEntity> result = searchService.search("yttrium", PageRequest.of(0, 2));
+
+        assertEquals("https://jobs.lever.co/acme/yttrium-short", result.getContent().get(0).getUrl());
+    }
+
+    @Test
+    void shouldServeLaterScrollPagesFromTheFirstPageRanking() {
+        service.importDocuments(new JobImportRequest(IntStream.range(0, 6)
+                .mapToObj(i -> new JobDocument("https://jobs.lever.co/acme/zircon-" + i,
+                        "Zircon Engineer " + i, "Remote", "Role " + i + ".", "ats", "acme", 0.9, "v4", null))
+                .toList()));
+
+        SearchService.ScrollPage first = searchService.openScroll(QueryParser.parse("zircon", synonymCatalog), PageRequest.of(0, 3));
+        List<UUID> expected = searchService.search("zircon", PageRequest.of(1, 3)).map(JobEntity::getId).getContent();
+
+        // vaga melhor chegando no meio do scroll não muda as páginas seguintes
+        service.importDocuments(new JobImportRequest(List.of(new JobDocument("https://jobs.lever.co/acme/zircon-new",
+                "Zircon Zircon Engineer", "Remote", "Zircon role.", "ats", "acme", 0.9, "v4", null))));
+
+        Page<JobEntity> second = searchService.scroll(first.scrollId(), PageRequest.of(1, 3)).orElseThrow();
+
+        assertEquals(6, second.getTotalElements());
+        assertEquals(expected, second.map(JobEntity::getId).getContent());
+        assertTrue(searchService.scroll(first.scrollId(), PageRequest.of(5, 3)).orElseThrow().isEmpty());
+        assertTrue(searchService.scroll("desconhecido", PageRequest.of(1, 3)).isEmpty());
+    }
+}
@@ -0,0 +1,70 @@
+package com.hermes.jobs.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchScrollContextsTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldKeepRankedIdsInOrder() {
+        SearchScrollContexts contexts = new SearchScrollContexts(new SearchScrollProperties(), meterRegistry);
+        List<UUID> ids = ids(5);
+
+        String id = contexts.open(ids, 9, false);
+        SearchScrollContexts.Context context = contexts.get(id).orElseThrow();
+
+        assertEquals(ids.subList(2, 4), context.ids(2, 4));
+        assertEquals(9, context.total());
+        assertTrue(context.covers(5));
+        assertFalse(context.covers(6));
+        assertEquals(1, meterRegistry.get("hermes_search_scroll_contexts").gauge().value());
+        assertEquals(contexts.bytes(), meterRegistry.get("hermes_search_scroll_bytes").gauge().value());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedOverMemoryBudget() {
+        SearchScrollProperties properties = new SearchScrollProperties();
+        SearchScrollContexts probe = new SearchScrollContexts(properties, new SimpleMeterRegistry());
+        probe.open(ids(10), 10, true);
+        properties.setMaxBytes(probe.bytes() * 2);
+
+        SearchScrollContexts contexts = new SearchScrollContexts(properties, meterRegistry);
+        String first = contexts.open(ids(10), 10, true);
+        String second = contexts.open(ids(10), 10, true);
+        contexts.get(first);
+        String third = contexts.open(ids(10), 10, true);
+
+        assertTrue(contexts.get(first).isPresent());
+        assertTrue(contexts.get(second).isEmpty());
+        assertTrue(contexts.get(third).isPresent());
+        assertEquals(1, meterRegistry.get("hermes_search_scroll_evicted_total").tag("reason", "memory").counter().count());
+    }
+
+    @Test
+    void shouldDropExpiredContexts() {
+        SearchScrollProperties properties = new SearchScrollProperties();
+        properties.setTtl(Duration.ZERO);
+        SearchScrollContexts contexts = new SearchScrollContexts(properties, meterRegistry);
+
+        String id = contexts.open(ids(3), 3, true);
+
+        assertTrue(contexts.get(id).isEmpty());
+        assertEquals(0, contexts.size());
+        assertEquals(0, contexts.bytes());
+    }
+
+    private static List<UUID> ids(int count) {
+        return IntStream.range(0, count).mapToObj(i -> UUID.randomUUID()).toList();
+    }
+}
@@ -0,0 +1,58 @@
+package com.hermes.jobs.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimHashTests {
+
+    static final String BACKEND = "Senior Payments Engineer About the role: we are looking for an engineer with "
+            + "strong Java and Spring experience to build our payments platform. You will design microservices, "
+            + "mentor the team and own production services on AWS with Kubernetes and Postgres. Responsibilities "
+            + "include designing resilient APIs, improving observability with metrics and tracing, reviewing code, "
+            + "and working closely with product managers to plan the roadmap for card acquiring, settlement and "
+            + "reconciliation. Requirements: five years building backend systems, solid knowledge of SQL, messaging "
+            + "with Kafka, automated testing and continuous delivery. We offer remote work, flexible hours, health "
+            + "insurance, a learning budget and stock options.";
+
+    static final String FRONTEND = "Senior Frontend Engineer About the role: we are looking for an engineer with "
+            + "strong React and TypeScript experience to build our merchant dashboard. You will design components, "
+            + "mentor the team and own the design system used across web products. Responsibilities include "
+            + "building accessible interfaces, improving performance with profiling and lazy loading, reviewing code, "
+            + "and working closely with designers to plan the roadmap for onboarding, reporting and billing screens. "
+            + "Requirements: five years building web applications, solid knowledge of CSS, state management, "
+            + "automated testing and continuous delivery. We offer remote work, flexible hours, health insurance, "
+            + "a learning budget and stock options.";
+
+    @Test
+    void shouldIgnoreAccentsAndCase() {
+        assertEquals(SimHash.of(BACKEND), SimHash.of(BACKEND.replace("Senior", "SÊNIOR")));
+    }
+
+    @Test
+    void shouldKeepNearDuplicatesWithinFewBits() {
+        long original = SimHash.of(BACKEND).orElseThrow();
+
+        // NearDuplicateIndex aceita até 6 bits
+        assertTrue(distance(original, BACKEND.replace("mentor", "coach")) <= 6);
+        assertTrue(distance(original, BACKEND + " Apply today!") <= 6);
+    }
+
+    @Test
+    void shouldSeparateDifferentPostingsFromSameTemplate() {
+        long backend = SimHash.of(BACKEND).orElseThrow();
+
+        assertTrue(distance(backend, FRONTEND) > 12);
+    }
+
+    @Test
+    void shouldSkipShortTexts() {
+        assertTrue(SimHash.of("Backend Java remoto").isEmpty());
+        assertTrue(SimHash.of(null).isEmpty());
+    }
+
+    private static int distance(long fingerprint, String text) {
+        return SimHash.distance(fingerprint, SimHash.of(text).orElseThrow());
+    }
+}
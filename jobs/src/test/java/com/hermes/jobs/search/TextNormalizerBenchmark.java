@@ -0,0 +1,93 @@
+package com.hermes.jobs.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o normalizador por tabela com a implementação anterior
+ * (Normalizer + regex + split). Não roda no {@code mvn test}; ver
+ * docs/TEXT_PIPELINE_BENCHMARK.md.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextNormalizerBenchmark {
+
+    private static final String DESCRIPTION = """
+            Buscamos Pessoa Desenvolvedora Backend Sênior para atuar em squad de Pagamentos.
+            Requisitos: Java 21, Spring Boot, Kafka, PostgreSQL, Docker e Kubernetes (AWS).
+            Diferenciais: experiência com microsserviços, observabilidade e C#/.NET.
+            Modelo de trabalho: híbrido em São Paulo — 2x por semana no escritório.
+            Benefícios: VR/VA, plano de saúde, Gympass, PLR e auxílio home office.
+            """.repeat(4);
+
+    private static final String QUERY = "vaga java sênior remoto são paulo";
+
+    @Benchmark
+    public String normalizeLegacy() {
+        return TextNormalizer.referenceNormalize(DESCRIPTION);
+    }
+
+    @Benchmark
+    public String normalizeTable() {
+        return TextNormalizer.normalize(DESCRIPTION);
+    }
+
+    @Benchmark
+    public String normalizeQueryLegacy() {
+        return TextNormalizer.referenceNormalize(QUERY);
+    }
+
+    @Benchmark
+    public String normalizeQueryTable() {
+        return TextNormalizer.normalize(QUERY);
+    }
+
+    @Benchmark
+    public String foldLegacy() {
+        return TextNormalizer.referenceFold(DESCRIPTION);
+    }
+
+    @Benchmark
+    public String foldTable() {
+        return TextNormalizer.fold(DESCRIPTION);
+    }
+
+    @Benchmark
+    public List<String> tokensLegacy() {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TextNormalizer.referenceNormalize(DESCRIPTION).split(" "))
+            if (!token.isEmpty())
+                tokens.add(token);
+        return tokens;
+    }
+
+    @Benchmark
+    public void tokensSink(Blackhole blackhole) {
+        TextNormalizer.tokenize(DESCRIPTION, (buffer, offset, length) -> blackhole.consume(length));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TextNormalizerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
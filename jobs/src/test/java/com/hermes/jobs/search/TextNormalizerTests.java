@@ -0,0 +1,73 @@
+package com.hermes.jobs.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TextNormalizerTests {
+
+    private static final String ALPHABET =
+            "abcXYZ019 #.+-_/,;:()\t\nÁÉÍÓÚáéíóúÂÊÔâêôÃÕãõÇçÀàÜüßæøÑñ" + "ŁłŒœİı" + "́̃" + "–—’“”•…" + "日本€😀";
+
+    @Test
+    void shouldMatchReferenceImplementationOnRandomText() {
+        Random random = new Random(7);
+
+        for (int i = 0; i < 5_000; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int j = 0; j < length; j++)
+                text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+
+            String input = text.toString();
+            assertEquals(TextNormalizer.referenceNormalize(input), TextNormalizer.normalize(input), input);
+            assertEquals(TextNormalizer.referenceFold(input), TextNormalizer.fold(input), input);
+            assertEquals(referenceTokens(input), TextNormalizer.tokens(input), input);
+        }
+    }
+
+    @Test
+    void shouldFoldPortugueseAccentsAndCollapseSeparators() {
+        assertEquals("desenvolvedor java senior sao paulo", TextNormalizer.normalize("  Desenvolvedor  JAVA (Sênior) — São Paulo "));
+        assertEquals("c# .net node.js", TextNormalizer.normalize("C#, .NET / Node.js"));
+        assertEquals("hibrido, sao paulo!", TextNormalizer.fold("Híbrido, São Paulo!"));
+    }
+
+    @Test
+    void shouldReturnSameInstanceWhenAlreadyNormalized() {
+        String normalized = "java spring senior";
+        assertSame(normalized, TextNormalizer.normalize(normalized));
+        assertSame(normalized, TextNormalizer.fold(normalized));
+    }
+
+    @Test
+    void shouldTrimSentencePunctuationFromTokens() {
+        assertEquals(List.of("microservices", ".net", "c++", "node.js"),
+                TextNormalizer.tokens("Microservices. .NET, C++ -node.js-"));
+        assertEquals(List.of(), TextNormalizer.tokens(" - . "));
+        assertEquals(List.of(), TextNormalizer.tokens(null));
+    }
+
+    // implementação anterior: normalize com Normalizer + split + trim de pontuação
+    private static List<String> referenceTokens(String text) {
+        String normalized = TextNormalizer.referenceNormalize(text);
+        List<String> tokens = new ArrayList<>();
+        if (normalized.isEmpty())
+            return tokens;
+
+        for (String raw : normalized.split(" ")) {
+            int start = 0;
+            int end = raw.length();
+            while (start < end && raw.charAt(start) == '-') start++;
+            while (end > start && (raw.charAt(end - 1) == '.' || raw.charAt(end - 1) == '-')) end--;
+            if (end > start)
+                tokens.add(raw.substring(start, end));
+        }
+        return tokens;
+    }
+}
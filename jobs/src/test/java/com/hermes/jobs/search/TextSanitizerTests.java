@@ -0,0 +1,48 @@
+package com.hermes.jobs.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TextSanitizerTests {
+
+    @Test
+    void shouldCollapseWhitespaceAndTrim() {
+        assertEquals("Vaga Java remoto", TextSanitizer.clean("  Vaga\n\n Java \t remoto  "));
+        assertEquals("", TextSanitizer.clean(null));
+    }
+
+    @Test
+    void shouldRemoveApplyBlocksAndMenus() {
+        assertEquals("Sobre a vaga. Requisitos: Java.",
+                TextSanitizer.clean("Back to jobs Sobre a vaga. APPLY now\n please Submit   Application Requisitos: Java."));
+        assertEquals("Descrição Benefícios",
+                TextSanitizer.clean("Descrição Candidatar a esta vaga ... Enviar inscrição Benefícios voltar para vagas"));
+    }
+
+    @Test
+    void shouldKeepApplyWithoutClosingMarker() {
+        assertEquals("Please apply on our site.", TextSanitizer.clean("Please apply on our site."));
+    }
+
+    @Test
+    void shouldCutAtFirstFormLabelAsWholeWord() {
+        assertEquals("Empresa renomada e fenomenal. Envie seu",
+                TextSanitizer.clean("Empresa renomada e fenomenal. Envie seu currículo, Nome: ___ Email: ___"));
+        assertEquals("Requisitos", TextSanitizer.clean("Requisitos email"));
+    }
+
+    @Test
+    void shouldDropLabelInsideRemovedApplyBlock() {
+        assertEquals("Sobre Requisitos",
+                TextSanitizer.clean("Sobre apply: Nome Email Resume submit application Requisitos"));
+        assertEquals("Sobre apply:",
+                TextSanitizer.clean("Sobre apply: Nome Email e sem fechamento"));
+    }
+
+    @Test
+    void shouldStopAtMaxLength() {
+        assertEquals("abcde", TextSanitizer.clean("abcdefghij", 5));
+        assertEquals("ab", TextSanitizer.clean("ab     cdef", 3));
+    }
+}
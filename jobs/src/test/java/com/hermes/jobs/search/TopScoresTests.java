@@ -0,0 +1,73 @@
+package com.hermes.jobs.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TopScoresTests {
+
+    @Test
+    void shouldKeepBestScoresAndPreferEarlierPositionOnTie() {
+        TopScores top = new TopScores(3);
+        double[] scores = {5, 9, 1, 9, 7, 5};
+        for (int i = 0; i < scores.length; i++)
+            top.offer(scores[i], i);
+
+        assertEquals(7, top.threshold(0));
+        assertArrayEquals(new int[]{1, 3, 4}, top.drainBestFirst());
+        assertEquals(0, top.size());
+    }
+
+    @Test
+    void shouldUseFloorUntilFull() {
+        TopScores top = new TopScores(2);
+        top.offer(3, 0);
+
+        assertEquals(0, top.threshold(0));
+        top.offer(4, 1);
+        assertEquals(3, top.threshold(0));
+        assertEquals(0, new TopScores(0).threshold(0));
+    }
+
+    @Test
+    void shouldMatchStableSortOfRandomScores() {
+        Random random = new Random(42);
+        double[] scores = random.ints(500, 0, 40).asDoubleStream().toArray();
+
+        TopScores top = new TopScores(25);
+        for (int i = 0; i < scores.length; i++)
+            top.offer(scores[i], i);
+
+        int[] expected = IntStream.range(0, scores.length).boxed()
+                .sorted((a, b) -> Double.compare(scores[b], scores[a]))
+                .limit(25)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        assertArrayEquals(expected, top.drainBestFirst());
+    }
+
+    @Test
+    void shouldNotDependOnOfferOrder() {
+        Random random = new Random(7);
+        double[] scores = random.ints(200, 0, 10).asDoubleStream().toArray();
+
+        TopScores inOrder = new TopScores(15);
+        for (int i = 0; i < scores.length; i++)
+            inOrder.offer(scores[i], i);
+
+        List<Integer> shuffled = new ArrayList<>(IntStream.range(0, scores.length).boxed().toList());
+        Collections.shuffle(shuffled, random);
+        TopScores anyOrder = new TopScores(15);
+        for (int i : shuffled)
+            anyOrder.offer(scores[i], i);
+
+        assertArrayEquals(inOrder.drainBestFirst(), anyOrder.drainBestFirst());
+    }
+}
@@ -0,0 +1,77 @@
+package com.hermes.jobs.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VocabularyGramsTests {
+
+    @Test
+    void shouldFindTheSameTokensAsAVocabularyScan() {
+        Random random = new Random(7);
+        VocabularyGrams grams = new VocabularyGrams();
+        Set<String> vocabulary = new HashSet<>();
+
+        for (int i = 0; i < 3_000; i++) {
+            String token = randomToken(random);
+            grams.add(token);
+            vocabulary.add(token);
+        }
+
+        // remove um terço, e o mesmo id volta para tokens novos
+        for (String token : List.copyOf(vocabulary)) {
+            if (random.nextInt(3) == 0) {
+                grams.remove(token);
+                vocabulary.remove(token);
+            }
+        }
+        for (int i = 0; i < 500; i++) {
+            String token = randomToken(random);
+            grams.add(token);
+            vocabulary.add(token);
+        }
+
+        for (int i = 0; i < 300; i++) {
+            String core = randomToken(random).substring(0, 1 + random.nextInt(4));
+
+            Set<String> expected = new TreeSet<>();
+            for (String token : vocabulary)
+                if (token.contains(core))
+                    expected.add(token);
+
+            assertEquals(expected, new TreeSet<>(grams.containing(core)), core);
+        }
+    }
+
+    @Test
+    void shouldMatchInsideTokensAndForgetRemovedOnes() {
+        VocabularyGrams grams = new VocabularyGrams();
+        grams.add("java");
+        grams.add("javascript");
+        grams.add("c#");
+
+        assertEquals(Set.of("java", "javascript"), new HashSet<>(grams.containing("java")));
+        assertEquals(List.of("javascript"), grams.containing("script"));
+        assertEquals(List.of("c#"), grams.containing("#"));
+
+        grams.remove("javascript");
+
+        assertEquals(List.of("java"), grams.containing("java"));
+        assertTrue(grams.containing("script").isEmpty());
+    }
+
+    private static String randomToken(Random random) {
+        StringBuilder token = new StringBuilder();
+        int length = 4 + random.nextInt(8);
+        for (int i = 0; i < length; i++)
+            token.append("abcdej#.+".charAt(random.nextInt(9)));
+        return token.toString();
+    }
+}